@@ -1,9 +1,14 @@
 package org.fortishop.orderpaymentservice;
 
+import org.fortishop.orderpaymentservice.service.OrderCacheEvictedEvent;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@RemoteApplicationEventScan(basePackageClasses = OrderCacheEvictedEvent.class)
 public class OrderPaymentServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,70 @@
+package org.fortishop.orderpaymentservice.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.fortishop.orderpaymentservice.dto.request.DlqReplayRequest;
+import org.fortishop.orderpaymentservice.dto.response.DlqRecordResponse;
+import org.fortishop.orderpaymentservice.dto.response.DlqReplayJobResponse;
+import org.fortishop.orderpaymentservice.global.AdminAuthorization;
+import org.fortishop.orderpaymentservice.global.Responder;
+import org.fortishop.orderpaymentservice.kafka.dlq.DlqReplayService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/dlq")
+public class DlqReplayController {
+
+    private final DlqReplayService dlqReplayService;
+
+    @GetMapping("/{topic}/records")
+    public ResponseEntity<?> getRecords(@PathVariable(name = "topic") String topic,
+                                        @RequestParam(name = "exception", required = false) String exception,
+                                        @RequestParam(name = "from", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(name = "to", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(name = "limit", defaultValue = "20") int limit,
+                                        HttpServletRequest request) {
+        AdminAuthorization.validate(request);
+        List<DlqRecordResponse> records = dlqReplayService.inspect(topic, exception, from, to, limit);
+        return Responder.success(records);
+    }
+
+    @PostMapping("/{topic}/replays")
+    public ResponseEntity<?> startReplay(@PathVariable(name = "topic") String topic,
+                                         @RequestBody DlqReplayRequest replayRequest,
+                                         HttpServletRequest request) {
+        AdminAuthorization.validate(request);
+        DlqReplayJobResponse job = dlqReplayService.start(topic, replayRequest);
+        return Responder.success(job);
+    }
+
+    @GetMapping("/replays/{jobId}")
+    public ResponseEntity<?> getReplay(@PathVariable(name = "jobId") Long jobId, HttpServletRequest request) {
+        AdminAuthorization.validate(request);
+        return Responder.success(dlqReplayService.getJob(jobId));
+    }
+
+    @PostMapping("/replays/{jobId}/pause")
+    public ResponseEntity<?> pauseReplay(@PathVariable(name = "jobId") Long jobId, HttpServletRequest request) {
+        AdminAuthorization.validate(request);
+        return Responder.success(dlqReplayService.pause(jobId));
+    }
+
+    @PostMapping("/replays/{jobId}/resume")
+    public ResponseEntity<?> resumeReplay(@PathVariable(name = "jobId") Long jobId, HttpServletRequest request) {
+        AdminAuthorization.validate(request);
+        return Responder.success(dlqReplayService.resume(jobId));
+    }
+}
@@ -1,22 +1,33 @@
 package org.fortishop.orderpaymentservice.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.fortishop.orderpaymentservice.domain.OrderStatus;
 import org.fortishop.orderpaymentservice.dto.request.OrderRequest;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition;
+import org.fortishop.orderpaymentservice.dto.response.OrderBatchResponse;
+import org.fortishop.orderpaymentservice.dto.response.OrderPageResponse;
 import org.fortishop.orderpaymentservice.dto.response.OrderResponse;
-import org.fortishop.orderpaymentservice.dto.response.OrderSummaryResponse;
-import org.fortishop.orderpaymentservice.exception.OrderException;
-import org.fortishop.orderpaymentservice.exception.OrderExceptionType;
+import org.fortishop.orderpaymentservice.global.AdminAuthorization;
 import org.fortishop.orderpaymentservice.global.Responder;
+import org.fortishop.orderpaymentservice.global.idempotency.IdempotencyExecutor;
+import org.fortishop.orderpaymentservice.service.OrderExportFormat;
+import org.fortishop.orderpaymentservice.service.OrderExportService;
 import org.fortishop.orderpaymentservice.service.OrderService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,20 +38,23 @@ import org.springframework.web.bind.annotation.RestController;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyExecutor idempotencyExecutor;
+    private final OrderExportService orderExportService;
 
-    private static final String ADMIN_ROLE = "ROLE_ADMIN";
-
-    private void validateAdmin(HttpServletRequest request) {
-        String role = request.getHeader("x-member-role");
-        if (!ADMIN_ROLE.equals(role)) {
-            throw new OrderException(OrderExceptionType.UNAUTHORIZED_USER);
-        }
+    @PostMapping
+    public ResponseEntity<?> createOrder(@RequestBody OrderRequest request,
+                                         @RequestHeader(name = IdempotencyExecutor.HEADER, required = false)
+                                         String idempotencyKey) {
+        return idempotencyExecutor.execute("order", idempotencyKey, request, () -> {
+            Long orderId = orderService.createOrder(request);
+            return Responder.success(orderId);
+        });
     }
 
-    @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody OrderRequest request) {
-        Long orderId = orderService.createOrder(request);
-        return Responder.success(orderId);
+    @PostMapping("/batch")
+    public ResponseEntity<?> createOrders(@RequestBody List<OrderRequest> requests) {
+        OrderBatchResponse response = orderService.createOrders(requests);
+        return Responder.success(response);
     }
 
     @GetMapping("/{orderId}")
@@ -50,13 +64,27 @@ public class OrderController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getOrders(@RequestParam(name = "memberId", required = false) Long memberId) {
-        List<OrderSummaryResponse> orders = (memberId != null)
-                ? orderService.getOrdersByMember(memberId)
-                : orderService.getAllOrders();
+    public ResponseEntity<?> getOrders(@ModelAttribute OrderSearchCondition condition) {
+        OrderPageResponse orders = orderService.getOrders(condition);
         return Responder.success(orders);
     }
 
+    @GetMapping("/export")
+    public void exportOrders(@RequestParam(name = "format", defaultValue = "NDJSON") OrderExportFormat format,
+                             @RequestParam(name = "from", required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                             @RequestParam(name = "to", required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        AdminAuthorization.validate(request);
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + format.getExtension() + "\"");
+        orderExportService.export(format, from, to, response.getOutputStream());
+    }
+
     @PostMapping("/{orderId}/cancel")
     public ResponseEntity<?> cancelOrder(@PathVariable(name = "orderId") Long orderId) {
         orderService.cancelOrder(orderId);
@@ -67,7 +95,7 @@ public class OrderController {
     public ResponseEntity<?> changeStatus(@PathVariable(name = "orderId") Long orderId,
                                           @RequestParam(name = "status") OrderStatus status,
                                           HttpServletRequest request) {
-        validateAdmin(request);
+        AdminAuthorization.validate(request);
         orderService.changeStatus(orderId, status);
         return Responder.success("상태가 변경되었습니다.");
     }
@@ -4,12 +4,15 @@ import lombok.RequiredArgsConstructor;
 import org.fortishop.orderpaymentservice.dto.request.PaymentRequest;
 import org.fortishop.orderpaymentservice.dto.response.PaymentResponse;
 import org.fortishop.orderpaymentservice.global.Responder;
+import org.fortishop.orderpaymentservice.global.idempotency.IdempotencyExecutor;
+import org.fortishop.orderpaymentservice.service.PaymentRequestCoalescer;
 import org.fortishop.orderpaymentservice.service.PaymentService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,12 +22,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyExecutor idempotencyExecutor;
+    private final PaymentRequestCoalescer paymentRequestCoalescer;
 
     @PostMapping("/{orderId}")
     public ResponseEntity<?> requestPayment(@PathVariable(name = "orderId") Long orderId,
-                                            @RequestBody PaymentRequest request) {
-        paymentService.manualPayment(orderId, request.method());
-        return Responder.success("결제 요청이 완료되었습니다.");
+                                            @RequestBody PaymentRequest request,
+                                            @RequestHeader(name = IdempotencyExecutor.HEADER, required = false)
+                                            String idempotencyKey) {
+        return idempotencyExecutor.execute("payment:" + orderId, idempotencyKey, request, () -> {
+            paymentRequestCoalescer.manualPayment(orderId, request.method());
+            return Responder.success("결제 요청이 완료되었습니다.");
+        });
     }
 
     @GetMapping("/{paymentId}")
@@ -48,7 +57,7 @@ public class PaymentController {
     @PostMapping("/{paymentId}/retry")
     public ResponseEntity<?> retry(@PathVariable(name = "paymentId") Long paymentId) {
         paymentService.retryPayment(paymentId);
-        return Responder.success("결제가 재시도되었습니다.");
+        return Responder.success("결제 재시도가 예약되었습니다.");
     }
 
     @GetMapping("/methods")
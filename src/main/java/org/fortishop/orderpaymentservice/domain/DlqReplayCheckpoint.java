@@ -0,0 +1,52 @@
+package org.fortishop.orderpaymentservice.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 재처리 작업의 파티션별 진행 위치. 작업 생성 시점의 끝 offset 까지만 재처리한다.
+ */
+@Entity
+@Table(name = "dlq_replay_checkpoints",
+        uniqueConstraints = @UniqueConstraint(name = "uk_dlq_replay_checkpoints_job_partition",
+                columnNames = {"job_id", "partition_no"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class DlqReplayCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    @Column(nullable = false)
+    private long nextOffset;
+
+    @Column(nullable = false)
+    private long endOffset;
+
+    public void advanceTo(long nextOffset) {
+        this.nextOffset = Math.max(this.nextOffset, nextOffset);
+    }
+
+    public boolean isDone() {
+        return nextOffset >= endOffset;
+    }
+}
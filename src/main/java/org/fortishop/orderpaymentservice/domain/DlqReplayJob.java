@@ -0,0 +1,102 @@
+package org.fortishop.orderpaymentservice.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "dlq_replay_jobs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_dlq_replay_jobs_running_topic",
+                columnNames = "running_topic"),
+        indexes = @Index(name = "idx_dlq_replay_jobs_status", columnList = "status"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class DlqReplayJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    // 예외 클래스 이름 일부. null 이면 모든 레코드
+    private String exceptionFilter;
+
+    private LocalDateTime fromTime;
+
+    private LocalDateTime toTime;
+
+    @Column(nullable = false)
+    private int ratePerSecond;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DlqReplayStatus status;
+
+    // RUNNING 인 동안만 topic 을 담는다. 유니크 제약으로 토픽당 실행 중인 작업을 하나로 막는다(NULL 은 중복 허용).
+    @Column(name = "running_topic")
+    private String runningTopic;
+
+    private long replayedCount;
+
+    private long skippedCount;
+
+    private long failedCount;
+
+    // 작업을 실행 중인 인스턴스와 마지막 체크포인트 시각. 갱신이 끊긴 작업은 다른 인스턴스가 이어받는다.
+    @Column(length = 64)
+    private String owner;
+
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isRunning() {
+        return status == DlqReplayStatus.RUNNING;
+    }
+
+    public void pause() {
+        this.status = DlqReplayStatus.PAUSED;
+        this.runningTopic = null;
+    }
+
+    public void resume(String owner) {
+        this.status = DlqReplayStatus.RUNNING;
+        this.runningTopic = this.topic;
+        this.owner = owner;
+        this.heartbeatAt = LocalDateTime.now();
+    }
+}
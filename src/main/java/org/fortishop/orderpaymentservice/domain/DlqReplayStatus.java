@@ -0,0 +1,5 @@
+package org.fortishop.orderpaymentservice.domain;
+
+public enum DlqReplayStatus {
+    RUNNING, PAUSED, COMPLETED, FAILED
+}
@@ -0,0 +1,160 @@
+package org.fortishop.orderpaymentservice.domain;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 최소 단위(0.01) 개수를 long 으로 들고 있는 불변 금액 타입. 연산과 직렬화에서 BigDecimal 을 만들지 않는다.
+ * DB 에는 기존 DECIMAL(scale 2) 컬럼 그대로, JSON 에는 숫자로 쓴다.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0L);
+    private static final long MINOR_PER_UNIT = 100L;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(long amount) {
+        return ofMinor(Math.multiplyExact(amount, MINOR_PER_UNIT));
+    }
+
+    // 소수 둘째 자리 아래 값이 있으면 ArithmeticException
+    public static Money of(BigDecimal amount) {
+        return of(amount, RoundingMode.UNNECESSARY);
+    }
+
+    public static Money of(BigDecimal amount, RoundingMode roundingMode) {
+        return ofMinor(amount.setScale(SCALE, roundingMode).unscaledValue().longValueExact());
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    // 금액 × numerator / denominator 를 최소 단위에서 roundingMode 로 맞춘다. 중간 계산은 모두 정수로 한다.
+    public Money multiply(long numerator, long denominator, RoundingMode roundingMode) {
+        if (denominator <= 0) {
+            throw new IllegalArgumentException("denominator 는 1 이상이어야 합니다.");
+        }
+        long product = Math.multiplyExact(minorUnits, numerator);
+        long quotient = product / denominator;
+        long remainder = Math.abs(product % denominator);
+        if (remainder == 0) {
+            return ofMinor(quotient);
+        }
+        int sign = product < 0 ? -1 : 1;
+        int half = Long.compare(remainder, denominator - remainder);
+        boolean awayFromZero = switch (roundingMode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1L) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("반올림이 필요한 금액입니다.");
+        };
+        return ofMinor(awayFromZero ? quotient + sign : quotient);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && minorUnits == other.minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    // 소수부가 0 이면 정수로만 쓴다. 예: 3000, 3000.50, -0.05
+    @Override
+    public String toString() {
+        long units = minorUnits / MINOR_PER_UNIT;
+        long fraction = Math.abs(minorUnits % MINOR_PER_UNIT);
+        if (fraction == 0) {
+            return Long.toString(units);
+        }
+        String sign = minorUnits < 0 && units == 0 ? "-" : "";
+        return sign + units + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            if (value.minorUnits % MINOR_PER_UNIT == 0) {
+                gen.writeNumber(value.minorUnits / MINOR_PER_UNIT);
+            } else {
+                gen.writeNumber(value.toString());
+            }
+        }
+    }
+
+    static class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return Money.of(p.getLongValue());
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return Money.of(p.getDecimalValue());
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                return Money.of(new BigDecimal(p.getText().trim()));
+            }
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+    }
+}
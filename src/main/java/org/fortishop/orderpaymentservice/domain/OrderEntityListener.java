@@ -0,0 +1,19 @@
+package org.fortishop.orderpaymentservice.domain;
+
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * 주문 행이 UPDATE 될 때마다 상태 변경 이벤트를 발행한다. 스프링 빈 컨테이너를 통해 생성되므로 생성자 주입이 가능하다.
+ */
+@RequiredArgsConstructor
+public class OrderEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostUpdate
+    public void afterUpdate(Order order) {
+        applicationEventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getStatus()));
+    }
+}
@@ -8,7 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
-import java.math.BigDecimal;
+import jakarta.persistence.TableGenerator;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,7 +25,9 @@ import lombok.Setter;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_id_generator")
+    @TableGenerator(name = "order_items_id_generator", table = "id_segments", pkColumnName = "segment_name",
+            valueColumnName = "next_val", pkColumnValue = "order_items", allocationSize = 200)
     private Long id;
 
     @Setter
@@ -37,5 +39,5 @@ public class OrderItem {
 
     private int quantity;
 
-    private BigDecimal price;
+    private Money price;
 }
@@ -1,9 +1,33 @@
 package org.fortishop.orderpaymentservice.domain;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     ORDERED, PAID, CANCELLED, FAILED;
-    
+
+    // 목표 상태 -> 전이가 허용되는 현재 상태
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED_SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        ALLOWED_SOURCES.put(ORDERED, EnumSet.noneOf(OrderStatus.class));
+        ALLOWED_SOURCES.put(PAID, EnumSet.of(ORDERED));
+        ALLOWED_SOURCES.put(CANCELLED, EnumSet.of(ORDERED));
+        ALLOWED_SOURCES.put(FAILED, EnumSet.of(ORDERED));
+    }
+
     public boolean isFinal() {
         return this == PAID || this == CANCELLED || this == FAILED;
     }
+
+    public Set<OrderStatus> allowedSources() {
+        return Collections.unmodifiableSet(ALLOWED_SOURCES.get(this));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return ALLOWED_SOURCES.get(target).contains(this);
+    }
 }
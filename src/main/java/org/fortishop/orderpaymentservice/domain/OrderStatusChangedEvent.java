@@ -0,0 +1,4 @@
+package org.fortishop.orderpaymentservice.domain;
+
+public record OrderStatusChangedEvent(Long orderId, OrderStatus status) {
+}
@@ -0,0 +1,74 @@
+package org.fortishop.orderpaymentservice.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_transaction_group", columnList = "transaction_group")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    // relay 가 id 순서로 발행하므로 단조 증가하는 IDENTITY 를 유지한다.
+    // 세그먼트 채번은 인스턴스마다 다른 구간을 나눠 가져 커밋 순서와 id 순서가 어긋난다.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    // 같은 DB 트랜잭션에서 기록된 이벤트 묶음. 트랜잭션 프로듀서 모드에서 한 Kafka 트랜잭션으로 함께 커밋된다.
+    @Column(length = 36)
+    private String transactionGroup;
+
+    private LocalDateTime createdAt;
+
+    // 발행에 실패한 횟수. 트랜잭션 모드에서는 그룹 단독 발행에 실패한 횟수
+    @Column(nullable = false, columnDefinition = "int default 0")
+    private int attempts;
+
+    // 재시도 한도를 넘겨 발행 대상에서 빠진 시각. 원인을 고친 뒤 null 로 되돌리면 다시 발행된다.
+    private LocalDateTime parkedAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+
+    // 실패 횟수를 올리고, 한도에 닿으면 보류한다. 보류되었으면 true.
+    public boolean recordFailure(int maxAttempts, LocalDateTime now) {
+        this.attempts++;
+        if (this.attempts >= maxAttempts) {
+            this.parkedAt = now;
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,14 +1,19 @@
 package org.fortishop.orderpaymentservice.domain;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
-import java.math.BigDecimal;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -17,7 +22,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payments_order_id", columnNames = "order_id")
+}, indexes = {
+        @Index(name = "idx_payments_status_next_attempt", columnList = "payment_status, next_attempt_at")
+})
+@EntityListeners(PaymentEntityListener.class)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -25,7 +35,9 @@ import lombok.NoArgsConstructor;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payments_id_generator")
+    @TableGenerator(name = "payments_id_generator", table = "id_segments", pkColumnName = "segment_name",
+            valueColumnName = "next_val", pkColumnValue = "payments", allocationSize = 50)
     private Long id;
 
     private Long orderId;
@@ -33,12 +45,26 @@ public class Payment {
     @Enumerated(EnumType.STRING)
     private PaymentStatus paymentStatus;
 
-    private BigDecimal paidAmount;
+    private Money paidAmount;
 
     private String method; // 예: CARD, ACCOUNT
 
+    // PG 승인 번호. 보상 취소와 대사에 쓴다.
+    @Column(length = 64)
+    private String pgTransactionId;
+
     private LocalDateTime requestedAt;
 
+    // 다시 확인할 시각. FAILED 면 재시도 예정 시각, REQUESTED 면 처리 임대 만료 시각이다. null 이면 대기열에 없다.
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false, columnDefinition = "int default 0")
+    private int retryCount;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         this.requestedAt = LocalDateTime.now();
@@ -49,5 +75,24 @@ public class Payment {
 
     public void updateStatus(PaymentStatus status) {
         this.paymentStatus = status;
+        this.nextAttemptAt = null;
+    }
+
+    public void approve(String pgTransactionId) {
+        updateStatus(PaymentStatus.SUCCESS);
+        this.pgTransactionId = pgTransactionId;
+    }
+
+    public void scheduleRetry(LocalDateTime nextAttemptAt) {
+        this.paymentStatus = PaymentStatus.FAILED;
+        this.retryCount++;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    // 운영자 재시도. 재시도 횟수를 새로 주고 재시도 스케줄러가 다음 폴링에서 바로 가져가게 한다.
+    public void requeue(LocalDateTime now) {
+        this.paymentStatus = PaymentStatus.FAILED;
+        this.retryCount = 0;
+        this.nextAttemptAt = now;
     }
 }
@@ -0,0 +1,22 @@
+package org.fortishop.orderpaymentservice.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * 결제 행이 INSERT/UPDATE 될 때마다 상태 변경 이벤트를 발행한다. 벌크 UPDATE 쿼리는 거치지 않으므로 호출한 쪽에서 직접 발행한다.
+ */
+@RequiredArgsConstructor
+public class PaymentEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void afterWrite(Payment payment) {
+        applicationEventPublisher.publishEvent(
+                new PaymentStatusChangedEvent(payment.getOrderId(), payment.getPaymentStatus()));
+    }
+}
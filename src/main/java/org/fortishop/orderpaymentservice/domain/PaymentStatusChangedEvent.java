@@ -0,0 +1,4 @@
+package org.fortishop.orderpaymentservice.domain;
+
+public record PaymentStatusChangedEvent(Long orderId, PaymentStatus status) {
+}
@@ -0,0 +1,30 @@
+package org.fortishop.orderpaymentservice.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 처리를 마친 컨슈머 레코드. 키 문자열 대신 64비트 지문만 저장해 행을 작게 유지한다.
+ */
+@Entity
+@Table(name = "processed_events",
+        indexes = @Index(name = "idx_processed_events_processed_at", columnList = "processed_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class ProcessedEvent {
+
+    @Id
+    private Long fingerprint;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
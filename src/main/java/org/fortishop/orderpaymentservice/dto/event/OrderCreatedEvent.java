@@ -1,11 +1,11 @@
 package org.fortishop.orderpaymentservice.dto.event;
 
-import java.math.BigDecimal;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.Money;
 
 @Getter
 @Builder
@@ -14,7 +14,7 @@ import lombok.NoArgsConstructor;
 public class OrderCreatedEvent {
     private Long orderId;
     private Long memberId;
-    private BigDecimal totalPrice;
+    private Money totalPrice;
     private String address;
     private List<OrderItemInfo> items;
     private String createdAt;
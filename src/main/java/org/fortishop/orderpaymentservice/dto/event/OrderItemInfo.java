@@ -1,10 +1,10 @@
 package org.fortishop.orderpaymentservice.dto.event;
 
-import java.math.BigDecimal;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.Money;
 import org.fortishop.orderpaymentservice.domain.OrderItem;
 
 @Getter
@@ -14,7 +14,7 @@ import org.fortishop.orderpaymentservice.domain.OrderItem;
 public class OrderItemInfo {
     private Long productId;
     private int quantity;
-    private BigDecimal price;
+    private Money price;
 
     public static OrderItemInfo of(OrderItem orderItem) {
         return OrderItemInfo.builder()
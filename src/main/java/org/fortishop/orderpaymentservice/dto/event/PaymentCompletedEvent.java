@@ -1,11 +1,11 @@
 package org.fortishop.orderpaymentservice.dto.event;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.Money;
 
 @Getter
 @Builder
@@ -14,7 +14,7 @@ import lombok.NoArgsConstructor;
 public class PaymentCompletedEvent {
     private Long orderId;
     private Long paymentId;
-    private BigDecimal paidAmount;
+    private Money paidAmount;
     private String method;
     private String timestamp;
     private String traceId;
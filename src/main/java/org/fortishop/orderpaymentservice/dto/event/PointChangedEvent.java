@@ -1,10 +1,10 @@
 package org.fortishop.orderpaymentservice.dto.event;
 
-import java.math.BigDecimal;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.Money;
 
 @Getter
 @Builder
@@ -14,7 +14,7 @@ public class PointChangedEvent {
     private Long memberId;
     private Long orderId;
     private String changeType;
-    private BigDecimal amount;
+    private Money amount;
     private String reason;
     private String timestamp;
     private String traceId;
@@ -0,0 +1,11 @@
+package org.fortishop.orderpaymentservice.dto.request;
+
+import java.time.LocalDateTime;
+
+public record DlqReplayRequest(
+        String exception, // 예외 클래스 이름 일부. 비우면 전체
+        LocalDateTime from,
+        LocalDateTime to,
+        Integer ratePerSecond
+) {
+}
@@ -0,0 +1,42 @@
+package org.fortishop.orderpaymentservice.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition.OrderSort;
+import org.fortishop.orderpaymentservice.exception.OrderException;
+import org.fortishop.orderpaymentservice.exception.OrderExceptionType;
+
+/**
+ * 마지막으로 내려준 행의 정렬 키. 클라이언트에는 Base64URL 로 인코딩한 불투명한 문자열로 전달한다.
+ */
+public record OrderCursor(OrderSort sort, Long id, LocalDateTime createdAt) {
+
+    private static final String DELIMITER = "|";
+
+    public static OrderCursor decode(String token, OrderSort sort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\|", -1);
+            if (parts.length != 3 || OrderSort.valueOf(parts[0]) != sort) {
+                throw new OrderException(OrderExceptionType.INVALID_CURSOR);
+            }
+            LocalDateTime createdAt = parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]);
+            if (sort == OrderSort.CREATED_AT && createdAt == null) {
+                throw new OrderException(OrderExceptionType.INVALID_CURSOR);
+            }
+            return new OrderCursor(sort, Long.parseLong(parts[1]), createdAt);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new OrderException(OrderExceptionType.INVALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        String raw = sort.name() + DELIMITER + id + DELIMITER + (createdAt == null ? "" : createdAt.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,6 @@
 package org.fortishop.orderpaymentservice.dto.request;
 
-import java.math.BigDecimal;
+import org.fortishop.orderpaymentservice.domain.Money;
 
-public record OrderItemRequest(Long productId, int quantity, BigDecimal price) {
+public record OrderItemRequest(Long productId, int quantity, Money price) {
 }
@@ -1,7 +1,7 @@
 package org.fortishop.orderpaymentservice.dto.request;
 
-import java.math.BigDecimal;
 import java.util.List;
+import org.fortishop.orderpaymentservice.domain.Money;
 
-public record OrderRequest(Long memberId, List<OrderItemRequest> items, BigDecimal totalPrice, String address) {
+public record OrderRequest(Long memberId, List<OrderItemRequest> items, Money totalPrice, String address) {
 }
@@ -0,0 +1,26 @@
+package org.fortishop.orderpaymentservice.dto.request;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+public record OrderSearchCondition(
+        Long memberId,
+        OrderStatus status,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        OrderSort sort,
+        String cursor,
+        Integer size
+) {
+    public OrderSort sortOrDefault() {
+        return sort == null ? OrderSort.ID : sort;
+    }
+
+    public enum OrderSort {
+        ID, CREATED_AT
+    }
+}
@@ -0,0 +1,15 @@
+package org.fortishop.orderpaymentservice.dto.response;
+
+import java.time.LocalDateTime;
+
+public record DlqRecordResponse(
+        int partition,
+        long offset,
+        LocalDateTime timestamp,
+        String key,
+        String originalTopic,
+        String exception,
+        String exceptionMessage,
+        String payload
+) {
+}
@@ -0,0 +1,26 @@
+package org.fortishop.orderpaymentservice.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.fortishop.orderpaymentservice.domain.DlqReplayCheckpoint;
+import org.fortishop.orderpaymentservice.domain.DlqReplayJob;
+
+public record DlqReplayJobResponse(
+        Long id,
+        String topic,
+        String status,
+        int ratePerSecond,
+        long replayed,
+        long skipped,
+        long failed,
+        long remaining,
+        LocalDateTime updatedAt
+) {
+    public static DlqReplayJobResponse of(DlqReplayJob job, List<DlqReplayCheckpoint> checkpoints) {
+        long remaining = checkpoints.stream()
+                .mapToLong(checkpoint -> Math.max(0L, checkpoint.getEndOffset() - checkpoint.getNextOffset()))
+                .sum();
+        return new DlqReplayJobResponse(job.getId(), job.getTopic(), job.getStatus().name(), job.getRatePerSecond(),
+                job.getReplayedCount(), job.getSkippedCount(), job.getFailedCount(), remaining, job.getUpdatedAt());
+    }
+}
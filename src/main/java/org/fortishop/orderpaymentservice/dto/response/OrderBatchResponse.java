@@ -0,0 +1,45 @@
+package org.fortishop.orderpaymentservice.dto.response;
+
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+@AllArgsConstructor
+public class OrderBatchResponse {
+
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<Result> results;
+
+    public static OrderBatchResponse of(List<Result> results) {
+        int succeeded = (int) results.stream().filter(Result::isSuccess).count();
+        return new OrderBatchResponse(results.size(), succeeded, results.size() - succeeded, results);
+    }
+
+    @Getter
+    @NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+    @AllArgsConstructor
+    public static class Result {
+        private int index;
+        private Long orderId;
+        private String errorCode;
+        private String errorMessage;
+
+        public static Result success(int index, Long orderId) {
+            return new Result(index, orderId, null, null);
+        }
+
+        public static Result failure(int index, String errorCode, String errorMessage) {
+            return new Result(index, null, errorCode, errorMessage);
+        }
+
+        public boolean isSuccess() {
+            return orderId != null;
+        }
+    }
+}
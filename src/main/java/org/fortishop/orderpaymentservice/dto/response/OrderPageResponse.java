@@ -0,0 +1,31 @@
+package org.fortishop.orderpaymentservice.dto.response;
+
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.fortishop.orderpaymentservice.dto.request.OrderCursor;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition.OrderSort;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+@AllArgsConstructor
+public class OrderPageResponse {
+
+    private List<OrderSummaryResponse> orders;
+    private boolean hasNext;
+    private String nextCursor;
+
+    // rows 는 size + 1 건까지 조회한 결과로, 초과분이 있으면 다음 페이지가 있다.
+    public static OrderPageResponse of(List<OrderSummaryResponse> rows, int size, OrderSort sort) {
+        if (rows.size() <= size) {
+            return new OrderPageResponse(rows, false, null);
+        }
+        List<OrderSummaryResponse> page = rows.subList(0, size);
+        OrderSummaryResponse last = page.get(size - 1);
+        OrderCursor cursor = new OrderCursor(sort, last.getOrderId(),
+                sort == OrderSort.CREATED_AT ? last.getCreatedAt() : null);
+        return new OrderPageResponse(List.copyOf(page), true, cursor.encode());
+    }
+}
@@ -1,12 +1,12 @@
 package org.fortishop.orderpaymentservice.dto.response;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.Money;
 import org.fortishop.orderpaymentservice.domain.Order;
 
 @Getter
@@ -17,7 +17,7 @@ public class OrderResponse {
     private Long orderId;
     private Long memberId;
     private String status;
-    private BigDecimal totalPrice;
+    private Money totalPrice;
     private String address;
     private LocalDateTime createdAt;
     private List<OrderItemResponse> items;
@@ -42,7 +42,7 @@ public class OrderResponse {
     public static class OrderItemResponse {
         private Long productId;
         private int quantity;
-        private BigDecimal price;
+        private Money price;
 
         public static OrderItemResponse of(org.fortishop.orderpaymentservice.domain.OrderItem item) {
             return new OrderItemResponse(
@@ -1,12 +1,13 @@
 package org.fortishop.orderpaymentservice.dto.response;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.Money;
 import org.fortishop.orderpaymentservice.domain.Order;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
 
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
@@ -16,9 +17,15 @@ public class OrderSummaryResponse {
     private Long orderId;
     private Long memberId;
     private String status;
-    private BigDecimal totalPrice;
+    private Money totalPrice;
     private LocalDateTime createdAt;
 
+    // JPQL 생성자 표현식(DTO 프로젝션)용
+    public OrderSummaryResponse(Long orderId, Long memberId, OrderStatus status, Money totalPrice,
+                                LocalDateTime createdAt) {
+        this(orderId, memberId, status.name(), totalPrice, createdAt);
+    }
+
     public static OrderSummaryResponse of(Order order) {
         return new OrderSummaryResponse(
                 order.getId(),
@@ -1,11 +1,11 @@
 package org.fortishop.orderpaymentservice.dto.response;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.Money;
 import org.fortishop.orderpaymentservice.domain.Payment;
 
 @Getter
@@ -16,7 +16,7 @@ public class PaymentResponse {
     private Long id;
     private Long orderId;
     private String status;
-    private BigDecimal paidAmount;
+    private Money paidAmount;
     private String method;
     private LocalDateTime requestedAt;
 
@@ -0,0 +1,17 @@
+package org.fortishop.orderpaymentservice.exception;
+
+import org.fortishop.orderpaymentservice.global.exception.BaseException;
+import org.fortishop.orderpaymentservice.global.exception.BaseExceptionType;
+
+public class DlqReplayException extends BaseException {
+    private final BaseExceptionType exceptionType;
+
+    public DlqReplayException(BaseExceptionType exceptionType) {
+        this.exceptionType = exceptionType;
+    }
+
+    @Override
+    public BaseExceptionType getExceptionType() {
+        return exceptionType;
+    }
+}
@@ -0,0 +1,36 @@
+package org.fortishop.orderpaymentservice.exception;
+
+import org.fortishop.orderpaymentservice.global.exception.BaseExceptionType;
+import org.springframework.http.HttpStatus;
+
+public enum DlqReplayExceptionType implements BaseExceptionType {
+    UNSUPPORTED_DLQ_TOPIC("D001", "재처리를 지원하지 않는 DLQ 토픽입니다.", HttpStatus.BAD_REQUEST),
+    REPLAY_JOB_NOT_FOUND("D002", "재처리 작업이 존재하지 않습니다.", HttpStatus.NOT_FOUND),
+    REPLAY_ALREADY_RUNNING("D003", "같은 토픽의 재처리 작업이 이미 진행 중입니다.", HttpStatus.CONFLICT),
+    INVALID_REPLAY_STATE("D004", "현재 상태에서 허용되지 않는 작업입니다.", HttpStatus.CONFLICT);
+
+    private final String errorCode;
+    private final String errorMessage;
+    private final HttpStatus httpStatus;
+
+    DlqReplayExceptionType(String errorCode, String errorMessage, HttpStatus httpStatus) {
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.httpStatus = httpStatus;
+    }
+
+    @Override
+    public String getErrorCode() {
+        return this.errorCode;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return this.httpStatus;
+    }
+}
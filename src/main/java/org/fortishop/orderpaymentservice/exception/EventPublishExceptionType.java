@@ -0,0 +1,34 @@
+package org.fortishop.orderpaymentservice.exception;
+
+import org.fortishop.orderpaymentservice.global.exception.BaseExceptionType;
+import org.springframework.http.HttpStatus;
+
+public enum EventPublishExceptionType implements BaseExceptionType {
+    PUBLISH_BACKLOG_FULL("E001", "이벤트 발행이 지연되어 요청을 처리할 수 없습니다. 잠시 후 다시 시도해주세요.",
+            HttpStatus.SERVICE_UNAVAILABLE);
+
+    private final String errorCode;
+    private final String errorMessage;
+    private final HttpStatus httpStatus;
+
+    EventPublishExceptionType(String errorCode, String errorMessage, HttpStatus httpStatus) {
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.httpStatus = httpStatus;
+    }
+
+    @Override
+    public String getErrorCode() {
+        return this.errorCode;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return this.httpStatus;
+    }
+}
@@ -0,0 +1,35 @@
+package org.fortishop.orderpaymentservice.exception;
+
+import org.fortishop.orderpaymentservice.global.exception.BaseExceptionType;
+import org.springframework.http.HttpStatus;
+
+public enum IdempotencyExceptionType implements BaseExceptionType {
+    INVALID_IDEMPOTENCY_KEY("I001", "잘못된 Idempotency-Key 입니다.", HttpStatus.BAD_REQUEST),
+    IDEMPOTENCY_KEY_REUSED("I002", "다른 요청에 이미 사용된 Idempotency-Key 입니다.", HttpStatus.UNPROCESSABLE_ENTITY),
+    REQUEST_IN_PROGRESS("I003", "동일한 Idempotency-Key 의 요청이 처리 중입니다.", HttpStatus.CONFLICT);
+
+    private final String errorCode;
+    private final String errorMessage;
+    private final HttpStatus httpStatus;
+
+    IdempotencyExceptionType(String errorCode, String errorMessage, HttpStatus httpStatus) {
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.httpStatus = httpStatus;
+    }
+
+    @Override
+    public String getErrorCode() {
+        return this.errorCode;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return this.httpStatus;
+    }
+}
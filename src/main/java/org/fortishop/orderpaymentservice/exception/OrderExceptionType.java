@@ -5,7 +5,10 @@ import org.springframework.http.HttpStatus;
 
 public enum OrderExceptionType implements BaseExceptionType {
     ORDER_NOT_FOUND("O001", "일치하는 주문이 존재하지 않습니다.", HttpStatus.NOT_FOUND),
-    UNAUTHORIZED_USER("O002", "잘못된 권한의 요청입니다.", HttpStatus.UNAUTHORIZED);
+    INVALID_ORDER_REQUEST("O003", "잘못된 주문 요청입니다.", HttpStatus.BAD_REQUEST),
+    BATCH_SIZE_EXCEEDED("O004", "일괄 주문 요청 건수가 허용 범위를 초과했습니다.", HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR("O005", "잘못된 페이지 커서입니다.", HttpStatus.BAD_REQUEST),
+    INVALID_STATUS_TRANSITION("O006", "현재 주문 상태에서 허용되지 않는 상태 변경입니다.", HttpStatus.CONFLICT);
 
     private final String errorCode;
     private final String errorMessage;
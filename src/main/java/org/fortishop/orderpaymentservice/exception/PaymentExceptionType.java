@@ -0,0 +1,40 @@
+package org.fortishop.orderpaymentservice.exception;
+
+import org.fortishop.orderpaymentservice.global.exception.BaseExceptionType;
+import org.springframework.http.HttpStatus;
+
+public enum PaymentExceptionType implements BaseExceptionType {
+    ALREADY_PAID("P001", "이미 결제된 주문입니다.", HttpStatus.CONFLICT),
+    PAYMENT_NOT_ALLOWED("P002", "결제가 불가능한 주문 상태입니다.", HttpStatus.CONFLICT),
+    PAYMENT_DECLINED("P003", "결제가 거절되었습니다.", HttpStatus.PAYMENT_REQUIRED),
+    PAYMENT_GATEWAY_UNAVAILABLE("P004", "결제 대행사 응답이 지연되고 있습니다. 잠시 후 다시 시도해 주세요.",
+            HttpStatus.SERVICE_UNAVAILABLE),
+    UNSUPPORTED_PAYMENT_METHOD("P005", "지원하지 않는 결제 수단입니다.", HttpStatus.BAD_REQUEST),
+    PAYMENT_PENDING("P006", "결제 승인 후 처리가 지연되고 있습니다. 잠시 후 결제 상태를 확인해 주세요.",
+            HttpStatus.SERVICE_UNAVAILABLE);
+
+    private final String errorCode;
+    private final String errorMessage;
+    private final HttpStatus httpStatus;
+
+    PaymentExceptionType(String errorCode, String errorMessage, HttpStatus httpStatus) {
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.httpStatus = httpStatus;
+    }
+
+    @Override
+    public String getErrorCode() {
+        return this.errorCode;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return this.httpStatus;
+    }
+}
@@ -0,0 +1,20 @@
+package org.fortishop.orderpaymentservice.global;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.fortishop.orderpaymentservice.exception.AuthException;
+import org.fortishop.orderpaymentservice.exception.AuthExceptionType;
+
+/**
+ * 게이트웨이가 넘겨준 회원 권한 헤더로 관리자 전용 API 를 막는다.
+ */
+public class AdminAuthorization {
+
+    private static final String ROLE_HEADER = "x-member-role";
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    public static void validate(HttpServletRequest request) {
+        if (!ADMIN_ROLE.equals(request.getHeader(ROLE_HEADER))) {
+            throw new AuthException(AuthExceptionType.UNAUTHORIZED_USER);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.fortishop.orderpaymentservice.global;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * IDENTITY 로 채번되던 기존 테이블에서 id_segments 로 전환할 때, 세그먼트 행이 없으면 현재 최대 id 이후부터 채번되도록 시드한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSegmentInitializer implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed("orders", "orders", 50);
+        seed("order_items", "order_items", 200);
+        seed("payments", "payments", 50);
+    }
+
+    private void seed(String segmentName, String tableName, int allocationSize) {
+        // pooled / pooled-lo 어느 해석에서도 기존 id 와 겹치지 않도록 할당 크기만큼 여유를 둔다.
+        int inserted = jdbcTemplate.update(
+                "INSERT IGNORE INTO id_segments (segment_name, next_val) "
+                        + "SELECT ?, COALESCE(MAX(id), 0) + 1 + ? FROM " + tableName,
+                segmentName, allocationSize);
+        if (inserted > 0) {
+            log.info("id 세그먼트 초기화: segment={}", segmentName);
+        }
+    }
+}
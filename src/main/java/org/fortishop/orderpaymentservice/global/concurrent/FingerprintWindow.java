@@ -0,0 +1,52 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+/**
+ * 최근에 넣은 64비트 지문을 최대 capacity 개까지 기억하는 고정 메모리 집합. LongProbeTable 과 FIFO 링으로 구성되며,
+ * 가득 차면 가장 오래된 지문부터 밀어낸다. 0 은 빈 슬롯 표시로 쓰므로 지문으로 넣지 않는다.
+ */
+public class FingerprintWindow {
+
+    private final LongProbeTable table;
+    private final long[] ring;
+    private int next;
+    private int size;
+
+    public FingerprintWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity 는 1 이상이어야 합니다.");
+        }
+        // 지문 외에 딸린 값이 없으므로 옮길 것도 없다.
+        this.table = new LongProbeTable(capacity, (from, to) -> {
+        });
+        this.ring = new long[capacity];
+    }
+
+    public synchronized boolean contains(long fingerprint) {
+        return table.indexOf(nonZero(fingerprint)) >= 0;
+    }
+
+    // 새로 넣었으면 true, 이미 있으면 false
+    public synchronized boolean add(long fingerprint) {
+        long value = nonZero(fingerprint);
+        if (table.indexOf(value) >= 0) {
+            return false;
+        }
+        if (size == ring.length) {
+            table.removeAt(table.indexOf(ring[next]));
+        } else {
+            size++;
+        }
+        ring[next] = value;
+        next = (next + 1) % ring.length;
+        table.insert(value);
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static long nonZero(long fingerprint) {
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+}
@@ -0,0 +1,62 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 키 해시로 고른 단일 스레드 레인에 작업을 넣는다. 같은 키의 작업은 들어온 순서대로 실행되고, 다른 키는 레인 수만큼 병렬로 실행된다.
+ * 대기 중인 작업이 maxInFlight 에 도달하면 submit 을 호출한 스레드를 막아 생산 속도를 늦춘다.
+ */
+public class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService[] lanes;
+    private final Semaphore permits;
+    private final int maxInFlight;
+
+    public KeyOrderedExecutor(String name, int concurrency, int maxInFlight) {
+        this.lanes = new ExecutorService[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name(name + "-lane-" + i).factory());
+        }
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    public void submit(Object key, Runnable task) throws InterruptedException {
+        permits.acquire();
+        try {
+            lanes[Math.floorMod(Objects.hashCode(key), lanes.length)].execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public int concurrency() {
+        return lanes.length;
+    }
+
+    // 이미 넣은 작업은 끝까지 실행한다.
+    @Override
+    public void close() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            lane.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+}
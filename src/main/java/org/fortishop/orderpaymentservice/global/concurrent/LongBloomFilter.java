@@ -0,0 +1,89 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * long 키의 Bloom filter. 비트는 AtomicLongArray 에 두어 잠금 없이 동시에 추가하고 조회한다. 거짓 음성은 없고,
+ * expectedInsertions 개를 넣었을 때의 거짓 양성 비율이 fpp 가 되도록 비트 수와 해시 수를 정한다.
+ */
+public class LongBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final AtomicLong bitCount = new AtomicLong();
+
+    public LongBloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedInsertions 는 1 이상, fpp 는 0 과 1 사이여야 합니다.");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1L, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public void add(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) {
+                    bitCount.incrementAndGet();
+                    break;
+                }
+                current = words.get(word);
+            }
+        }
+    }
+
+    // false 면 확실히 없다. true 는 있을 수도 있다는 뜻이다.
+    public boolean mightContain(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 현재 켜진 비트 비율로 추정한 거짓 양성 비율
+    public double expectedFpp() {
+        return Math.pow((double) bitCount.get() / bitSize, hashCount);
+    }
+
+    // 켜진 비트 수로 추정한 서로 다른 키의 수
+    public long approximateCount() {
+        double fraction = (double) bitCount.get() / bitSize;
+        if (fraction >= 1) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-(double) bitSize / hashCount * Math.log1p(-fraction));
+    }
+
+    public long expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long memoryBytes() {
+        return bitSize / 8;
+    }
+
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
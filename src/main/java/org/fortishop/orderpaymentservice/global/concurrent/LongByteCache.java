@@ -0,0 +1,137 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * long 키에 0~127 범위의 byte 값을 최대 capacity 개까지 담는 고정 메모리 캐시. LongProbeTable 하나로 구성되며, 가득 차면 CLOCK(second-chance) 방식으로 최근에 읽히지 않은 항목부터 밀어낸다. 항목은 ttl 이 지나면 만료된다.
+ * 0 은 빈 슬롯 표시로 쓰므로 0 키는 저장하지 않는다.
+ */
+public class LongByteCache {
+
+    public static final int MISSING = -1;
+    private static final byte REFERENCED = (byte) 0x80;
+    private static final long TICK_NANOS = 100_000_000L;
+
+    private final LongProbeTable table;
+    private final byte[] values;
+    // 기록 시각(0.1초 단위). int 로 약 6년까지 표현한다.
+    private final int[] writtenAt;
+    private final int capacity;
+    private final int ttlTicks;
+    private final LongSupplier nanoClock;
+    private final long epoch;
+    private int size;
+    private int hand;
+
+    public LongByteCache(int capacity, Duration ttl) {
+        this(capacity, ttl, System::nanoTime);
+    }
+
+    LongByteCache(int capacity, Duration ttl, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity 는 1 이상이어야 합니다.");
+        }
+        this.table = new LongProbeTable(capacity, this::moveSlot);
+        this.values = new byte[table.length()];
+        this.writtenAt = new int[table.length()];
+        this.capacity = capacity;
+        this.ttlTicks = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, ttl.toNanos() / TICK_NANOS));
+        this.nanoClock = nanoClock;
+        this.epoch = nanoClock.getAsLong();
+    }
+
+    // 없거나 만료되었으면 MISSING
+    public synchronized int get(long key) {
+        if (key == 0) {
+            return MISSING;
+        }
+        int index = table.indexOf(key);
+        if (index < 0) {
+            return MISSING;
+        }
+        if (isExpired(index, now())) {
+            removeAt(index);
+            return MISSING;
+        }
+        values[index] |= REFERENCED;
+        return values[index] & ~REFERENCED;
+    }
+
+    public synchronized void put(long key, byte value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value 는 0~127 이어야 합니다.");
+        }
+        if (key == 0) {
+            return;
+        }
+        int now = now();
+        int index = table.indexOf(key);
+        if (index < 0) {
+            if (size == capacity) {
+                evict(now);
+            }
+            index = table.insert(key);
+            size++;
+        }
+        values[index] = value;
+        writtenAt[index] = now;
+    }
+
+    public synchronized void remove(long key) {
+        if (key == 0) {
+            return;
+        }
+        int index = table.indexOf(key);
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // 테이블 배열이 차지하는 바이트 수. 항목 수와 무관하게 생성 시 고정된다.
+    public long memoryBytes() {
+        return (long) table.length() * (Long.BYTES + Byte.BYTES + Integer.BYTES);
+    }
+
+    // 시계 바늘을 돌며 만료되었거나 참조 비트가 꺼진 항목 하나를 지운다. 참조 비트가 켜져 있으면 끄고 한 번 더 기회를 준다.
+    private void evict(int now) {
+        while (true) {
+            hand = table.next(hand);
+            if (table.keyAt(hand) == 0) {
+                continue;
+            }
+            if ((values[hand] & REFERENCED) != 0 && !isExpired(hand, now)) {
+                values[hand] &= ~REFERENCED;
+                continue;
+            }
+            removeAt(hand);
+            return;
+        }
+    }
+
+    private boolean isExpired(int index, int now) {
+        return now - writtenAt[index] >= ttlTicks;
+    }
+
+    private int now() {
+        return (int) ((nanoClock.getAsLong() - epoch) / TICK_NANOS);
+    }
+
+    private void removeAt(int index) {
+        table.removeAt(index);
+        size--;
+    }
+
+    private void moveSlot(int from, int to) {
+        values[to] = values[from];
+        writtenAt[to] = writtenAt[from];
+    }
+}
@@ -0,0 +1,89 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+/**
+ * LongByteCache 와 FingerprintWindow 가 함께 쓰는 박싱 없는 선형 탐사 오픈 어드레싱 테이블. 키 슬롯만 관리하며, 슬롯에 딸린 값은
+ * 사용하는 쪽이 같은 인덱스의 배열에 두고 항목이 옮겨질 때 SlotMover 로 함께 옮긴다. 0 은 빈 슬롯 표시로 쓰므로 0 키는 넣을 수 없다.
+ * 동기화하지 않으므로 사용하는 쪽의 락 안에서만 호출한다.
+ */
+final class LongProbeTable {
+
+    @FunctionalInterface
+    interface SlotMover {
+
+        void move(int from, int to);
+    }
+
+    private final long[] keys;
+    private final int mask;
+    private final SlotMover mover;
+
+    LongProbeTable(int capacity, SlotMover mover) {
+        this.keys = new long[tableSize(capacity)];
+        this.mask = keys.length - 1;
+        this.mover = mover;
+    }
+
+    // 적재율을 0.5 이하로 유지해 탐사 길이를 짧게 한다.
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+    }
+
+    int length() {
+        return keys.length;
+    }
+
+    long keyAt(int index) {
+        return keys[index];
+    }
+
+    int next(int index) {
+        return (index + 1) & mask;
+    }
+
+    // 없으면 -1
+    int indexOf(long key) {
+        int index = home(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = next(index);
+        }
+        return -1;
+    }
+
+    // 없는 키를 넣고 그 인덱스를 돌려준다. 빈 슬롯이 남아 있는지는 호출하는 쪽이 capacity 로 보장한다.
+    int insert(long key) {
+        int index = home(key);
+        while (keys[index] != 0) {
+            index = next(index);
+        }
+        keys[index] = key;
+        return index;
+    }
+
+    // 삭제 후 뒤따르는 항목을 당겨 탐사 체인이 끊기지 않게 한다(backward shift).
+    void removeAt(int hole) {
+        keys[hole] = 0;
+        int index = hole;
+        while (true) {
+            index = next(index);
+            long candidate = keys[index];
+            if (candidate == 0) {
+                return;
+            }
+            int home = home(candidate);
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = candidate;
+                mover.move(index, hole);
+                keys[index] = 0;
+                hole = index;
+            }
+        }
+    }
+
+    private int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,226 @@
+package org.fortishop.orderpaymentservice.global.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.domain.IdempotencyRecord;
+import org.fortishop.orderpaymentservice.exception.IdempotencyException;
+import org.fortishop.orderpaymentservice.exception.IdempotencyExceptionType;
+import org.fortishop.orderpaymentservice.respository.IdempotencyRecordRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class IdempotencyExecutor {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+
+    // 1차: 완료된 응답의 in-process LRU/TTL 캐시, 2차: idempotency_records 테이블
+    private final Cache<String, StoredResponse> responses;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyExecutor(IdempotencyRecordRepository idempotencyRecordRepository,
+                               IdempotencyProperties idempotencyProperties,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyProperties = idempotencyProperties;
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getCacheSize())
+                .expireAfterWrite(idempotencyProperties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+    }
+
+    public ResponseEntity<?> execute(String scope, String idempotencyKey, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException(IdempotencyExceptionType.INVALID_IDEMPOTENCY_KEY);
+        }
+
+        String key = scope + ":" + idempotencyKey;
+        String requestHash = hash(scope, request);
+
+        StoredResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            return replay(await(running), requestHash);
+        }
+
+        try {
+            Execution result = executeOnce(key, requestHash, action);
+            responses.put(key, result.stored());
+            execution.complete(result.stored());
+            return result.response();
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    private Execution executeOnce(String key, String requestHash, Supplier<ResponseEntity<?>> action) {
+        // DB 에 저장된 값과 그대로 비교할 수 있도록 밀리초로 자른다.
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findByIdempotencyKey(key);
+        if (existing.isPresent()) {
+            if (!reclaimExpired(existing.get(), requestHash, claimedAt)) {
+                StoredResponse stored = fromRecord(existing.get());
+                return new Execution(replay(stored, requestHash), stored);
+            }
+        } else {
+            try {
+                idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .idempotencyKey(key)
+                        .requestHash(requestHash)
+                        .claimedAt(claimedAt)
+                        .expiresAt(LocalDateTime.now().plus(idempotencyProperties.getTtl()))
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // 다른 노드가 같은 키를 먼저 선점했다.
+                IdempotencyRecord winner = idempotencyRecordRepository.findByIdempotencyKey(key)
+                        .orElseThrow(() -> new IdempotencyException(IdempotencyExceptionType.REQUEST_IN_PROGRESS));
+                StoredResponse stored = fromRecord(winner);
+                return new Execution(replay(stored, requestHash), stored);
+            }
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.deleteInProgress(key, claimedAt);
+            throw e;
+        }
+
+        StoredResponse stored = new StoredResponse(response.getStatusCode().value(), toJson(response.getBody()),
+                requestHash);
+        if (idempotencyRecordRepository.complete(key, claimedAt, stored.status(), stored.body()) == 0) {
+            log.warn("Idempotency-Key 임대 만료 후 완료되어 응답을 저장하지 않음: key={}", key);
+        }
+        return new Execution(response, stored);
+    }
+
+    // 처리 중으로 남은 키의 임대가 지났으면 선점한 노드가 응답 없이 죽은 것이다. 같은 요청이면 이어받아 다시 실행한다.
+    private boolean reclaimExpired(IdempotencyRecord record, String requestHash, LocalDateTime claimedAt) {
+        LocalDateTime expiredBefore = claimedAt.minus(idempotencyProperties.getLeaseTimeout());
+        if (record.isCompleted() || !record.getRequestHash().equals(requestHash)
+                || !record.isLeaseExpired(expiredBefore)) {
+            return false;
+        }
+        if (idempotencyRecordRepository.reclaim(record.getIdempotencyKey(), claimedAt, expiredBefore) == 0) {
+            return false;
+        }
+        log.warn("임대가 만료된 Idempotency-Key 를 이어받음: key={}", record.getIdempotencyKey());
+        return true;
+    }
+
+    private StoredResponse fromRecord(IdempotencyRecord record) {
+        if (!record.isCompleted()) {
+            return new StoredResponse(0, null, record.getRequestHash());
+        }
+        return new StoredResponse(record.getResponseStatus(), record.getResponseBody(), record.getRequestHash());
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyException(IdempotencyExceptionType.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (stored.status() == 0) {
+            throw new IdempotencyException(IdempotencyExceptionType.REQUEST_IN_PROGRESS);
+        }
+        try {
+            Object body = stored.body() == null ? null : objectMapper.readValue(stored.body(), Object.class);
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("저장된 응답을 복원할 수 없습니다.", e);
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(idempotencyProperties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(IdempotencyExceptionType.REQUEST_IN_PROGRESS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyException(IdempotencyExceptionType.REQUEST_IN_PROGRESS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String hash(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("요청 해시 계산 실패", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("응답 직렬화 실패", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@idempotencyProperties.cleanupInterval}")
+    public void deleteExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("만료된 Idempotency-Key 삭제: {}건", deleted);
+        }
+    }
+
+    private record StoredResponse(int status, String body, String requestHash) {
+    }
+
+    private record Execution(ResponseEntity<?> response, StoredResponse stored) {
+    }
+}
@@ -0,0 +1,20 @@
+package org.fortishop.orderpaymentservice.global.idempotency;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "idempotency")
+@Getter
+@Setter
+public class IdempotencyProperties {
+    private long cacheSize = 10000L;
+    private Duration ttl = Duration.ofHours(24);
+    private Duration waitTimeout = Duration.ofSeconds(10);
+    // 처리 중으로 선점한 키를 이 시간 안에 완료하지 못하면 같은 요청의 재시도가 이어받는다
+    private Duration leaseTimeout = Duration.ofMinutes(1);
+    private long cleanupInterval = 600000L;
+}
@@ -0,0 +1,51 @@
+package org.fortishop.orderpaymentservice.global.thread;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * spring.threads.virtual.enabled=true 일 때만 활성화된다. Tomcat 요청 처리와 @Scheduled 작업은 스프링 부트가 가상 스레드로 전환하고,
+ * Kafka 리스너 스레드는 KafkaConsumerConfig 에서 전환한다.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPermitDataSourcePostProcessor(
+            ObjectProvider<VirtualThreadProperties> virtualThreadProperties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                VirtualThreadProperties properties = virtualThreadProperties.getObject();
+                int permits = properties.getConnectionPermits() > 0
+                        ? properties.getConnectionPermits()
+                        : hikari.getMaximumPoolSize();
+                ConnectionPermitDataSource limited = new ConnectionPermitDataSource(hikari, permits,
+                        properties.getConnectionAcquireTimeout());
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("datasource.permits.available", limited,
+                            ConnectionPermitDataSource::availablePermits).register(registry);
+                    Gauge.builder("datasource.permits.waiting", limited,
+                            ConnectionPermitDataSource::queueLength).register(registry);
+                });
+                log.info("가상 스레드 모드: DataSource 동시 커넥션 요청을 {}개로 제한", permits);
+                return limited;
+            }
+        };
+    }
+}
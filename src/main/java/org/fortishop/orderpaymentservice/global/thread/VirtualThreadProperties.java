@@ -0,0 +1,18 @@
+package org.fortishop.orderpaymentservice.global.thread;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "virtual-threads")
+@Getter
+@Setter
+public class VirtualThreadProperties {
+    // 0 이면 Hikari maximumPoolSize 를 그대로 사용한다.
+    private int connectionPermits = 0;
+    private Duration connectionAcquireTimeout = Duration.ofSeconds(5);
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
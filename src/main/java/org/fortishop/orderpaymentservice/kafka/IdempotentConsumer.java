@@ -0,0 +1,167 @@
+package org.fortishop.orderpaymentservice.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.fortishop.orderpaymentservice.global.concurrent.FingerprintWindow;
+import org.fortishop.orderpaymentservice.kafka.config.ConsumerDedupeProperties;
+import org.fortishop.orderpaymentservice.respository.ProcessedEventRepository;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 같은 레코드가 다시 전달되어도 처리 로직을 한 번만 실행한다. 최근 레코드는 메모리 창에서 저장소 조회 없이 걸러지고,
+ * 창에서 밀려난 레코드는 처리 로직과 같은 트랜잭션에서 기록한 processed_events 로 걸러진다.
+ */
+@Component
+@Slf4j
+public class IdempotentConsumer {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConsumerDedupeProperties consumerDedupeProperties;
+    private final FingerprintWindow window;
+
+    private final Counter windowHits;
+    private final Counter storeHits;
+    private final Counter processed;
+
+    public IdempotentConsumer(ProcessedEventRepository processedEventRepository,
+                              TransactionTemplate transactionTemplate,
+                              ConsumerDedupeProperties consumerDedupeProperties,
+                              MeterRegistry meterRegistry) {
+        this.processedEventRepository = processedEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.consumerDedupeProperties = consumerDedupeProperties;
+        this.window = new FingerprintWindow(consumerDedupeProperties.getWindowSize());
+
+        this.windowHits = counter(meterRegistry, "window_hit");
+        this.storeHits = counter(meterRegistry, "store_hit");
+        this.processed = counter(meterRegistry, "processed");
+        Gauge.builder("kafka.dedupe.window.size", window, FingerprintWindow::size)
+                .description("메모리 창에 기억 중인 처리 완료 레코드 수")
+                .register(meterRegistry);
+    }
+
+    public boolean runOnce(ConsumerRecord<?, ?> record, Runnable work) {
+        return runOnce(keyOf(record), work);
+    }
+
+    // 처리했으면 true, 중복이라 건너뛰었으면 false. work 가 예외를 던지면 기록도 롤백되어 재전달 시 다시 처리된다.
+    public boolean runOnce(String key, Runnable work) {
+        long fingerprint = fingerprint(key);
+        if (window.contains(fingerprint)) {
+            windowHits.increment();
+            return false;
+        }
+
+        boolean executed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (processedEventRepository.markProcessed(fingerprint, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            work.run();
+            return true;
+        }));
+        window.add(fingerprint);
+        (executed ? processed : storeHits).increment();
+        if (!executed) {
+            log.info("이미 처리된 레코드 건너뜀: key={}", key);
+        }
+        return executed;
+    }
+
+    // 배치 단위 runOnce. 이미 처리된 레코드를 빼고 남은 레코드로 work 를 한 번 실행하며, 기록과 work 는 같은 트랜잭션에서 커밋된다.
+    // 실행한 레코드 수를 돌려준다. work 가 예외를 던지면 배치의 기록이 모두 롤백된다.
+    public <R extends ConsumerRecord<?, ?>> int runOnceAll(List<R> records, Consumer<List<R>> work) {
+        List<R> candidates = new ArrayList<>(records.size());
+        for (R record : records) {
+            if (window.contains(fingerprint(keyOf(record)))) {
+                windowHits.increment();
+            } else {
+                candidates.add(record);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        List<R> fresh = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<R> marked = new ArrayList<>(candidates.size());
+            for (R record : candidates) {
+                if (processedEventRepository.markProcessed(fingerprint(keyOf(record)), now) == 1) {
+                    marked.add(record);
+                }
+            }
+            if (!marked.isEmpty()) {
+                work.accept(marked);
+            }
+            return marked;
+        });
+        candidates.forEach(record -> window.add(fingerprint(keyOf(record))));
+        int executed = fresh == null ? 0 : fresh.size();
+        processed.increment(executed);
+        storeHits.increment(candidates.size() - executed);
+        return executed;
+    }
+
+    // 재시도 토픽이나 DLQ 에서 온 레코드는 원래 토픽의 좌표를 키로 쓴다.
+    static String keyOf(ConsumerRecord<?, ?> record) {
+        String original = coordinates(record, KafkaHeaders.DLT_ORIGINAL_TOPIC, KafkaHeaders.DLT_ORIGINAL_PARTITION,
+                KafkaHeaders.DLT_ORIGINAL_OFFSET);
+        if (original == null) {
+            original = coordinates(record, KafkaHeaders.ORIGINAL_TOPIC, KafkaHeaders.ORIGINAL_PARTITION,
+                    KafkaHeaders.ORIGINAL_OFFSET);
+        }
+        return original != null ? original : record.topic() + ":" + record.partition() + ":" + record.offset();
+    }
+
+    private static String coordinates(ConsumerRecord<?, ?> record, String topicHeader, String partitionHeader,
+                                      String offsetHeader) {
+        Header topic = record.headers().lastHeader(topicHeader);
+        Header partition = record.headers().lastHeader(partitionHeader);
+        Header offset = record.headers().lastHeader(offsetHeader);
+        if (topic == null || partition == null || offset == null) {
+            return null;
+        }
+        return new String(topic.value(), StandardCharsets.UTF_8) + ":" + ByteBuffer.wrap(partition.value()).getInt()
+                + ":" + ByteBuffer.wrap(offset.value()).getLong();
+    }
+
+    // FNV-1a 64
+    static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    @Scheduled(fixedDelayString = "#{@consumerDedupeProperties.cleanupInterval}")
+    public void deleteExpired() {
+        int deleted = processedEventRepository.deleteProcessedBefore(
+                LocalDateTime.now().minus(consumerDedupeProperties.getRetention()));
+        if (deleted > 0) {
+            log.info("보존 기간이 지난 처리 기록 삭제: {}건", deleted);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("kafka.dedupe")
+                .description("컨슈머 중복 제거 결과")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,53 +1,106 @@
 package org.fortishop.orderpaymentservice.kafka;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.fortishop.orderpaymentservice.domain.OrderStatus;
 import org.fortishop.orderpaymentservice.dto.event.InventoryFailedEvent;
 import org.fortishop.orderpaymentservice.dto.event.InventoryReservedEvent;
-import org.fortishop.orderpaymentservice.respository.OrderRepository;
+import org.fortishop.orderpaymentservice.service.OrderStateMachine;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryEventConsumer {
 
-    private final OrderRepository orderRepository;
+    private final OrderStateMachine orderStateMachine;
+    private final DeadLetterPublishingRecoverer inventoryReservedDeadLetterRecoverer;
+    private final DeadLetterPublishingRecoverer inventoryFailedDeadLetterRecoverer;
+    private final KeyOrderedDispatcher keyOrderedDispatcher;
+    private final IdempotentConsumer idempotentConsumer;
+    private final MeterRegistry meterRegistry;
 
+    // 실패한 레코드는 메인 파티션을 막지 않고 inventory.reserved.retry-{지연ms} 토픽들을 거쳐 inventory.reserved.dlq 로 간다.
+    @RetryableTopic(
+            attempts = "${inventory.retry.reserved.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${inventory.retry.reserved.delay:1000}",
+                    multiplierExpression = "${inventory.retry.reserved.multiplier:10}",
+                    maxDelayExpression = "${inventory.retry.reserved.max-delay:60000}"),
+            retryTopicSuffix = ".retry",
+            dltTopicSuffix = ".dlq",
+            autoCreateTopics = "${inventory.retry.auto-create-topics:true}",
+            kafkaTemplate = "kafkaTemplate")
     @KafkaListener(
             topics = "inventory.reserved",
             groupId = "order-group",
             containerFactory = "inventoryReservedKafkaListenerContainerFactory")
-    public void handleReserved(InventoryReservedEvent event, Acknowledgment ack) {
-        log.info("재고 확보 성공: orderId = {}, traceId={} 결제는 프론트에서 수동 요청 예정", event.getOrderId(), event.getTraceId());
+    public void handleReserved(ConsumerRecord<String, InventoryReservedEvent> record, Acknowledgment ack) {
+        recordDelivery("inventory.reserved", record.topic());
+        InventoryReservedEvent event = record.value();
+        if (keyOrderedDispatcher.isParallel(record.topic())) {
+            keyOrderedDispatcher.dispatch(record, event.getOrderId(), ack, inventoryReservedDeadLetterRecoverer,
+                    () -> reserved(event));
+            return;
+        }
         try {
-            log.info("재고 확보 성공 결제 부탁드립니다.");
+            reserved(event);
             ack.acknowledge();
-            // 결제 창으로 넘어가도록 하면 좋음. 실제 프론트에 재고 확보를 성공했다는 내용을 전달해야함.
         } catch (Exception e) {
             log.error("처리 중 예외 발생: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    private void reserved(InventoryReservedEvent event) {
+        log.info("재고 확보 성공: orderId = {}, traceId={} 결제는 프론트에서 수동 요청 예정", event.getOrderId(), event.getTraceId());
+        log.info("재고 확보 성공 결제 부탁드립니다.");
+        // 결제 창으로 넘어가도록 하면 좋음. 실제 프론트에 재고 확보를 성공했다는 내용을 전달해야함.
+    }
+
+    @RetryableTopic(
+            attempts = "${inventory.retry.failed.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${inventory.retry.failed.delay:1000}",
+                    multiplierExpression = "${inventory.retry.failed.multiplier:10}",
+                    maxDelayExpression = "${inventory.retry.failed.max-delay:60000}"),
+            retryTopicSuffix = ".retry",
+            dltTopicSuffix = ".dlq",
+            autoCreateTopics = "${inventory.retry.auto-create-topics:true}",
+            kafkaTemplate = "kafkaTemplate")
     @KafkaListener(
+            id = "inventoryFailed",
             topics = "inventory.failed",
             groupId = "order-group",
-            containerFactory = "inventoryFailedKafkaListenerContainerFactory"
+            containerFactory = "inventoryFailedKafkaListenerContainerFactory",
+            autoStartup = "#{!@inventoryListenerProperties.batchEnabled}"
     )
-    @Transactional
-    public void handleFailed(InventoryFailedEvent event, Acknowledgment ack) {
-        log.warn("재고 확보 실패: orderId = {}, traceId={}, reason = {}", event.getOrderId(), event.getTraceId(),
-                event.getReason());
+    public void handleFailed(ConsumerRecord<String, InventoryFailedEvent> record, Acknowledgment ack) {
+        recordDelivery("inventory.failed", record.topic());
+        InventoryFailedEvent event = record.value();
+        // 병렬 모드에서는 같은 주문의 레코드가 앞지르지 않도록 재시도 토픽 대신 레인 안에서 재시도한다.
+        if (keyOrderedDispatcher.isParallel(record.topic())) {
+            keyOrderedDispatcher.dispatch(record, event.getOrderId(), ack, inventoryFailedDeadLetterRecoverer,
+                    () -> idempotentConsumer.runOnce(record, () -> failed(event)));
+            return;
+        }
         try {
-            orderRepository.findById(event.getOrderId()).ifPresent(order -> {
-                order.updateStatus(OrderStatus.FAILED);
-                log.info("변경 후 상태: {}", order.getStatus());
-            });
+            // 리밸런스나 재시도로 다시 전달된 레코드는 DB 작업 없이 건너뛴다.
+            idempotentConsumer.runOnce(record, () -> failed(event));
             ack.acknowledge();
         } catch (Exception e) {
             log.error("처리 중 예외 발생: {}", e.getMessage(), e);
@@ -55,6 +108,96 @@ public class InventoryEventConsumer {
         }
     }
 
+    private void failed(InventoryFailedEvent event) {
+        log.warn("재고 확보 실패: orderId = {}, traceId={}, reason = {}", event.getOrderId(), event.getTraceId(),
+                event.getReason());
+        if (orderStateMachine.transition(event.getOrderId(), OrderStatus.FAILED)) {
+            log.info("변경 후 상태: {}", OrderStatus.FAILED);
+        } else {
+            log.info("상태 변경 생략(주문 없음 또는 이미 종료): orderId={}", event.getOrderId());
+        }
+    }
+
+    // 재시도 토픽은 배치 리스너를 지원하지 않으므로 배치 모드는 레코드 단위로 DLQ 에 보낸다.
+    // 재전달된 배치는 레코드별 경로와 같은 중복 제거 계층을 거쳐 이미 처리된 레코드를 빼고 처리한다.
+    @KafkaListener(
+            id = "inventoryFailedBatch",
+            topics = "inventory.failed",
+            groupId = "order-group",
+            containerFactory = "inventoryFailedBatchKafkaListenerContainerFactory",
+            autoStartup = "#{@inventoryListenerProperties.batchEnabled}"
+    )
+    public void handleFailedBatch(List<ConsumerRecord<String, InventoryFailedEvent>> records, Acknowledgment ack) {
+        List<ConsumerRecord<String, InventoryFailedEvent>> valid = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, InventoryFailedEvent> record : records) {
+            InventoryFailedEvent event = record.value();
+            if (event == null || event.getOrderId() == null) {
+                // 역직렬화 실패 등 처리할 수 없는 레코드만 DLQ 로 보내고 나머지는 계속 처리한다.
+                inventoryFailedDeadLetterRecoverer.accept(record,
+                        new IllegalArgumentException("처리할 수 없는 inventory.failed 메시지: offset=" + record.offset()));
+                continue;
+            }
+            valid.add(record);
+        }
+
+        if (!valid.isEmpty()) {
+            try {
+                idempotentConsumer.runOnceAll(valid, this::failedAll);
+            } catch (Exception e) {
+                // 일괄 처리가 롤백되었으므로 레코드별로 다시 처리해 실패한 레코드만 DLQ 로 보낸다.
+                log.warn("재고 확보 실패 일괄 처리 실패, 레코드별로 재처리: {}", e.getMessage());
+                valid.forEach(this::failedOrDeadLetter);
+            }
+        }
+        ack.acknowledge();
+    }
+
+    private void failedAll(List<ConsumerRecord<String, InventoryFailedEvent>> records) {
+        Set<Long> orderIds = new LinkedHashSet<>();
+        records.forEach(record -> orderIds.add(record.value().getOrderId()));
+        int updated = orderStateMachine.transitionAll(orderIds, OrderStatus.FAILED);
+        log.warn("재고 확보 실패 일괄 처리: records={}, orders={}, updated={}", records.size(), orderIds.size(), updated);
+    }
+
+    private void failedOrDeadLetter(ConsumerRecord<String, InventoryFailedEvent> record) {
+        try {
+            idempotentConsumer.runOnce(record, () -> failed(record.value()));
+        } catch (Exception e) {
+            log.error("재고 확보 실패 처리 중 예외, DLQ 로 이동: orderId={}, offset={}", record.value().getOrderId(),
+                    record.offset(), e);
+            inventoryFailedDeadLetterRecoverer.accept(record, e);
+        }
+    }
+
+    // 재시도를 모두 소진한 레코드. 알림은 아래 order-dlq-group 리스너가 담당한다.
+    @DltHandler
+    public void handleDlt(ConsumerRecord<String, ?> record, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        meterRegistry.counter("kafka.retry.dlt", "topic", topic).increment();
+        log.error("재시도 소진, DLQ 로 이동: topic={}, key={}, offset={}", topic, record.key(), record.offset());
+    }
+
+    // 재시도 토픽에서 받은 레코드를 단계(토픽)별로 센다.
+    private void recordDelivery(String mainTopic, String receivedTopic) {
+        if (!mainTopic.equals(receivedTopic)) {
+            meterRegistry.counter("kafka.retry.attempts", "topic", mainTopic, "tier", receivedTopic).increment();
+        }
+    }
+
+    // DLQ 재처리. 원래 리스너와 같은 처리 로직을 거친다.
+    public void replayReserved(ConsumerRecord<String, InventoryReservedEvent> record) {
+        reserved(record.value());
+    }
+
+    // 이미 처리된 레코드는 건너뛰고 false 를 돌려준다.
+    public boolean replayFailed(ConsumerRecord<String, InventoryFailedEvent> record) {
+        return idempotentConsumer.runOnce(record, () -> failed(record.value()));
+    }
+
+    @KafkaListener(topics = "inventory.reserved.dlq", groupId = "order-dlq-group")
+    public void handleReservedDlq(InventoryReservedEvent event) {
+        log.error("[DLQ 메시지 확인] inventory.reserved 처리 실패 : {}", event);
+    }
+
     @KafkaListener(topics = "inventory.failed.dlq", groupId = "order-dlq-group")
     public void handleDlq(InventoryFailedEvent event) {
         log.error("[DLQ 메시지 확인] inventory.failed 처리 실패 : {}", event);
@@ -0,0 +1,93 @@
+package org.fortishop.orderpaymentservice.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.fortishop.orderpaymentservice.global.concurrent.KeyOrderedExecutor;
+import org.fortishop.orderpaymentservice.kafka.config.KafkaDispatchProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * 리스너가 받은 레코드를 키(orderId) 단위 레인으로 나눠 병렬 처리한다. 처리가 끝난 레코드부터 ack 하고, 컨테이너의 async ack 가
+ * 앞 offset 이 모두 끝날 때까지 커밋을 미룬다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KeyOrderedDispatcher implements DisposableBean {
+
+    private final KafkaDispatchProperties kafkaDispatchProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, KeyOrderedExecutor> executors = new ConcurrentHashMap<>();
+
+    public boolean isParallel(String topic) {
+        return kafkaDispatchProperties.isParallel(topic);
+    }
+
+    public void dispatch(ConsumerRecord<String, ?> record, Object key, Acknowledgment ack,
+                         ConsumerRecordRecoverer recoverer, Runnable work) {
+        KafkaDispatchProperties.Topic config = kafkaDispatchProperties.topic(record.topic());
+        KeyOrderedExecutor executor = executors.computeIfAbsent(record.topic(), topic -> create(topic, config));
+        try {
+            executor.submit(key, () -> {
+                if (process(record, config, recoverer, work)) {
+                    ack.acknowledge();
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("레코드 분배 중 인터럽트: topic=" + record.topic(), e);
+        }
+    }
+
+    // 처리했거나 DLQ 로 보냈으면 true. 종료 중 인터럽트되면 ack 하지 않고 재전달에 맡긴다.
+    private boolean process(ConsumerRecord<String, ?> record, KafkaDispatchProperties.Topic config,
+                            ConsumerRecordRecoverer recoverer, Runnable work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                work.run();
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt > config.getRetryAttempts()) {
+                    log.error("레코드 처리 재시도 소진, DLQ 로 이동: topic={}, key={}, offset={}", record.topic(),
+                            record.key(), record.offset(), e);
+                    meterRegistry.counter("kafka.dispatch.dlq", "topic", record.topic()).increment();
+                    recoverer.accept(record, e);
+                    return true;
+                }
+                meterRegistry.counter("kafka.dispatch.retries", "topic", record.topic()).increment();
+                try {
+                    Thread.sleep(config.getRetryBackoff() << (attempt - 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    private KeyOrderedExecutor create(String topic, KafkaDispatchProperties.Topic config) {
+        KeyOrderedExecutor executor = new KeyOrderedExecutor(topic, config.getConcurrency(), config.getMaxInFlight());
+        Gauge.builder("kafka.dispatch.in-flight", executor, KeyOrderedExecutor::inFlight)
+                .description("레인에 분배되어 처리를 기다리거나 처리 중인 레코드 수")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        log.info("키 순서 병렬 처리 시작: topic={}, concurrency={}", topic, config.getConcurrency());
+        return executor;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (KeyOrderedExecutor executor : executors.values()) {
+            executor.close();
+        }
+    }
+}
@@ -2,17 +2,24 @@ package org.fortishop.orderpaymentservice.kafka;
 
 import lombok.RequiredArgsConstructor;
 import org.fortishop.orderpaymentservice.dto.event.OrderCreatedEvent;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.fortishop.orderpaymentservice.kafka.outbox.KafkaSendTracker;
+import org.fortishop.orderpaymentservice.kafka.outbox.OutboxEventWriter;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class OrderEventProducer {
 
-    private final KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+    private final OutboxEventWriter outboxEventWriter;
+    private final KafkaSendTracker kafkaSendTracker;
     private static final String TOPIC = "order.created";
 
+    // DB 작업 전에 발행 적체 여부를 확인해 바로 거절한다.
+    public void ensureAccepting() {
+        kafkaSendTracker.checkAccepting(TOPIC);
+    }
+
     public void send(OrderCreatedEvent event) {
-        kafkaTemplate.send(TOPIC, event.getOrderId().toString(), event);
+        outboxEventWriter.write(TOPIC, event.getOrderId().toString(), event);
     }
 }
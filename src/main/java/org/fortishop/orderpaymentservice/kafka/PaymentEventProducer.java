@@ -5,28 +5,37 @@ import org.fortishop.orderpaymentservice.dto.event.DeliveryStartedEvent;
 import org.fortishop.orderpaymentservice.dto.event.PaymentCompletedEvent;
 import org.fortishop.orderpaymentservice.dto.event.PaymentFailedEvent;
 import org.fortishop.orderpaymentservice.dto.event.PointChangedEvent;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.fortishop.orderpaymentservice.kafka.outbox.KafkaSendTracker;
+import org.fortishop.orderpaymentservice.kafka.outbox.OutboxEventWriter;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class PaymentEventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventWriter outboxEventWriter;
+    private final KafkaSendTracker kafkaSendTracker;
+
+    // 결제 완료 시 발행되는 토픽 중 하나라도 적체되어 있으면 결제를 시작하기 전에 거절한다.
+    public void ensureAccepting() {
+        kafkaSendTracker.checkAccepting("payment.completed");
+        kafkaSendTracker.checkAccepting("point.changed");
+        kafkaSendTracker.checkAccepting("delivery.started");
+    }
 
     public void sendPaymentCompleted(PaymentCompletedEvent event) {
-        kafkaTemplate.send("payment.completed", event.getOrderId().toString(), event);
+        outboxEventWriter.write("payment.completed", event.getOrderId().toString(), event);
     }
 
     public void sendPaymentFailed(PaymentFailedEvent event) {
-        kafkaTemplate.send("payment.failed", event.getOrderId().toString(), event);
+        outboxEventWriter.write("payment.failed", event.getOrderId().toString(), event);
     }
 
     public void sendPointChanged(PointChangedEvent event) {
-        kafkaTemplate.send("point.changed", event.getMemberId().toString(), event);
+        outboxEventWriter.write("point.changed", event.getMemberId().toString(), event);
     }
 
     public void sendDeliveryStarted(DeliveryStartedEvent event) {
-        kafkaTemplate.send("delivery.started", event.getOrderId().toString(), event);
+        outboxEventWriter.write("delivery.started", event.getOrderId().toString(), event);
     }
 }
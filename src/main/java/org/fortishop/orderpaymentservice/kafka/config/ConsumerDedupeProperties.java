@@ -0,0 +1,18 @@
+package org.fortishop.orderpaymentservice.kafka.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "kafka.dedupe")
+@Getter
+@Setter
+public class ConsumerDedupeProperties {
+    // 메모리에 기억하는 최근 처리 레코드 수. 이보다 오래된 중복은 processed_events 테이블에서 걸러진다.
+    private int windowSize = 65536;
+    private Duration retention = Duration.ofDays(7);
+    private long cleanupInterval = 600000L;
+}
@@ -0,0 +1,16 @@
+package org.fortishop.orderpaymentservice.kafka.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "inventory.failed")
+@Getter
+@Setter
+public class InventoryListenerProperties {
+    // true 이면 inventory.failed 를 poll 단위로 모아 UPDATE 한 번으로 처리한다.
+    private boolean batchEnabled = false;
+    private int maxPollRecords = 500;
+}
@@ -2,6 +2,7 @@ package org.fortishop.orderpaymentservice.kafka.config;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -10,10 +11,13 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.fortishop.orderpaymentservice.dto.event.InventoryFailedEvent;
 import org.fortishop.orderpaymentservice.dto.event.InventoryReservedEvent;
-import org.fortishop.orderpaymentservice.dto.event.OrderCreatedEvent;
 import org.fortishop.orderpaymentservice.kafka.KafkaProperties;
+import org.fortishop.orderpaymentservice.kafka.dlq.DlqReplayProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
@@ -23,6 +27,7 @@ import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.backoff.FixedBackOff;
@@ -32,6 +37,10 @@ import org.springframework.util.backoff.FixedBackOff;
 public class KafkaConsumerConfig {
 
     private final KafkaProperties kafkaProperties;
+    private final Environment environment;
+    private final KafkaProducerProperties kafkaProducerProperties;
+    private final InventoryListenerProperties inventoryListenerProperties;
+    private final KafkaDispatchProperties kafkaDispatchProperties;
 
     @Bean
     public ConsumerFactory<String, InventoryReservedEvent> inventoryReservedConsumerFactory() {
@@ -51,19 +60,15 @@ public class KafkaConsumerConfig {
     }
 
     @Bean("inventoryReservedKafkaListenerContainerFactory")
-    public ConcurrentKafkaListenerContainerFactory<String, InventoryReservedEvent> inventoryReservedKafkaListenerContainerFactory(
-            KafkaTemplate<String, Object> kafkaTemplate) {
+    public ConcurrentKafkaListenerContainerFactory<String, InventoryReservedEvent> inventoryReservedKafkaListenerContainerFactory() {
 
         var factory = new ConcurrentKafkaListenerContainerFactory<String, InventoryReservedEvent>();
         factory.setConsumerFactory(inventoryReservedConsumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
-
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(
-                kafkaTemplate,
-                (record, ex) -> new TopicPartition("inventory.reserved.dlq", record.partition())
-        );
-
-        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, new FixedBackOff(1000L, 3)));
+        applyListenerThreading(factory.getContainerProperties(), "inventory-reserved-");
+        // 레인에서 끝난 순서대로 ack 하면 컨테이너가 앞 offset 이 모두 끝날 때까지 커밋을 미룬다.
+        factory.getContainerProperties().setAsyncAcks(kafkaDispatchProperties.isParallel("inventory.reserved"));
+        // 재시도와 DLQ 이동은 리스너의 @RetryableTopic 설정을 따른다.
 
         return factory;
     }
@@ -86,47 +91,102 @@ public class KafkaConsumerConfig {
     }
 
     @Bean("inventoryFailedKafkaListenerContainerFactory")
-    public ConcurrentKafkaListenerContainerFactory<String, InventoryFailedEvent> inventoryFailedKafkaListenerContainerFactory(
-            KafkaTemplate<String, Object> kafkaTemplate) {
+    public ConcurrentKafkaListenerContainerFactory<String, InventoryFailedEvent> inventoryFailedKafkaListenerContainerFactory() {
 
         var factory = new ConcurrentKafkaListenerContainerFactory<String, InventoryFailedEvent>();
         factory.setConsumerFactory(inventoryFailedConsumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        applyListenerThreading(factory.getContainerProperties(), "inventory-failed-");
+        factory.getContainerProperties().setAsyncAcks(kafkaDispatchProperties.isParallel("inventory.failed"));
+        // 재시도와 DLQ 이동은 리스너의 @RetryableTopic 설정을 따른다.
 
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(
+        return factory;
+    }
+
+    @Bean
+    public DeadLetterPublishingRecoverer inventoryReservedDeadLetterRecoverer(
+            KafkaTemplate<String, Object> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(
+                kafkaTemplate,
+                (record, ex) -> new TopicPartition("inventory.reserved.dlq", record.partition())
+        );
+    }
+
+    @Bean
+    public DeadLetterPublishingRecoverer inventoryFailedDeadLetterRecoverer(KafkaTemplate<String, Object> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(
                 kafkaTemplate,
                 (record, ex) -> new TopicPartition("inventory.failed.dlq", record.partition())
         );
+    }
 
-        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, new FixedBackOff(1000L, 3)));
+    @Bean
+    public ConsumerFactory<String, InventoryFailedEvent> inventoryFailedBatchConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, kafkaProperties.getConsumer().getGroupId());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, kafkaProperties.getConsumer().getAutoOffsetReset());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, inventoryListenerProperties.getMaxPollRecords());
+
+        JsonDeserializer<InventoryFailedEvent> deserializer = new JsonDeserializer<>(InventoryFailedEvent.class);
+        deserializer.addTrustedPackages("*");
+        deserializer.setRemoveTypeHeaders(false);
+        deserializer.setUseTypeMapperForKey(true);
+        deserializer.setUseTypeHeaders(false);
+
+        // 역직렬화에 실패한 레코드가 배치 전체를 막지 않도록 값을 null 로 넘긴다.
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(deserializer));
+    }
+
+    @Bean("inventoryFailedBatchKafkaListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, InventoryFailedEvent> inventoryFailedBatchKafkaListenerContainerFactory(
+            KafkaTemplate<String, Object> kafkaTemplate) {
+
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, InventoryFailedEvent>();
+        factory.setConsumerFactory(inventoryFailedBatchConsumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        applyListenerThreading(factory.getContainerProperties(), "inventory-failed-batch-");
+
+        // 배치 전체가 실패하면(DB 장애 등) 재시도 후 배치의 모든 레코드를 DLQ 로 보낸다.
+        factory.setCommonErrorHandler(new DefaultErrorHandler(inventoryFailedDeadLetterRecoverer(kafkaTemplate),
+                new FixedBackOff(1000L, 3)));
 
         return factory;
     }
 
-    @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    private void applyListenerThreading(ContainerProperties containerProperties, String threadNamePrefix) {
+        // spring.threads.virtual.enabled=true 이면 리스너 컨슈머 스레드를 가상 스레드로 실행한다.
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            containerProperties.setListenerTaskExecutor(executor);
+        }
     }
 
+    // DLQ 재처리는 컨슈머 그룹 없이 파티션을 직접 지정해 읽고, 진행 위치는 dlq_replay_checkpoints 에 저장한다.
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ConsumerFactory<String, String> dlqReplayConsumerFactory(DlqReplayProperties dlqReplayProperties) {
         Map<String, Object> props = new HashMap<>();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        props.put(ProducerConfig.ACKS_CONFIG, "all");
-        props.put(ProducerConfig.RETRIES_CONFIG, 3);
-        return new DefaultKafkaProducerFactory<>(props);
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, dlqReplayProperties.getMaxPollRecords());
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer());
     }
 
     @Bean
-    public KafkaTemplate<String, OrderCreatedEvent> orderCreatedKafkaTemplate() {
-        return new KafkaTemplate<>(orderCreatedProducerFactory());
+    public KafkaTemplate<String, Object> kafkaTemplate() {
+        KafkaTemplate<String, Object> kafkaTemplate = new KafkaTemplate<>(producerFactory());
+        // 트랜잭션 모드에서도 DLQ 발행 등 단건 send 는 트랜잭션 없이 허용한다.
+        kafkaTemplate.setAllowNonTransactional(true);
+        return kafkaTemplate;
     }
 
     @Bean
-    public ProducerFactory<String, OrderCreatedEvent> orderCreatedProducerFactory() {
+    public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
@@ -134,6 +194,17 @@ public class KafkaConsumerConfig {
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         props.put(ProducerConfig.ACKS_CONFIG, "all");
         props.put(ProducerConfig.RETRIES_CONFIG, 3);
-        return new DefaultKafkaProducerFactory<>(props);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, kafkaProducerProperties.resolvedLingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, kafkaProducerProperties.resolvedBatchSize());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, kafkaProducerProperties.resolvedCompressionType());
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, kafkaProducerProperties.getMaxBlockMs());
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(props);
+        if (kafkaProducerProperties.isTransactional()) {
+            // 인스턴스마다 transactional.id 가 겹치지 않도록 접미사를 붙인다.
+            factory.setTransactionIdPrefix(kafkaProducerProperties.getTransactionIdPrefix()
+                    + UUID.randomUUID().toString().substring(0, 8) + "-");
+        }
+        return factory;
     }
 }
@@ -0,0 +1,35 @@
+package org.fortishop.orderpaymentservice.kafka.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "kafka.dispatch")
+@Getter
+@Setter
+public class KafkaDispatchProperties {
+    // 토픽별 설정. 없거나 concurrency 가 1 이면 컨슈머 스레드에서 레코드를 하나씩 처리한다.
+    private Map<String, Topic> topics = new HashMap<>();
+
+    public Topic topic(String topic) {
+        return topics.getOrDefault(topic, new Topic());
+    }
+
+    public boolean isParallel(String topic) {
+        return topic(topic).getConcurrency() > 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Topic {
+        private int concurrency = 1;
+        private int maxInFlight = 1000;
+        // 같은 키의 뒤 레코드가 앞지르지 않도록 재시도는 레인 안에서 한다.
+        private int retryAttempts = 3;
+        private long retryBackoff = 1000L;
+    }
+}
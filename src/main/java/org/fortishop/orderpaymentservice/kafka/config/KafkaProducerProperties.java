@@ -0,0 +1,49 @@
+package org.fortishop.orderpaymentservice.kafka.config;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "kafka.producer")
+@Getter
+@Setter
+public class KafkaProducerProperties {
+    // true 이면 outbox 릴레이가 배치 단위로 Kafka 트랜잭션을 열어 발행한다.
+    private boolean transactional = false;
+    private String transactionIdPrefix = "order-payment-tx-";
+    private Profile profile = Profile.BALANCED;
+    // 브로커에 닿지 않을 때 send 가 메타데이터를 기다리며 블로킹되는 최대 시간
+    private long maxBlockMs = 5000L;
+
+    // 프로파일 값을 개별로 덮어쓸 때만 지정한다.
+    private Integer lingerMs;
+    private Integer batchSize;
+    private String compressionType;
+
+    public int resolvedLingerMs() {
+        return lingerMs != null ? lingerMs : profile.getLingerMs();
+    }
+
+    public int resolvedBatchSize() {
+        return batchSize != null ? batchSize : profile.getBatchSize();
+    }
+
+    public String resolvedCompressionType() {
+        return compressionType != null ? compressionType : profile.getCompressionType();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Profile {
+        LOW_LATENCY(0, 16 * 1024, "none"),
+        BALANCED(5, 32 * 1024, "lz4"),
+        THROUGHPUT(20, 128 * 1024, "zstd");
+
+        private final int lingerMs;
+        private final int batchSize;
+        private final String compressionType;
+    }
+}
@@ -0,0 +1,50 @@
+package org.fortishop.orderpaymentservice.kafka.dlq;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.support.KafkaHeaders;
+
+/**
+ * DLQ 레코드를 예외 헤더와 레코드 시각으로 거른다. 조건이 비어 있으면 모두 통과한다.
+ */
+public record DlqRecordFilter(String exception, Long fromMillis, Long toMillis) {
+
+    public static DlqRecordFilter of(String exception, LocalDateTime from, LocalDateTime to) {
+        return new DlqRecordFilter(
+                exception == null || exception.isBlank() ? null : exception.trim().toLowerCase(Locale.ROOT),
+                toMillis(from),
+                toMillis(to));
+    }
+
+    public boolean matches(ConsumerRecord<?, ?> record) {
+        if (fromMillis != null && record.timestamp() < fromMillis) {
+            return false;
+        }
+        if (toMillis != null && record.timestamp() >= toMillis) {
+            return false;
+        }
+        if (exception == null) {
+            return true;
+        }
+        // 리스너가 감싼 예외(ListenerExecutionFailedException 등) 대신 원인 예외로도 찾을 수 있게 둘 다 본다.
+        return contains(header(record, KafkaHeaders.DLT_EXCEPTION_FQCN))
+                || contains(header(record, KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN));
+    }
+
+    static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    static Long toMillis(LocalDateTime time) {
+        return time == null ? null : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private boolean contains(String value) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(exception);
+    }
+}
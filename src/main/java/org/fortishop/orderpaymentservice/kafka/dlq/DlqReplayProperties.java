@@ -0,0 +1,33 @@
+package org.fortishop.orderpaymentservice.kafka.dlq;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "dlq.replay")
+@Getter
+@Setter
+public class DlqReplayProperties {
+    // 재처리 속도(초당 레코드 수). 요청에 없으면 기본값, 최대값을 넘으면 최대값으로 맞춘다.
+    private int defaultRatePerSecond = 50;
+    private int maxRatePerSecond = 500;
+    private int maxPollRecords = 200;
+    private Duration pollTimeout = Duration.ofSeconds(1);
+    private int maxInspectLimit = 100;
+    // 조회 한 번에 훑는 최대 레코드 수
+    private int inspectScanLimit = 10000;
+    // 이 건수마다 진행 위치를 저장한다.
+    private int checkpointInterval = 500;
+    private Duration leaseTimeout = Duration.ofSeconds(60);
+    private long claimInterval = 30000L;
+
+    public int resolveRate(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultRatePerSecond;
+        }
+        return Math.min(requested, maxRatePerSecond);
+    }
+}
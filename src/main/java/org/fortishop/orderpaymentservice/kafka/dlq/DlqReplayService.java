@@ -0,0 +1,469 @@
+package org.fortishop.orderpaymentservice.kafka.dlq;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.fortishop.orderpaymentservice.domain.DlqReplayCheckpoint;
+import org.fortishop.orderpaymentservice.domain.DlqReplayJob;
+import org.fortishop.orderpaymentservice.domain.DlqReplayStatus;
+import org.fortishop.orderpaymentservice.dto.event.InventoryFailedEvent;
+import org.fortishop.orderpaymentservice.dto.event.InventoryReservedEvent;
+import org.fortishop.orderpaymentservice.dto.request.DlqReplayRequest;
+import org.fortishop.orderpaymentservice.dto.response.DlqRecordResponse;
+import org.fortishop.orderpaymentservice.dto.response.DlqReplayJobResponse;
+import org.fortishop.orderpaymentservice.exception.DlqReplayException;
+import org.fortishop.orderpaymentservice.exception.DlqReplayExceptionType;
+import org.fortishop.orderpaymentservice.kafka.InventoryEventConsumer;
+import org.fortishop.orderpaymentservice.respository.DlqReplayCheckpointRepository;
+import org.fortishop.orderpaymentservice.respository.DlqReplayJobRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * DLQ 레코드를 조회하고, 조건에 맞는 레코드를 원래 핸들러로 정해진 속도만큼 다시 흘려보낸다.
+ * 파티션별 진행 위치를 dlq_replay_checkpoints 에 저장하므로 중단되어도 이어서 재처리한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DlqReplayService implements DisposableBean {
+
+    public static final String RESERVED_DLQ = "inventory.reserved.dlq";
+    public static final String FAILED_DLQ = "inventory.failed.dlq";
+    private static final Set<String> SUPPORTED_TOPICS = Set.of(RESERVED_DLQ, FAILED_DLQ);
+
+    private final ConsumerFactory<String, String> dlqReplayConsumerFactory;
+    private final DlqReplayJobRepository dlqReplayJobRepository;
+    private final DlqReplayCheckpointRepository dlqReplayCheckpointRepository;
+    private final InventoryEventConsumer inventoryEventConsumer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final DlqReplayProperties dlqReplayProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ExecutorService executor = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("dlq-replay-", 0).factory());
+    // 이 인스턴스에서 실행 중인 작업. 값을 false 로 바꾸면 다음 레코드에서 멈춘다.
+    private final Map<Long, AtomicBoolean> runningJobs = new ConcurrentHashMap<>();
+
+    public List<DlqRecordResponse> inspect(String topic, String exception, LocalDateTime from, LocalDateTime to,
+                                           int limit) {
+        validateTopic(topic);
+        int max = Math.max(1, Math.min(limit, dlqReplayProperties.getMaxInspectLimit()));
+        DlqRecordFilter filter = DlqRecordFilter.of(exception, from, to);
+        List<DlqRecordResponse> result = new ArrayList<>();
+
+        try (Consumer<String, String> consumer = dlqReplayConsumerFactory.createConsumer()) {
+            Map<TopicPartition, long[]> ranges = ranges(consumer, topic, from);
+            Set<TopicPartition> remaining = new LinkedHashSet<>();
+            ranges.forEach((partition, range) -> {
+                if (range[0] < range[1]) {
+                    remaining.add(partition);
+                }
+            });
+            consumer.assign(remaining);
+            remaining.forEach(partition -> consumer.seek(partition, ranges.get(partition)[0]));
+
+            int scanned = 0;
+            while (!remaining.isEmpty() && result.size() < max && scanned < dlqReplayProperties.getInspectScanLimit()) {
+                ConsumerRecords<String, String> records = consumer.poll(dlqReplayProperties.getPollTimeout());
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, String> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (!remaining.contains(partition) || result.size() >= max) {
+                        continue;
+                    }
+                    scanned++;
+                    if (record.offset() < ranges.get(partition)[1] && filter.matches(record)) {
+                        result.add(toResponse(record));
+                    }
+                    if (record.offset() + 1 >= ranges.get(partition)[1]) {
+                        remaining.remove(partition);
+                        consumer.pause(List.of(partition));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public DlqReplayJobResponse start(String topic, DlqReplayRequest request) {
+        validateTopic(topic);
+        if (dlqReplayJobRepository.existsByTopicAndStatus(topic, DlqReplayStatus.RUNNING)) {
+            throw new DlqReplayException(DlqReplayExceptionType.REPLAY_ALREADY_RUNNING);
+        }
+
+        // 작업 시작 시점의 끝 offset 까지만 재처리한다. 재처리 중 다시 DLQ 로 간 레코드는 다음 작업의 대상이다.
+        Map<TopicPartition, long[]> ranges;
+        try (Consumer<String, String> consumer = dlqReplayConsumerFactory.createConsumer()) {
+            ranges = ranges(consumer, topic, request.from());
+        }
+
+        DlqReplayJob job;
+        try {
+            job = transactionTemplate.execute(status -> {
+                DlqReplayJob saved = dlqReplayJobRepository.save(DlqReplayJob.builder()
+                        .topic(topic)
+                        .exceptionFilter(request.exception())
+                        .fromTime(request.from())
+                        .toTime(request.to())
+                        .ratePerSecond(dlqReplayProperties.resolveRate(request.ratePerSecond()))
+                        .status(DlqReplayStatus.RUNNING)
+                        .runningTopic(topic)
+                        .owner(instanceId)
+                        .heartbeatAt(LocalDateTime.now())
+                        .build());
+                List<DlqReplayCheckpoint> checkpoints = new ArrayList<>();
+                ranges.forEach((partition, range) -> checkpoints.add(DlqReplayCheckpoint.builder()
+                        .jobId(saved.getId())
+                        .partitionNo(partition.partition())
+                        .nextOffset(range[0])
+                        .endOffset(range[1])
+                        .build()));
+                dlqReplayCheckpointRepository.saveAll(checkpoints);
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 존재 확인 뒤에 다른 요청이 같은 토픽의 작업을 먼저 시작했다(uk_dlq_replay_jobs_running_topic).
+            throw new DlqReplayException(DlqReplayExceptionType.REPLAY_ALREADY_RUNNING);
+        }
+        log.info("DLQ 재처리 시작: jobId={}, topic={}, rate={}/s", job.getId(), topic, job.getRatePerSecond());
+        submit(job.getId());
+        return getJob(job.getId());
+    }
+
+    public DlqReplayJobResponse getJob(Long jobId) {
+        DlqReplayJob job = findJob(jobId);
+        return DlqReplayJobResponse.of(job, dlqReplayCheckpointRepository.findByJobIdOrderByPartitionNo(jobId));
+    }
+
+    public DlqReplayJobResponse pause(Long jobId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            DlqReplayJob job = findJob(jobId);
+            if (!job.isRunning()) {
+                throw new DlqReplayException(DlqReplayExceptionType.INVALID_REPLAY_STATE);
+            }
+            job.pause();
+        });
+        // 다른 인스턴스에서 실행 중이면 그 인스턴스가 다음 체크포인트에서 상태를 보고 멈춘다.
+        AtomicBoolean running = runningJobs.get(jobId);
+        if (running != null) {
+            running.set(false);
+        }
+        log.info("DLQ 재처리 일시 중지: jobId={}", jobId);
+        return getJob(jobId);
+    }
+
+    public DlqReplayJobResponse resume(Long jobId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                DlqReplayJob job = findJob(jobId);
+                if (job.getStatus() != DlqReplayStatus.PAUSED && job.getStatus() != DlqReplayStatus.FAILED) {
+                    throw new DlqReplayException(DlqReplayExceptionType.INVALID_REPLAY_STATE);
+                }
+                if (dlqReplayJobRepository.existsByTopicAndStatus(job.getTopic(), DlqReplayStatus.RUNNING)) {
+                    throw new DlqReplayException(DlqReplayExceptionType.REPLAY_ALREADY_RUNNING);
+                }
+                job.resume(instanceId);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new DlqReplayException(DlqReplayExceptionType.REPLAY_ALREADY_RUNNING);
+        }
+        log.info("DLQ 재처리 재개: jobId={}", jobId);
+        submit(jobId);
+        return getJob(jobId);
+    }
+
+    // 실행하던 인스턴스가 죽어 갱신이 끊긴 작업을 이어받는다.
+    @Scheduled(fixedDelayString = "#{@dlqReplayProperties.claimInterval}")
+    public void resumeStale() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(dlqReplayProperties.getLeaseTimeout());
+        for (Long jobId : dlqReplayJobRepository.findStaleIds(DlqReplayStatus.RUNNING, staleBefore)) {
+            if (runningJobs.containsKey(jobId)) {
+                continue;
+            }
+            Integer claimed = transactionTemplate.execute(status ->
+                    dlqReplayJobRepository.claim(jobId, DlqReplayStatus.RUNNING, instanceId, now, staleBefore));
+            if (claimed != null && claimed == 1) {
+                log.info("중단된 DLQ 재처리 이어받음: jobId={}", jobId);
+                submit(jobId);
+            }
+        }
+    }
+
+    private void submit(Long jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        AtomicBoolean running = new AtomicBoolean(true);
+        if (runningJobs.putIfAbsent(jobId, running) != null) {
+            return;
+        }
+        try {
+            replay(findJob(jobId), running);
+        } catch (Exception e) {
+            log.error("DLQ 재처리 작업 실패: jobId={}, error={}", jobId, e.getMessage(), e);
+            transactionTemplate.executeWithoutResult(status -> dlqReplayJobRepository.transition(jobId, instanceId,
+                    DlqReplayStatus.RUNNING, DlqReplayStatus.FAILED, LocalDateTime.now()));
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private void replay(DlqReplayJob job, AtomicBoolean running) {
+        Map<TopicPartition, DlqReplayCheckpoint> pending = new HashMap<>();
+        for (DlqReplayCheckpoint checkpoint : dlqReplayCheckpointRepository.findByJobIdOrderByPartitionNo(job.getId())) {
+            if (!checkpoint.isDone()) {
+                pending.put(new TopicPartition(job.getTopic(), checkpoint.getPartitionNo()), checkpoint);
+            }
+        }
+        DlqRecordFilter filter = DlqRecordFilter.of(job.getExceptionFilter(), job.getFromTime(), job.getToTime());
+        RateLimiter rateLimiter = RateLimiter.of("dlq-replay-" + job.getId(), RateLimiterConfig.custom()
+                .limitForPeriod(job.getRatePerSecond())
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofSeconds(1))
+                .build());
+        Progress progress = new Progress();
+        // 처리 속도가 느려도 임대가 만료되기 전에 체크포인트를 남긴다.
+        long heartbeatNanos = dlqReplayProperties.getLeaseTimeout().toNanos() / 3;
+        long lastCheckpoint = System.nanoTime();
+
+        try (Consumer<String, String> consumer = dlqReplayConsumerFactory.createConsumer()) {
+            consumer.assign(pending.keySet());
+            pending.forEach((partition, checkpoint) -> consumer.seek(partition, checkpoint.getNextOffset()));
+
+            while (!pending.isEmpty() && running.get()) {
+                for (ConsumerRecord<String, String> record : consumer.poll(dlqReplayProperties.getPollTimeout())) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    DlqReplayCheckpoint checkpoint = pending.get(partition);
+                    if (checkpoint == null || !running.get()) {
+                        continue;
+                    }
+                    if (record.offset() < checkpoint.getEndOffset()) {
+                        if (!filter.matches(record)) {
+                            progress.skipped++;
+                        } else if (!acquire(rateLimiter)) {
+                            running.set(false);
+                            continue;
+                        } else {
+                            switch (redeliver(job.getTopic(), record)) {
+                                case REPLAYED -> progress.replayed++;
+                                case SKIPPED -> progress.skipped++;
+                                case FAILED -> progress.failed++;
+                            }
+                        }
+                    }
+                    checkpoint.advanceTo(Math.min(record.offset() + 1, checkpoint.getEndOffset()));
+                    progress.dirty.add(checkpoint);
+                    if (checkpoint.isDone()) {
+                        pending.remove(partition);
+                        consumer.pause(List.of(partition));
+                    }
+                    if (progress.count() >= dlqReplayProperties.getCheckpointInterval()) {
+                        running.compareAndSet(true, checkpoint(job, progress));
+                        lastCheckpoint = System.nanoTime();
+                    }
+                }
+                if (!running.get()) {
+                    break;
+                }
+                // 압축이나 트랜잭션 마커로 비어 있는 구간은 레코드 없이 끝 offset 에 도달한다.
+                for (Map.Entry<TopicPartition, DlqReplayCheckpoint> entry : List.copyOf(pending.entrySet())) {
+                    if (consumer.position(entry.getKey()) >= entry.getValue().getEndOffset()) {
+                        entry.getValue().advanceTo(entry.getValue().getEndOffset());
+                        progress.dirty.add(entry.getValue());
+                        pending.remove(entry.getKey());
+                        consumer.pause(List.of(entry.getKey()));
+                    }
+                }
+                if (System.nanoTime() - lastCheckpoint >= heartbeatNanos) {
+                    running.compareAndSet(true, checkpoint(job, progress));
+                    lastCheckpoint = System.nanoTime();
+                }
+            }
+        }
+
+        if (!checkpoint(job, progress)) {
+            log.info("DLQ 재처리 중지: jobId={}", job.getId());
+            return;
+        }
+        if (pending.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> dlqReplayJobRepository.transition(job.getId(),
+                    instanceId, DlqReplayStatus.RUNNING, DlqReplayStatus.COMPLETED, LocalDateTime.now()));
+            log.info("DLQ 재처리 완료: jobId={}, topic={}", job.getId(), job.getTopic());
+        }
+    }
+
+    private boolean acquire(RateLimiter rateLimiter) {
+        while (!rateLimiter.acquirePermission()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 원래 리스너와 같은 처리 로직으로 넘긴다. 실패한 레코드는 DLQ 에 그대로 남는다.
+    private Outcome redeliver(String topic, ConsumerRecord<String, String> record) {
+        try {
+            return switch (topic) {
+                case RESERVED_DLQ -> {
+                    inventoryEventConsumer.replayReserved(
+                            copy(record, objectMapper.readValue(record.value(), InventoryReservedEvent.class)));
+                    yield Outcome.REPLAYED;
+                }
+                // 이미 처리된 레코드면 멱등 소비자가 건너뛴다.
+                case FAILED_DLQ -> inventoryEventConsumer.replayFailed(
+                        copy(record, objectMapper.readValue(record.value(), InventoryFailedEvent.class)))
+                        ? Outcome.REPLAYED : Outcome.SKIPPED;
+                default -> throw new DlqReplayException(DlqReplayExceptionType.UNSUPPORTED_DLQ_TOPIC);
+            };
+        } catch (Exception e) {
+            log.warn("DLQ 레코드 재처리 실패: topic={}, partition={}, offset={}, error={}", topic, record.partition(),
+                    record.offset(), e.getMessage());
+            return Outcome.FAILED;
+        }
+    }
+
+    // 진행 위치와 건수를 저장한다. 작업이 계속 RUNNING 이고 소유권도 유지되면 true.
+    private boolean checkpoint(DlqReplayJob job, Progress progress) {
+        Boolean stillRunning = transactionTemplate.execute(status -> {
+            if (dlqReplayJobRepository.addProgress(job.getId(), instanceId, progress.replayed, progress.skipped,
+                    progress.failed, LocalDateTime.now()) == 0) {
+                log.warn("DLQ 재처리 소유권을 잃음: jobId={}", job.getId());
+                return false;
+            }
+            dlqReplayCheckpointRepository.saveAll(progress.dirty);
+            return dlqReplayJobRepository.findById(job.getId()).map(DlqReplayJob::isRunning).orElse(false);
+        });
+        meterRegistry.counter("kafka.dlq.replay", "topic", job.getTopic(), "result", "replayed")
+                .increment(progress.replayed);
+        meterRegistry.counter("kafka.dlq.replay", "topic", job.getTopic(), "result", "skipped")
+                .increment(progress.skipped);
+        meterRegistry.counter("kafka.dlq.replay", "topic", job.getTopic(), "result", "failed")
+                .increment(progress.failed);
+        progress.reset();
+        return Boolean.TRUE.equals(stillRunning);
+    }
+
+    // 파티션별 [시작 offset, 끝 offset)
+    private Map<TopicPartition, long[]> ranges(Consumer<String, String> consumer, String topic, LocalDateTime from) {
+        List<PartitionInfo> infos = consumer.partitionsFor(topic);
+        List<TopicPartition> partitions = infos == null ? List.of() : infos.stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .toList();
+        Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+        Map<TopicPartition, Long> starts = consumer.beginningOffsets(partitions);
+        if (from != null) {
+            Map<TopicPartition, Long> timestamps = new HashMap<>();
+            partitions.forEach(partition -> timestamps.put(partition, DlqRecordFilter.toMillis(from)));
+            Map<TopicPartition, OffsetAndTimestamp> found = consumer.offsetsForTimes(timestamps);
+            partitions.forEach(partition -> starts.put(partition, Optional.ofNullable(found.get(partition))
+                    .map(OffsetAndTimestamp::offset)
+                    .orElse(ends.get(partition))));
+        }
+        Map<TopicPartition, long[]> ranges = new HashMap<>();
+        partitions.forEach(partition -> ranges.put(partition,
+                new long[]{starts.get(partition), ends.get(partition)}));
+        return ranges;
+    }
+
+    private <V> ConsumerRecord<String, V> copy(ConsumerRecord<String, String> record, V value) {
+        return new ConsumerRecord<>(record.topic(), record.partition(), record.offset(), record.timestamp(),
+                record.timestampType(), record.serializedKeySize(), record.serializedValueSize(), record.key(), value,
+                record.headers(), record.leaderEpoch());
+    }
+
+    private DlqRecordResponse toResponse(ConsumerRecord<String, String> record) {
+        String exception = DlqRecordFilter.header(record, KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN);
+        return new DlqRecordResponse(
+                record.partition(),
+                record.offset(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault()),
+                record.key(),
+                DlqRecordFilter.header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC),
+                exception != null ? exception : DlqRecordFilter.header(record, KafkaHeaders.DLT_EXCEPTION_FQCN),
+                DlqRecordFilter.header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE),
+                record.value());
+    }
+
+    private DlqReplayJob findJob(Long jobId) {
+        return dlqReplayJobRepository.findById(jobId)
+                .orElseThrow(() -> new DlqReplayException(DlqReplayExceptionType.REPLAY_JOB_NOT_FOUND));
+    }
+
+    private void validateTopic(String topic) {
+        if (!SUPPORTED_TOPICS.contains(topic)) {
+            throw new DlqReplayException(DlqReplayExceptionType.UNSUPPORTED_DLQ_TOPIC);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // 진행 위치를 남기고 멈춘 작업은 임대가 만료된 뒤 다른 인스턴스나 재시작한 인스턴스가 이어받는다.
+        runningJobs.values().forEach(running -> running.set(false));
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private enum Outcome {
+        REPLAYED, SKIPPED, FAILED
+    }
+
+    private static final class Progress {
+        private long replayed;
+        private long skipped;
+        private long failed;
+        private final Collection<DlqReplayCheckpoint> dirty = new LinkedHashSet<>();
+
+        private long count() {
+            return replayed + skipped + failed;
+        }
+
+        private void reset() {
+            replayed = 0;
+            skipped = 0;
+            failed = 0;
+            dirty.clear();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.fortishop.orderpaymentservice.kafka.outbox;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.exception.EventPublishException;
+import org.fortishop.orderpaymentservice.exception.EventPublishExceptionType;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka 발행 결과와 토픽별 in-flight 레코드 수를 추적한다. 발행은 릴레이 스레드 하나가 배치 단위로 기다리며 하므로
+ * in-flight 수는 배치 크기로 제한되고, 발행이 밀리는지는 미발행 outbox 이벤트 수로 판단해 새 이벤트를 만드는 요청을 즉시 거절한다.
+ * 브로커 장애로 실패가 이어지면 서킷을 열어 브로커를 기다리지 않고 바로 실패시키며, 이벤트는 outbox 테이블에 남는다.
+ */
+@Component
+@Slf4j
+public class KafkaSendTracker {
+
+    private final OutboxProperties outboxProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong backlog = new AtomicLong();
+    private final CircuitBreaker circuitBreaker;
+
+    public KafkaSendTracker(OutboxProperties outboxProperties, MeterRegistry meterRegistry) {
+        this.outboxProperties = outboxProperties;
+        this.meterRegistry = meterRegistry;
+
+        OutboxProperties.Circuit circuit = outboxProperties.getCircuit();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(circuit.getSlidingWindowSize())
+                .minimumNumberOfCalls(circuit.getMinimumNumberOfCalls())
+                .failureRateThreshold(circuit.getFailureRateThreshold())
+                .waitDurationInOpenState(Duration.ofMillis(circuit.getOpenDuration()))
+                .permittedNumberOfCallsInHalfOpenState(circuit.getHalfOpenCalls())
+                .build());
+        this.circuitBreaker = registry.circuitBreaker("kafka-producer");
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Kafka 발행 서킷 상태 변경: {}", event.getStateTransition()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    }
+
+    // 서킷이 열려 있으면 false. 대기 시간이 지났으면 half-open 으로 넘어가 시험 발행을 허용한다.
+    public boolean isAvailable() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return false;
+        }
+        circuitBreaker.releasePermission();
+        return true;
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public CompletableFuture<?> send(KafkaOperations<String, Object> operations, String topic, String key,
+                                     Object payload) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return failed(topic, CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        }
+        AtomicInteger pending = inFlightCounter(topic);
+        pending.incrementAndGet();
+
+        long started = System.nanoTime();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<?> future;
+        try {
+            future = operations.send(topic, key, payload);
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            circuitBreaker.onError(System.nanoTime() - started, TimeUnit.NANOSECONDS, e);
+            return failed(topic, e);
+        }
+        return future.whenComplete((result, ex) -> {
+            pending.decrementAndGet();
+            if (ex == null) {
+                circuitBreaker.onSuccess(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            } else {
+                circuitBreaker.onError(System.nanoTime() - started, TimeUnit.NANOSECONDS, ex);
+            }
+            sample.stop(Timer.builder("kafka.producer.send")
+                    .description("Kafka 발행 요청부터 브로커 응답까지의 시간")
+                    .tag("topic", topic)
+                    .tag("outcome", ex == null ? "success" : "failure")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            if (ex != null) {
+                countFailure(topic, ex);
+            }
+        });
+    }
+
+    // HTTP 요청 경로에서 호출한다. 블로킹 없이 바로 판단한다.
+    public void checkAccepting(String topic) {
+        long maxPending = outboxProperties.getMaxPending();
+        if (maxPending > 0 && backlog.get() >= maxPending) {
+            meterRegistry.counter("outbox.rejected", "topic", topic).increment();
+            throw new EventPublishException(EventPublishExceptionType.PUBLISH_BACKLOG_FULL);
+        }
+    }
+
+    public void updateBacklog(long pending) {
+        backlog.set(pending);
+    }
+
+    public int inFlight(String topic) {
+        return inFlightCounter(topic).get();
+    }
+
+    private AtomicInteger inFlightCounter(String topic) {
+        return inFlight.computeIfAbsent(topic, t -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("kafka.producer.in-flight", counter, AtomicInteger::get)
+                    .description("브로커 응답을 기다리는 레코드 수")
+                    .tag("topic", t)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    private CompletableFuture<?> failed(String topic, Throwable e) {
+        countFailure(topic, e);
+        return CompletableFuture.failedFuture(e);
+    }
+
+    private void countFailure(String topic, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        meterRegistry.counter("kafka.producer.send.failures", "topic", topic,
+                "exception", cause.getClass().getSimpleName()).increment();
+    }
+}
@@ -0,0 +1,58 @@
+package org.fortishop.orderpaymentservice.kafka.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.OutboxEvent;
+import org.fortishop.orderpaymentservice.respository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxEventWriter {
+
+    private static final Object TRANSACTION_GROUP_KEY = OutboxEventWriter.class.getName() + ".transactionGroup";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // 백로그 검사는 진입점(ensureAccepting)에서만 한다. 여기서 거절하면 이미 바뀐 도메인 상태가
+    // 컨슈머 재시도나 PG 승인 반영 도중에 롤백되므로, 트랜잭션 안에서는 항상 기록한다.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(String topic, String key, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("이벤트 직렬화 실패: " + topic, e);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .eventType(event.getClass().getName())
+                .payload(payload)
+                .transactionGroup(currentTransactionGroup())
+                .build());
+    }
+
+    private String currentTransactionGroup() {
+        String group = (String) TransactionSynchronizationManager.getResource(TRANSACTION_GROUP_KEY);
+        if (group == null) {
+            group = UUID.randomUUID().toString();
+            TransactionSynchronizationManager.bindResource(TRANSACTION_GROUP_KEY, group);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_GROUP_KEY);
+                }
+            });
+        }
+        return group;
+    }
+}
@@ -0,0 +1,32 @@
+package org.fortishop.orderpaymentservice.kafka.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "outbox.relay")
+@Getter
+@Setter
+public class OutboxProperties {
+    private int batchSize = 100;
+    private long pollInterval = 500L;
+    private long sendTimeout = 10000L;
+    // 미발행 outbox 이벤트가 이 수를 넘으면 새 이벤트를 만드는 요청을 즉시 거절한다. 0 이면 제한 없음
+    private long maxPending = 50000L;
+    // 이벤트(트랜잭션 모드에서는 그룹 단독 발행)가 이 횟수만큼 실패하면 보류(parked_at)하고 뒤 이벤트를 계속 발행한다
+    private int maxAttempts = 10;
+    private Circuit circuit = new Circuit();
+
+    // 브로커 장애 시 발행을 멈추고 outbox 테이블에 쌓아 두기 위한 서킷 브레이커 설정
+    @Getter
+    @Setter
+    public static class Circuit {
+        private float failureRateThreshold = 50f;
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        private long openDuration = 30000L;
+        private int halfOpenCalls = 5;
+    }
+}
@@ -0,0 +1,258 @@
+package org.fortishop.orderpaymentservice.kafka.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.domain.OutboxEvent;
+import org.fortishop.orderpaymentservice.respository.OutboxEventRepository;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaSendTracker kafkaSendTracker;
+
+    private final Map<String, Class<?>> eventTypes = new ConcurrentHashMap<>();
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       OutboxProperties outboxProperties,
+                       PlatformTransactionManager transactionManager,
+                       KafkaSendTracker kafkaSendTracker,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxProperties = outboxProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaSendTracker = kafkaSendTracker;
+
+        Gauge.builder("outbox.depth", depth, AtomicLong::get)
+                .description("발행 대기 중인 outbox 이벤트 수")
+                .register(meterRegistry);
+        Gauge.builder("outbox.parked", parked, AtomicLong::get)
+                .description("재시도 한도를 넘겨 발행이 보류된 outbox 이벤트 수")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("가장 오래된 미발행 outbox 이벤트의 대기 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "#{@outboxProperties.pollInterval}")
+    public void relay() {
+        // 서킷이 열려 있는 동안은 발행을 시도하지 않고 outbox 에 쌓아 둔다. 닫히면 id 순서대로 이어서 발행한다.
+        if (!kafkaSendTracker.isAvailable()) {
+            refreshMetrics();
+            return;
+        }
+        int batchSize = outboxProperties.getBatchSize();
+        DispatchResult result;
+        do {
+            result = Objects.requireNonNullElse(
+                    transactionTemplate.execute(status -> dispatchBatch(batchSize)), DispatchResult.EMPTY);
+        } while (result.hasMore(batchSize));
+        refreshMetrics();
+    }
+
+    // fetched 는 조회한 배치 크기(그룹 나머지 제외), failed 는 발행하지 못하고 남긴 이벤트 수
+    record DispatchResult(int fetched, int sent, int failed) {
+
+        static final DispatchResult EMPTY = new DispatchResult(0, 0, 0);
+
+        // 실패한 이벤트는 배치 맨 앞에 남으므로 바로 다시 조회하지 않고 다음 주기까지 기다린다.
+        boolean hasMore(int batchSize) {
+            return fetched == batchSize && failed == 0;
+        }
+    }
+
+    DispatchResult dispatchBatch(int batchSize) {
+        List<OutboxEvent> events = outboxEventRepository.findDispatchBatch(batchSize);
+        if (events.isEmpty()) {
+            return DispatchResult.EMPTY;
+        }
+        if (kafkaTemplate.isTransactional()) {
+            return dispatchTransactionally(events, batchSize);
+        }
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            futures.add(send(kafkaTemplate, event));
+        }
+
+        List<Long> sentIds = new ArrayList<>(events.size());
+        LocalDateTime now = LocalDateTime.now();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(outboxProperties.getSendTimeout());
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                futures.get(i).get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(event.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                recordFailure(event, now, e);
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(sentIds);
+        }
+        return new DispatchResult(events.size(), sentIds.size(), events.size() - sentIds.size());
+    }
+
+    // 역직렬화 실패나 브로커가 거부한 레코드처럼 계속 실패하는 이벤트가 배치 앞을 막지 않도록, 한도에 닿으면 보류한다.
+    // 서킷이 열릴 만큼 브로커가 불안정하면 이벤트 탓이 아니므로 시도 횟수를 올리지 않는다.
+    private void recordFailure(OutboxEvent event, LocalDateTime now, Exception e) {
+        if (kafkaSendTracker.isAvailable() && event.recordFailure(outboxProperties.getMaxAttempts(), now)) {
+            log.error("outbox 이벤트 발행 보류: id={}, topic={}, attempts={}, reason={}", event.getId(),
+                    event.getTopic(), event.getAttempts(), e.getMessage());
+            return;
+        }
+        log.warn("outbox 이벤트 발행 실패: id={}, topic={}, reason={}", event.getId(), event.getTopic(), e.getMessage());
+    }
+
+    // 배치 전체를 하나의 Kafka 트랜잭션으로 보낸다. 하나라도 실패하면 abort 되어 read_committed 컨슈머에게는 아무것도 보이지 않는다.
+    // 이때는 트랜잭션 그룹별로 나눠 다시 보내, 실패한 그룹만 남기고 나머지는 흘려보낸다.
+    private DispatchResult dispatchTransactionally(List<OutboxEvent> batch, int batchSize) {
+        List<OutboxEvent> events = new ArrayList<>(batch);
+        if (batch.size() == batchSize) {
+            Set<String> groups = new LinkedHashSet<>();
+            batch.forEach(event -> {
+                if (event.getTransactionGroup() != null) {
+                    groups.add(event.getTransactionGroup());
+                }
+            });
+            if (!groups.isEmpty()) {
+                events.addAll(outboxEventRepository.findGroupRemainder(groups, batch.get(batch.size() - 1).getId()));
+            }
+        }
+
+        try {
+            sendInTransaction(events);
+        } catch (RuntimeException e) {
+            log.warn("outbox 트랜잭션 발행 실패, 그룹별로 재시도: size={}, reason={}", events.size(), e.getMessage());
+            int sent = dispatchGroups(events);
+            return new DispatchResult(batch.size(), sent, events.size() - sent);
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        return new DispatchResult(batch.size(), events.size(), 0);
+    }
+
+    // 그룹마다 따로 Kafka 트랜잭션을 연다. 실패한 그룹은 시도 횟수를 올리고, 한도에 닿으면 보류해 다음 배치에서 빠진다.
+    private int dispatchGroups(List<OutboxEvent> events) {
+        Map<String, List<OutboxEvent>> groups = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            String group = event.getTransactionGroup() != null ? event.getTransactionGroup() : "id:" + event.getId();
+            groups.computeIfAbsent(group, key -> new ArrayList<>()).add(event);
+        }
+
+        List<Long> sentIds = new ArrayList<>(events.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, List<OutboxEvent>> group : groups.entrySet()) {
+            // 브로커 장애라면 그룹 단위로 재시도해도 소용없다. 시도 횟수를 올리지 않고 서킷이 닫히기를 기다린다.
+            if (!kafkaSendTracker.isAvailable()) {
+                break;
+            }
+            List<OutboxEvent> groupEvents = group.getValue();
+            try {
+                sendInTransaction(groupEvents);
+                groupEvents.forEach(event -> sentIds.add(event.getId()));
+            } catch (RuntimeException e) {
+                boolean parked = false;
+                for (OutboxEvent event : groupEvents) {
+                    parked |= event.recordFailure(outboxProperties.getMaxAttempts(), now);
+                }
+                if (parked) {
+                    log.error("outbox 그룹 발행 보류: group={}, ids={}, reason={}", group.getKey(),
+                            groupEvents.stream().map(OutboxEvent::getId).toList(), e.getMessage());
+                } else {
+                    log.warn("outbox 그룹 발행 실패, 다음 주기에 재시도: group={}, reason={}", group.getKey(),
+                            e.getMessage());
+                }
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(sentIds);
+        }
+        return sentIds.size();
+    }
+
+    private void sendInTransaction(List<OutboxEvent> events) {
+        kafkaTemplate.executeInTransaction(operations -> {
+            List<CompletableFuture<?>> futures = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                futures.add(send(operations, event));
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(outboxProperties.getSendTimeout());
+            for (CompletableFuture<?> future : futures) {
+                try {
+                    future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("outbox 트랜잭션 발행 중 인터럽트", e);
+                } catch (ExecutionException | TimeoutException e) {
+                    throw new IllegalStateException("outbox 트랜잭션 발행 실패", e);
+                }
+            }
+            return null;
+        });
+    }
+
+    private CompletableFuture<?> send(KafkaOperations<String, Object> operations, OutboxEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), resolveType(event.getEventType()));
+            return kafkaSendTracker.send(operations, event.getTopic(), event.getMessageKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Class<?> resolveType(String eventType) {
+        return eventTypes.computeIfAbsent(eventType,
+                type -> ClassUtils.resolveClassName(type, getClass().getClassLoader()));
+    }
+
+    private void refreshMetrics() {
+        depth.set(outboxEventRepository.countByParkedAtIsNull());
+        parked.set(outboxEventRepository.countByParkedAtIsNotNull());
+        kafkaSendTracker.updateBacklog(depth.get());
+        LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt();
+        lagMillis.set(oldest == null ? 0L : Math.max(0L, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+}
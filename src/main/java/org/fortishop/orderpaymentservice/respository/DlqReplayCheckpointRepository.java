@@ -0,0 +1,10 @@
+package org.fortishop.orderpaymentservice.respository;
+
+import java.util.List;
+import org.fortishop.orderpaymentservice.domain.DlqReplayCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DlqReplayCheckpointRepository extends JpaRepository<DlqReplayCheckpoint, Long> {
+
+    List<DlqReplayCheckpoint> findByJobIdOrderByPartitionNo(Long jobId);
+}
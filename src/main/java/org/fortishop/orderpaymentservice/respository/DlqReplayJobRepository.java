@@ -0,0 +1,52 @@
+package org.fortishop.orderpaymentservice.respository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.fortishop.orderpaymentservice.domain.DlqReplayJob;
+import org.fortishop.orderpaymentservice.domain.DlqReplayStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DlqReplayJobRepository extends JpaRepository<DlqReplayJob, Long> {
+
+    boolean existsByTopicAndStatus(String topic, DlqReplayStatus status);
+
+    @Query("select j.id from DlqReplayJob j where j.status = :status "
+            + "and (j.heartbeatAt is null or j.heartbeatAt < :staleBefore)")
+    List<Long> findStaleIds(@Param("status") DlqReplayStatus status, @Param("staleBefore") LocalDateTime staleBefore);
+
+    // 갱신이 끊긴 작업만 가져온다. 동시에 시도한 인스턴스 중 하나만 1을 받는다.
+    @Modifying(clearAutomatically = true)
+    @Query("update DlqReplayJob j set j.owner = :owner, j.heartbeatAt = :now "
+            + "where j.id = :id and j.status = :status "
+            + "and (j.heartbeatAt is null or j.heartbeatAt < :staleBefore)")
+    int claim(@Param("id") Long id,
+              @Param("status") DlqReplayStatus status,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    // 소유권을 잃었으면 0 을 돌려준다.
+    @Modifying(clearAutomatically = true)
+    @Query("update DlqReplayJob j set j.replayedCount = j.replayedCount + :replayed, "
+            + "j.skippedCount = j.skippedCount + :skipped, j.failedCount = j.failedCount + :failed, "
+            + "j.heartbeatAt = :now, j.updatedAt = :now where j.id = :id and j.owner = :owner")
+    int addProgress(@Param("id") Long id,
+                    @Param("owner") String owner,
+                    @Param("replayed") long replayed,
+                    @Param("skipped") long skipped,
+                    @Param("failed") long failed,
+                    @Param("now") LocalDateTime now);
+
+    // 실행을 끝내는 전이(RUNNING -> COMPLETED/FAILED)에 쓴다. 같은 토픽의 다음 작업을 시작할 수 있게 running_topic 을 비운다.
+    @Modifying(clearAutomatically = true)
+    @Query("update DlqReplayJob j set j.status = :target, j.runningTopic = null, j.updatedAt = :now "
+            + "where j.id = :id and j.owner = :owner and j.status = :source")
+    int transition(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("source") DlqReplayStatus source,
+                   @Param("target") DlqReplayStatus target,
+                   @Param("now") LocalDateTime now);
+}
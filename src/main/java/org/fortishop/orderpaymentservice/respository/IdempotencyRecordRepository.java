@@ -0,0 +1,45 @@
+package org.fortishop.orderpaymentservice.respository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.fortishop.orderpaymentservice.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    // 임대가 만료된 처리 중 키를 다시 선점한다. 여러 노드가 동시에 시도해도 한 곳만 1 을 받는다.
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.claimedAt = :claimedAt where r.idempotencyKey = :key "
+            + "and r.responseStatus is null and coalesce(r.claimedAt, r.createdAt) < :expiredBefore")
+    int reclaim(@Param("key") String idempotencyKey,
+                @Param("claimedAt") LocalDateTime claimedAt,
+                @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    // 선점 시각이 다르면 임대가 만료되어 다른 노드가 이어받은 것이다. 그 결과를 덮어쓰지 않는다.
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.responseStatus = :status, r.responseBody = :body "
+            + "where r.idempotencyKey = :key and r.claimedAt = :claimedAt")
+    int complete(@Param("key") String idempotencyKey,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("status") int status,
+                 @Param("body") String body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.claimedAt = :claimedAt "
+            + "and r.responseStatus is null")
+    int deleteInProgress(@Param("key") String idempotencyKey, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,7 +1,10 @@
 package org.fortishop.orderpaymentservice.respository;
 
+import java.util.List;
 import org.fortishop.orderpaymentservice.domain.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    List<OrderItem> findByOrderId(Long orderId);
 }
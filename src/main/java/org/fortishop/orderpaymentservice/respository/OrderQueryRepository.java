@@ -0,0 +1,14 @@
+package org.fortishop.orderpaymentservice.respository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import org.fortishop.orderpaymentservice.dto.request.OrderCursor;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition;
+import org.fortishop.orderpaymentservice.dto.response.OrderSummaryResponse;
+
+public interface OrderQueryRepository {
+    List<OrderSummaryResponse> search(OrderSearchCondition condition, OrderCursor cursor, int limit);
+
+    Stream<OrderSummaryResponse> streamForExport(LocalDateTime from, LocalDateTime to);
+}
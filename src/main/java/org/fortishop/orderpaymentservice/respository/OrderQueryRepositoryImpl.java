@@ -0,0 +1,107 @@
+package org.fortishop.orderpaymentservice.respository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.fortishop.orderpaymentservice.domain.Money;
+import org.fortishop.orderpaymentservice.domain.Order;
+import org.fortishop.orderpaymentservice.dto.request.OrderCursor;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition.OrderSort;
+import org.fortishop.orderpaymentservice.dto.response.OrderSummaryResponse;
+import org.hibernate.jpa.HibernateHints;
+
+@RequiredArgsConstructor
+public class OrderQueryRepositoryImpl implements OrderQueryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<OrderSummaryResponse> search(OrderSearchCondition condition, OrderCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryResponse> query = cb.createQuery(OrderSummaryResponse.class);
+        Root<Order> order = query.from(Order.class);
+        Path<Long> id = order.get("id");
+        Path<LocalDateTime> createdAt = order.get("createdAt");
+        Path<Money> totalPrice = order.get("totalPrice");
+
+        // 엔티티 대신 목록에 필요한 컬럼만 DTO 로 바로 조회한다.
+        query.select(cb.construct(OrderSummaryResponse.class,
+                id, order.get("memberId"), order.get("status"), totalPrice, createdAt));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (condition.memberId() != null) {
+            predicates.add(cb.equal(order.get("memberId"), condition.memberId()));
+        }
+        if (condition.status() != null) {
+            predicates.add(cb.equal(order.get("status"), condition.status()));
+        }
+        if (condition.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, condition.from()));
+        }
+        if (condition.to() != null) {
+            predicates.add(cb.lessThan(createdAt, condition.to()));
+        }
+        // 최소 단위(0.01)보다 잘게 준 가격 경계는 범위 안쪽으로 맞춘다.
+        if (condition.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(totalPrice, Money.of(condition.minPrice(), RoundingMode.CEILING)));
+        }
+        if (condition.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(totalPrice, Money.of(condition.maxPrice(), RoundingMode.FLOOR)));
+        }
+
+        OrderSort sort = condition.sortOrDefault();
+        if (cursor != null) {
+            predicates.add(sort == OrderSort.ID
+                    ? cb.lessThan(id, cursor.id())
+                    : cb.or(cb.lessThan(createdAt, cursor.createdAt()),
+                            cb.and(cb.equal(createdAt, cursor.createdAt()), cb.lessThan(id, cursor.id()))));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(sort == OrderSort.ID
+                ? List.of(cb.desc(id))
+                : List.of(cb.desc(createdAt), cb.desc(id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<OrderSummaryResponse> streamForExport(LocalDateTime from, LocalDateTime to) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryResponse> query = cb.createQuery(OrderSummaryResponse.class);
+        Root<Order> order = query.from(Order.class);
+        Path<Long> id = order.get("id");
+        Path<LocalDateTime> createdAt = order.get("createdAt");
+
+        query.select(cb.construct(OrderSummaryResponse.class,
+                id, order.get("memberId"), order.get("status"), order.get("totalPrice"), createdAt));
+        List<Predicate> predicates = new ArrayList<>();
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(createdAt, to));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(id));
+
+        // Connector/J 스트리밍 결과셋(fetchSize=Integer.MIN_VALUE)으로 한 행씩 받는다. 전역 useCursorFetch 없이 이 쿼리만
+        // 결과 전체를 버퍼링하지 않는다. 스트림을 닫기 전까지 이 커넥션으로 다른 쿼리를 보낼 수 없고, 느린 클라이언트는
+        // netTimeoutForStreamingResults(기본 600초) 동안 기다려 준다.
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
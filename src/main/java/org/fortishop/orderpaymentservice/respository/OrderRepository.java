@@ -1,9 +1,36 @@
 package org.fortishop.orderpaymentservice.respository;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
 import org.fortishop.orderpaymentservice.domain.Order;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByMemberId(Long memberId);
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderQueryRepository {
+
+    // 주문과 품목을 한 번의 조인 쿼리로 읽는다.
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsById(Long id);
+
+    // 현재 상태가 sources 중 하나일 때만 바꾼다. 반환값이 0 이면 전이가 일어나지 않은 것이다. versioned 로 @Version 도 올린다.
+    @Modifying(flushAutomatically = true)
+    @Query("update versioned Order o set o.status = :target, o.updatedAt = :updatedAt "
+            + "where o.id = :id and o.status in :sources")
+    int transition(@Param("id") Long id,
+                   @Param("sources") Collection<OrderStatus> sources,
+                   @Param("target") OrderStatus target,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update versioned Order o set o.status = :target, o.updatedAt = :updatedAt "
+            + "where o.id in :ids and o.status in :sources")
+    int transitionAll(@Param("ids") Collection<Long> ids,
+                      @Param("sources") Collection<OrderStatus> sources,
+                      @Param("target") OrderStatus target,
+                      @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,28 @@
+package org.fortishop.orderpaymentservice.respository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.fortishop.orderpaymentservice.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "SELECT * FROM outbox_events WHERE parked_at IS NULL ORDER BY id LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> findDispatchBatch(@Param("limit") int limit);
+
+    // 배치 경계에서 잘린 트랜잭션 그룹의 나머지 이벤트
+    @Query(value = "SELECT * FROM outbox_events WHERE transaction_group IN (:groups) AND id > :afterId "
+            + "AND parked_at IS NULL ORDER BY id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> findGroupRemainder(@Param("groups") Collection<String> groups, @Param("afterId") Long afterId);
+
+    long countByParkedAtIsNull();
+
+    long countByParkedAtIsNotNull();
+
+    @Query("select min(o.createdAt) from OutboxEvent o where o.parkedAt is null")
+    LocalDateTime findOldestCreatedAt();
+}
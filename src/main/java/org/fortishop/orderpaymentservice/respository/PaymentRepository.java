@@ -1,9 +1,52 @@
 package org.fortishop.orderpaymentservice.respository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.fortishop.orderpaymentservice.domain.Payment;
+import org.fortishop.orderpaymentservice.domain.PaymentStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderId(Long orderId);
+
+    // PG 일시 장애로 실패한 결제 행을 새 결제 시도에 다시 쓴다. 동시에 시도한 요청 중 하나만 1을 받는다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Payment p set p.paymentStatus = :target, p.method = :method, "
+            + "p.nextAttemptAt = :leaseUntil where p.orderId = :orderId and p.paymentStatus = :source")
+    int reclaim(@Param("orderId") Long orderId,
+                @Param("method") String method,
+                @Param("source") PaymentStatus source,
+                @Param("target") PaymentStatus target,
+                @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // idx_payments_status_next_attempt 범위 스캔. 여러 인스턴스가 동시에 폴링해도 같은 행을 나눠 갖지 않는다.
+    @Query(value = "SELECT id FROM payments WHERE payment_status = :status AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> findDueIds(@Param("status") String status, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Payment p set p.paymentStatus = :target, p.nextAttemptAt = :leaseUntil "
+            + "where p.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("target") PaymentStatus target,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    long countByPaymentStatusAndNextAttemptAtNotNull(PaymentStatus status);
+
+    // Bloom filter 재구성용. 주문 내보내기와 같이 Connector/J 스트리밍 결과셋으로 한 행씩 읽는다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.orderId from Payment p")
+    Stream<Long> streamOrderIds();
 }
@@ -0,0 +1,23 @@
+package org.fortishop.orderpaymentservice.respository;
+
+import java.time.LocalDateTime;
+import org.fortishop.orderpaymentservice.domain.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, Long> {
+
+    // 이미 처리된 레코드면 0 을 돌려준다.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO processed_events (fingerprint, processed_at) VALUES (:fingerprint, :processedAt)",
+            nativeQuery = true)
+    int markProcessed(@Param("fingerprint") long fingerprint, @Param("processedAt") LocalDateTime processedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProcessedEvent e where e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
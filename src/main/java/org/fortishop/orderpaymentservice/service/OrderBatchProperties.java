@@ -0,0 +1,15 @@
+package org.fortishop.orderpaymentservice.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "order.batch")
+@Getter
+@Setter
+public class OrderBatchProperties {
+    private int chunkSize = 100;
+    private int maxSize = 1000;
+}
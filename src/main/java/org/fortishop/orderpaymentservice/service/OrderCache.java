@@ -0,0 +1,33 @@
+package org.fortishop.orderpaymentservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.Function;
+import org.fortishop.orderpaymentservice.dto.response.OrderResponse;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderCache {
+
+    private final Cache<Long, OrderResponse> orders;
+
+    public OrderCache(OrderCacheProperties orderCacheProperties, MeterRegistry meterRegistry) {
+        this.orders = Caffeine.newBuilder()
+                .maximumSize(orderCacheProperties.getMaximumSize())
+                .expireAfterWrite(orderCacheProperties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, orders, "order");
+    }
+
+    // 같은 키의 적재와 무효화는 원자적으로 처리되므로, 커밋 전 값을 읽던 적재는 커밋 후 무효화에 의해 지워진다.
+    public OrderResponse get(Long orderId, Function<Long, OrderResponse> loader) {
+        return orders.get(orderId, loader);
+    }
+
+    public void evict(Long orderId) {
+        orders.invalidate(orderId);
+    }
+}
@@ -0,0 +1,18 @@
+package org.fortishop.orderpaymentservice.service;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+@Getter
+@NoArgsConstructor
+public class OrderCacheEvictedEvent extends RemoteApplicationEvent {
+
+    private Long orderId;
+
+    public OrderCacheEvictedEvent(Object source, String originService, Destination destination, Long orderId) {
+        super(source, originService, destination);
+        this.orderId = orderId;
+    }
+}
@@ -0,0 +1,52 @@
+package org.fortishop.orderpaymentservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.domain.OrderStatusChangedEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderCacheInvalidator {
+
+    private final OrderCache orderCache;
+    private final OrderCacheProperties orderCacheProperties;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectProvider<BusProperties> busProperties;
+    private final ObjectProvider<Destination.Factory> destinationFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        orderCache.evict(event.orderId());
+        if (orderCacheProperties.isBroadcast()) {
+            broadcast(event.orderId());
+        }
+    }
+
+    @EventListener
+    public void onRemoteEvicted(OrderCacheEvictedEvent event) {
+        BusProperties bus = busProperties.getIfAvailable();
+        if (bus != null && bus.getId().equals(event.getOriginService())) {
+            return;
+        }
+        orderCache.evict(event.getOrderId());
+    }
+
+    private void broadcast(Long orderId) {
+        BusProperties bus = busProperties.getIfAvailable();
+        Destination.Factory destinations = destinationFactory.getIfAvailable();
+        if (bus == null || !bus.isEnabled() || destinations == null) {
+            log.debug("Spring Cloud Bus 비활성화 상태로 주문 캐시 무효화 전파 생략: orderId={}", orderId);
+            return;
+        }
+        applicationEventPublisher.publishEvent(
+                new OrderCacheEvictedEvent(this, bus.getId(), destinations.getDestination(null), orderId));
+    }
+}
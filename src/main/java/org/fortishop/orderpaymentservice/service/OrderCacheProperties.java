@@ -0,0 +1,18 @@
+package org.fortishop.orderpaymentservice.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "order.cache")
+@Getter
+@Setter
+public class OrderCacheProperties {
+    private long maximumSize = 10000;
+    private Duration ttl = Duration.ofSeconds(30);
+    // true 이면 Spring Cloud Bus 로 다른 노드에도 무효화를 전파한다.
+    private boolean broadcast = false;
+}
@@ -0,0 +1,14 @@
+package org.fortishop.orderpaymentservice.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "order.export")
+@Getter
+@Setter
+public class OrderExportProperties {
+    private int flushInterval = 1000;
+}
@@ -0,0 +1,104 @@
+package org.fortishop.orderpaymentservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.dto.response.OrderSummaryResponse;
+import org.fortishop.orderpaymentservice.respository.OrderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 주문을 DB 커서에서 한 행씩 읽어 곧바로 출력 스트림에 쓴다. 결과를 컬렉션으로 모으지 않으므로 건수와 무관하게 힙 사용량이 일정하다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+
+    private static final String CSV_HEADER = "orderId,memberId,status,totalPrice,createdAt";
+
+    private final OrderRepository orderRepository;
+    private final OrderExportProperties orderExportProperties;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(OrderExportFormat format, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        long started = System.currentTimeMillis();
+        long rows;
+        try (Stream<OrderSummaryResponse> orders = orderRepository.streamForExport(from, to)) {
+            rows = format == OrderExportFormat.NDJSON
+                    ? writeNdjson(orders.iterator(), out)
+                    : writeCsv(orders.iterator(), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 내보내기 출력 실패", e);
+        }
+        log.info("주문 내보내기 완료: format={}, rows={}, elapsed={}ms", format, rows,
+                System.currentTimeMillis() - started);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<OrderSummaryResponse> orders, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 루트 값 사이 기본 구분자(공백) 대신 줄바꿈만 쓴다.
+            generator.setRootValueSeparator(null);
+            while (orders.hasNext()) {
+                generator.writeObject(orders.next());
+                generator.writeRaw('\n');
+                if (++rows % orderExportProperties.getFlushInterval() == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        out.flush();
+        return rows;
+    }
+
+    private long writeCsv(Iterator<OrderSummaryResponse> orders, OutputStream out) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (orders.hasNext()) {
+            OrderSummaryResponse order = orders.next();
+            writer.write(String.valueOf(order.getOrderId()));
+            writer.write(',');
+            writer.write(String.valueOf(order.getMemberId()));
+            writer.write(',');
+            writer.write(csv(order.getStatus()));
+            writer.write(',');
+            writer.write(order.getTotalPrice() == null ? "" : order.getTotalPrice().toString());
+            writer.write(',');
+            writer.write(order.getCreatedAt() == null ? "" : order.getCreatedAt().toString());
+            writer.write('\n');
+            if (++rows % orderExportProperties.getFlushInterval() == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
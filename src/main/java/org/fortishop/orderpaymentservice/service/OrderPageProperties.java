@@ -0,0 +1,15 @@
+package org.fortishop.orderpaymentservice.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "order.page")
+@Getter
+@Setter
+public class OrderPageProperties {
+    private int defaultSize = 20;
+    private int maxSize = 100;
+}
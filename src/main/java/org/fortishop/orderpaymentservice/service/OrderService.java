@@ -3,17 +3,19 @@ package org.fortishop.orderpaymentservice.service;
 import java.util.List;
 import org.fortishop.orderpaymentservice.domain.OrderStatus;
 import org.fortishop.orderpaymentservice.dto.request.OrderRequest;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition;
+import org.fortishop.orderpaymentservice.dto.response.OrderBatchResponse;
+import org.fortishop.orderpaymentservice.dto.response.OrderPageResponse;
 import org.fortishop.orderpaymentservice.dto.response.OrderResponse;
-import org.fortishop.orderpaymentservice.dto.response.OrderSummaryResponse;
 
 public interface OrderService {
     Long createOrder(OrderRequest request);
 
-    OrderResponse getOrder(Long orderId);
+    OrderBatchResponse createOrders(List<OrderRequest> requests);
 
-    List<OrderSummaryResponse> getAllOrders();
+    OrderResponse getOrder(Long orderId);
 
-    List<OrderSummaryResponse> getOrdersByMember(Long memberId);
+    OrderPageResponse getOrders(OrderSearchCondition condition);
 
     void cancelOrder(Long orderId);
 
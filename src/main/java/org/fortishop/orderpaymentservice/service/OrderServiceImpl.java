@@ -1,36 +1,119 @@
 package org.fortishop.orderpaymentservice.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.fortishop.orderpaymentservice.domain.Order;
 import org.fortishop.orderpaymentservice.domain.OrderItem;
 import org.fortishop.orderpaymentservice.domain.OrderStatus;
 import org.fortishop.orderpaymentservice.dto.event.OrderCreatedEvent;
+import org.fortishop.orderpaymentservice.dto.request.OrderCursor;
 import org.fortishop.orderpaymentservice.dto.request.OrderItemRequest;
 import org.fortishop.orderpaymentservice.dto.request.OrderRequest;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition;
+import org.fortishop.orderpaymentservice.dto.response.OrderBatchResponse;
+import org.fortishop.orderpaymentservice.dto.response.OrderPageResponse;
 import org.fortishop.orderpaymentservice.dto.response.OrderResponse;
 import org.fortishop.orderpaymentservice.dto.response.OrderSummaryResponse;
 import org.fortishop.orderpaymentservice.exception.OrderException;
 import org.fortishop.orderpaymentservice.exception.OrderExceptionType;
+import org.fortishop.orderpaymentservice.global.exception.BaseException;
 import org.fortishop.orderpaymentservice.kafka.OrderEventProducer;
 import org.fortishop.orderpaymentservice.respository.OrderRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderEventProducer orderEventProducer;
+    private final OrderBatchProperties orderBatchProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderCache orderCache;
+    private final OrderPageProperties orderPageProperties;
+    private final OrderStateMachine orderStateMachine;
 
     @Override
     @Transactional
     public Long createOrder(OrderRequest request) {
-        String traceId = UUID.randomUUID().toString();
+        orderEventProducer.ensureAccepting();
+        Order savedOrder = orderRepository.save(buildOrder(request));
+
+        OrderCreatedEvent event = OrderCreatedEvent.of(savedOrder, savedOrder.getTraceId());
+        orderEventProducer.send(event);
+
+        return savedOrder.getId();
+    }
+
+    @Override
+    public OrderBatchResponse createOrders(List<OrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new OrderException(OrderExceptionType.INVALID_ORDER_REQUEST);
+        }
+        if (requests.size() > orderBatchProperties.getMaxSize()) {
+            throw new OrderException(OrderExceptionType.BATCH_SIZE_EXCEEDED);
+        }
+        orderEventProducer.ensureAccepting();
+
+        OrderBatchResponse.Result[] results = new OrderBatchResponse.Result[requests.size()];
+        int chunkSize = Math.max(1, orderBatchProperties.getChunkSize());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<Integer> chunk = new ArrayList<>(chunkSize);
+            for (int index = from; index < Math.min(from + chunkSize, requests.size()); index++) {
+                if (isValid(requests.get(index))) {
+                    chunk.add(index);
+                } else {
+                    results[index] = failure(index, new OrderException(OrderExceptionType.INVALID_ORDER_REQUEST));
+                }
+            }
+            createChunk(requests, chunk, results);
+        }
+        return OrderBatchResponse.of(Arrays.asList(results));
+    }
+
+    private void createChunk(List<OrderRequest> requests, List<Integer> chunk, OrderBatchResponse.Result[] results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> orderIds = transactionTemplate.execute(status -> persistOrders(
+                    chunk.stream().map(requests::get).toList()));
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunk.get(i)] = OrderBatchResponse.Result.success(chunk.get(i), orderIds.get(i));
+            }
+        } catch (RuntimeException chunkFailure) {
+            log.warn("일괄 주문 청크 저장 실패, 건별 재시도: size={}, reason={}", chunk.size(), chunkFailure.getMessage());
+            for (Integer index : chunk) {
+                try {
+                    List<Long> orderIds = transactionTemplate.execute(status -> persistOrders(
+                            List.of(requests.get(index))));
+                    results[index] = OrderBatchResponse.Result.success(index, orderIds.get(0));
+                } catch (RuntimeException e) {
+                    results[index] = failure(index, e);
+                }
+            }
+        }
+    }
+
+    private List<Long> persistOrders(List<OrderRequest> requests) {
+        List<Order> savedOrders = orderRepository.saveAll(requests.stream().map(this::buildOrder).toList());
+        List<Long> orderIds = new ArrayList<>(savedOrders.size());
+        for (Order savedOrder : savedOrders) {
+            orderEventProducer.send(OrderCreatedEvent.of(savedOrder, savedOrder.getTraceId()));
+            orderIds.add(savedOrder.getId());
+        }
+        return orderIds;
+    }
+
+    private Order buildOrder(OrderRequest request) {
         Order order = Order.builder()
                 .memberId(request.memberId())
                 .totalPrice(request.totalPrice())
@@ -38,7 +121,7 @@ public class OrderServiceImpl implements OrderService {
                 .status(OrderStatus.ORDERED)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
-                .traceId(traceId)
+                .traceId(UUID.randomUUID().toString())
                 .build();
 
         for (OrderItemRequest item : request.items()) {
@@ -49,62 +132,71 @@ public class OrderServiceImpl implements OrderService {
                     .build();
             order.addItem(orderItem);
         }
+        return order;
+    }
 
-        Order savedOrder = orderRepository.save(order);
-
-        OrderCreatedEvent event = OrderCreatedEvent.of(savedOrder, traceId);
-        orderEventProducer.send(event);
-
-        return savedOrder.getId();
+    private boolean isValid(OrderRequest request) {
+        if (request == null || request.memberId() == null || request.totalPrice() == null
+                || request.items() == null || request.items().isEmpty()) {
+            return false;
+        }
+        return request.items().stream()
+                .allMatch(item -> item != null && item.productId() != null && item.quantity() > 0
+                        && item.price() != null);
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public OrderResponse getOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderException(OrderExceptionType.ORDER_NOT_FOUND));
-        return OrderResponse.of(order);
+    private OrderBatchResponse.Result failure(int index, RuntimeException e) {
+        if (e instanceof BaseException baseException) {
+            return OrderBatchResponse.Result.failure(index, baseException.getExceptionType().getErrorCode(),
+                    baseException.getExceptionType().getErrorMessage());
+        }
+        return OrderBatchResponse.Result.failure(index, "S001", e.getMessage());
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<OrderSummaryResponse> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(OrderSummaryResponse::of)
-                .collect(Collectors.toList());
+    public OrderResponse getOrder(Long orderId) {
+        // 캐시 적중 시에는 트랜잭션(커넥션)을 열지 않는다.
+        return orderCache.get(orderId, id -> transactionTemplate.execute(status -> {
+            Order order = orderRepository.findWithItemsById(id)
+                    .orElseThrow(() -> new OrderException(OrderExceptionType.ORDER_NOT_FOUND));
+            return OrderResponse.of(order);
+        }));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderSummaryResponse> getOrdersByMember(Long memberId) {
-        return orderRepository.findByMemberId(memberId).stream()
-                .map(OrderSummaryResponse::of)
-                .collect(Collectors.toList());
+    public OrderPageResponse getOrders(OrderSearchCondition condition) {
+        int size = condition.size() == null ? orderPageProperties.getDefaultSize() : condition.size();
+        if (size < 1 || size > orderPageProperties.getMaxSize()) {
+            throw new OrderException(OrderExceptionType.INVALID_ORDER_REQUEST);
+        }
+        OrderCursor cursor = OrderCursor.decode(condition.cursor(), condition.sortOrDefault());
+        List<OrderSummaryResponse> rows = orderRepository.search(condition, cursor, size + 1);
+        return OrderPageResponse.of(rows, size, condition.sortOrDefault());
     }
 
     @Override
     @Transactional
     public void cancelOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderException(OrderExceptionType.ORDER_NOT_FOUND));
-        if (order.getStatus().isFinal()) {
-            throw new IllegalStateException("결제된 주문은 취소할 수 없습니다.");
+        if (orderStateMachine.transition(orderId, OrderStatus.CANCELLED)) {
+            return;
         }
-        order.updateStatus(OrderStatus.CANCELLED);
+        if (!orderRepository.existsById(orderId)) {
+            throw new OrderException(OrderExceptionType.ORDER_NOT_FOUND);
+        }
+        throw new IllegalStateException("결제된 주문은 취소할 수 없습니다.");
     }
 
     @Override
     @Transactional
     public void changeStatus(Long orderId, OrderStatus status) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderException(OrderExceptionType.ORDER_NOT_FOUND));
-        order.updateStatus(status);
+        orderStateMachine.transitionOrThrow(orderId, status);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void resendOrderCreatedEvent(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new OrderException(OrderExceptionType.ORDER_NOT_FOUND));
         OrderCreatedEvent event = OrderCreatedEvent.of(order, UUID.randomUUID().toString());
         orderEventProducer.send(event);
@@ -0,0 +1,70 @@
+package org.fortishop.orderpaymentservice.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.fortishop.orderpaymentservice.domain.OrderStatusChangedEvent;
+import org.fortishop.orderpaymentservice.exception.OrderException;
+import org.fortishop.orderpaymentservice.exception.OrderExceptionType;
+import org.fortishop.orderpaymentservice.respository.OrderRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 주문 상태 전이를 조건부 UPDATE 한 번으로 처리한다. 허용 여부 판단과 변경이 같은 문장에서 일어나므로 동시 전이 중 하나만 성공한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStateMachine {
+
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Transactional
+    public boolean transition(Long orderId, OrderStatus target) {
+        Set<OrderStatus> sources = target.allowedSources();
+        if (sources.isEmpty()) {
+            return false;
+        }
+        int updated = orderRepository.transition(orderId, sources, target, LocalDateTime.now());
+        if (updated == 0) {
+            log.debug("주문 상태 전이 미적용: orderId={}, target={}", orderId, target);
+            return false;
+        }
+        // 벌크 UPDATE 는 엔티티 리스너를 거치지 않으므로 직접 발행한다.
+        applicationEventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, target));
+        return true;
+    }
+
+    // 여러 주문을 UPDATE 한 번으로 전이하고 실제로 바뀐 행 수를 돌려준다.
+    @Transactional
+    public int transitionAll(Collection<Long> orderIds, OrderStatus target) {
+        Set<OrderStatus> sources = target.allowedSources();
+        if (sources.isEmpty() || orderIds.isEmpty()) {
+            return 0;
+        }
+        int updated = orderRepository.transitionAll(orderIds, sources, target, LocalDateTime.now());
+        if (updated > 0) {
+            // 어느 행이 바뀌었는지는 알 수 없으므로 대상 전체를 알린다. 수신 측은 캐시 무효화뿐이라 중복되어도 무해하다.
+            orderIds.forEach(orderId ->
+                    applicationEventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, target)));
+        }
+        return updated;
+    }
+
+    @Transactional
+    public void transitionOrThrow(Long orderId, OrderStatus target) {
+        if (transition(orderId, target)) {
+            return;
+        }
+        if (!orderRepository.existsById(orderId)) {
+            throw new OrderException(OrderExceptionType.ORDER_NOT_FOUND);
+        }
+        throw new OrderException(OrderExceptionType.INVALID_STATUS_TRANSITION);
+    }
+}
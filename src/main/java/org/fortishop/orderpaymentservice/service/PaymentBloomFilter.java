@@ -0,0 +1,184 @@
+package org.fortishop.orderpaymentservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.domain.PaymentStatusChangedEvent;
+import org.fortishop.orderpaymentservice.global.concurrent.LongBloomFilter;
+import org.fortishop.orderpaymentservice.respository.PaymentRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 결제 행이 있는 orderId 의 Bloom filter. 확실히 없다고 나온 주문은 결제 행 조회 없이 바로 INSERT 한다.
+ * 중복 여부는 여전히 uk_payments_order_id 가 판정하므로 필터가 틀리거나 비어 있어도 결과는 같다.
+ */
+@Component
+@Slf4j
+public class PaymentBloomFilter implements DisposableBean {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentBloomFilterProperties paymentBloomFilterProperties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // 시작 후 첫 재구성이 끝나기 전에는 null 이며, 이때는 모든 주문을 '있을 수 있음'으로 본다.
+    private volatile LongBloomFilter current;
+    // 재구성 중인 새 필터. 스트리밍하는 동안 기록된 결제도 놓치지 않도록 양쪽에 넣는다.
+    private volatile LongBloomFilter building;
+    private volatile long lastBuiltAt;
+
+    private final Counter definiteMisses;
+    private final Counter possibleHits;
+    private final Counter falsePositives;
+    private final AtomicLong rebuildMillis = new AtomicLong();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("payment-bloom-rebuild-", 0).factory());
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public PaymentBloomFilter(PaymentRepository paymentRepository,
+                              PaymentBloomFilterProperties paymentBloomFilterProperties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.paymentRepository = paymentRepository;
+        this.paymentBloomFilterProperties = paymentBloomFilterProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.definiteMisses = Counter.builder("payment.bloom.lookups").tag("result", "miss").register(meterRegistry);
+        this.possibleHits = Counter.builder("payment.bloom.lookups").tag("result", "hit").register(meterRegistry);
+        this.falsePositives = Counter.builder("payment.bloom.false.positives")
+                .description("필터가 있을 수 있다고 했지만 결제 행이 없던 조회 수")
+                .register(meterRegistry);
+        Gauge.builder("payment.bloom.false.positive.rate", this, PaymentBloomFilter::observedFpp)
+                .description("결제 행이 없던 조회 중 필터가 걸러내지 못한 비율")
+                .register(meterRegistry);
+        Gauge.builder("payment.bloom.expected.fpp", this, filter -> filter.current == null ? 1.0
+                        : filter.current.expectedFpp())
+                .description("켜진 비트 비율로 추정한 거짓 양성 비율")
+                .register(meterRegistry);
+        Gauge.builder("payment.bloom.memory", this, filter -> filter.current == null ? 0
+                        : filter.current.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("payment.bloom.rebuild.duration", rebuildMillis, millis -> millis.get() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // false 면 결제 행이 확실히 없다.
+    public boolean mightContain(Long orderId) {
+        LongBloomFilter filter = current;
+        if (!paymentBloomFilterProperties.isEnabled() || filter == null) {
+            return true;
+        }
+        if (filter.mightContain(orderId)) {
+            possibleHits.increment();
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    public void recordFalsePositive() {
+        if (current != null) {
+            falsePositives.increment();
+        }
+    }
+
+    // 롤백된 INSERT 도 넣게 되지만 거짓 양성이 하나 늘 뿐이다.
+    @EventListener
+    public void onPaymentWritten(PaymentStatusChangedEvent event) {
+        add(event.orderId());
+    }
+
+    public void add(Long orderId) {
+        if (orderId == null) {
+            return;
+        }
+        LongBloomFilter filter = current;
+        if (filter != null) {
+            filter.add(orderId);
+        }
+        LongBloomFilter next = building;
+        if (next != null) {
+            next.add(orderId);
+        }
+    }
+
+    // 시작 직후 한 번 채우고, 이후에는 주기가 되었거나 예상 수를 넘겼을 때 다시 만든다.
+    // 전체 orderId 스트리밍은 오래 걸리므로 공유 스케줄러 스레드가 아닌 전용 스레드에서 돌린다.
+    @Scheduled(initialDelay = 0, fixedDelayString = "#{@paymentBloomFilterProperties.checkInterval}")
+    public void rebuildIfNeeded() {
+        if (!paymentBloomFilterProperties.isEnabled()) {
+            return;
+        }
+        LongBloomFilter filter = current;
+        boolean due = System.currentTimeMillis() - lastBuiltAt
+                >= paymentBloomFilterProperties.getRebuildInterval().toMillis();
+        if ((filter == null || due || filter.approximateCount() > filter.expectedInsertions())
+                && rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long payments = paymentRepository.count();
+        long expected = Math.max(paymentBloomFilterProperties.getMinimumInsertions(),
+                (long) (payments * paymentBloomFilterProperties.getHeadroom()));
+        LongBloomFilter next = new LongBloomFilter(expected, paymentBloomFilterProperties.getFpp());
+        building = next;
+        try {
+            AtomicLong loaded = new AtomicLong();
+            readOnlyTransaction.execute(status -> {
+                try (Stream<Long> orderIds = paymentRepository.streamOrderIds()) {
+                    orderIds.forEach(orderId -> {
+                        next.add(orderId);
+                        loaded.incrementAndGet();
+                    });
+                }
+                return null;
+            });
+            current = next;
+            lastBuiltAt = System.currentTimeMillis();
+            rebuildMillis.set(lastBuiltAt - started);
+            log.info("결제 Bloom filter 재구성: payments={}, capacity={}, memory={}KB, elapsed={}ms", loaded.get(), expected,
+                    next.memoryBytes() / 1024, lastBuiltAt - started);
+        } catch (RuntimeException e) {
+            // 기존 필터를 그대로 쓴다. 한 번도 만들지 못했으면 모든 주문을 DB 로 확인한다.
+            log.error("결제 Bloom filter 재구성 실패", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        rebuilder.shutdown();
+        if (!rebuilder.awaitTermination(10, TimeUnit.SECONDS)) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    private double observedFpp() {
+        double negatives = definiteMisses.count() + falsePositives.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+}
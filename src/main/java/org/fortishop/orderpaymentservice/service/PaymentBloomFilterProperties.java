@@ -0,0 +1,22 @@
+package org.fortishop.orderpaymentservice.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "payment.bloom-filter")
+@Getter
+@Setter
+public class PaymentBloomFilterProperties {
+    private boolean enabled = true;
+    private double fpp = 0.01;
+    // 재구성 시 현재 결제 수의 몇 배를 담을 수 있게 잡을지. 최소 minimumInsertions 개.
+    private double headroom = 2.0;
+    private long minimumInsertions = 1_000_000L;
+    private long checkInterval = 60000L;
+    // 이 주기마다, 또는 담은 수가 예상치를 넘으면 payments.order_id 를 다시 읽어 새 필터로 바꾼다.
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
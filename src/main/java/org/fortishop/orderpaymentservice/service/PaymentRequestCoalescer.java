@@ -0,0 +1,37 @@
+package org.fortishop.orderpaymentservice.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.fortishop.orderpaymentservice.global.concurrent.SingleFlight;
+import org.springframework.stereotype.Component;
+
+/**
+ * 더블 클릭이나 프론트 재시도로 같은 주문의 결제 요청이 겹치면 트랜잭션을 하나만 열고 나머지는 그 결과를 공유한다.
+ * 결제 수단이 다른 요청은 같은 요청이 아니므로 합치지 않고 각자 실행해 결제 서비스의 상태 검사를 받게 한다.
+ */
+@Component
+public class PaymentRequestCoalescer {
+
+    private final PaymentService paymentService;
+    private final SingleFlight<PaymentKey, Boolean> payments = new SingleFlight<>();
+
+    public PaymentRequestCoalescer(PaymentService paymentService, MeterRegistry meterRegistry) {
+        this.paymentService = paymentService;
+        FunctionCounter.builder("payment.requests.coalesced", payments, SingleFlight::sharedCount)
+                .description("진행 중인 결제 결과를 공유받은 중복 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("payment.requests.inflight", payments, SingleFlight::inFlight)
+                .register(meterRegistry);
+    }
+
+    public void manualPayment(Long orderId, String method) {
+        payments.execute(new PaymentKey(orderId, method), () -> {
+            paymentService.manualPayment(orderId, method);
+            return Boolean.TRUE;
+        });
+    }
+
+    private record PaymentKey(Long orderId, String method) {
+    }
+}
@@ -0,0 +1,35 @@
+package org.fortishop.orderpaymentservice.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "payment.retry")
+@Getter
+@Setter
+public class PaymentRetryProperties {
+    private boolean enabled = true;
+    private long pollInterval = 1000L;
+    // 한 번에 가져오는 재시도 수와 동시에 PG 를 호출하는 재시도 수
+    private int batchSize = 200;
+    private int concurrency = 8;
+    // PG 승인 시도 횟수 상한(최초 결제 포함). 넘으면 주문을 실패 처리한다.
+    private int maxAttempts = 5;
+    private Duration initialDelay = Duration.ofSeconds(10);
+    private double multiplier = 2.0;
+    private Duration maxDelay = Duration.ofMinutes(10);
+    // 처리 중(REQUESTED)인 결제를 이 시간이 지나도록 끝내지 못하면 재시도 대상으로 본다.
+    private Duration leaseTimeout = Duration.ofSeconds(60);
+
+    // attempt 번째 실패 뒤의 대기 시간. 지수 증가 값의 절반 ~ 전체 사이에서 고른다.
+    public Duration backoff(int attempt) {
+        double exponential = initialDelay.toMillis() * Math.pow(multiplier, Math.max(0, attempt - 1));
+        long capped = (long) Math.min(exponential, maxDelay.toMillis());
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(capped - half + 1));
+    }
+}
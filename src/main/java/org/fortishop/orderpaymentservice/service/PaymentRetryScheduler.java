@@ -0,0 +1,155 @@
+package org.fortishop.orderpaymentservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.domain.PaymentStatus;
+import org.fortishop.orderpaymentservice.exception.PaymentException;
+import org.fortishop.orderpaymentservice.exception.PaymentExceptionType;
+import org.fortishop.orderpaymentservice.respository.PaymentRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 재시도 예정 시각(next_attempt_at)이 지난 결제를 배치로 선점해 제한된 동시성으로 다시 승인 요청한다.
+ */
+@Component
+@Slf4j
+public class PaymentRetryScheduler implements DisposableBean {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final PaymentRetryProperties paymentRetryProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor;
+    private final ExecutorService poller = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("payment-retry-poller-", 0).factory());
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong depth = new AtomicLong();
+
+    public PaymentRetryScheduler(PaymentRepository paymentRepository,
+                                 PaymentService paymentService,
+                                 PaymentRetryProperties paymentRetryProperties,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.paymentRetryProperties = paymentRetryProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.executor = Executors.newFixedThreadPool(paymentRetryProperties.getConcurrency(),
+                Thread.ofPlatform().name("payment-retry-", 0).factory());
+
+        Gauge.builder("payment.retry.queue.depth", depth, AtomicLong::get)
+                .description("재시도를 기다리는 결제 수")
+                .register(meterRegistry);
+    }
+
+    // 스케줄러 스레드는 다른 @Scheduled 작업과 함께 쓰는 단일 스레드다. PG 응답을 기다리는 배출은 전용 스레드에서 하고,
+    // 이전 배출이 아직 돌고 있으면 이번 주기는 건너뛴다.
+    @Scheduled(fixedDelayString = "#{@paymentRetryProperties.pollInterval}")
+    public void retryDuePayments() {
+        if (!paymentRetryProperties.isEnabled() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        poller.execute(() -> {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                log.error("결제 재시도 대기열 처리 오류", e);
+            } finally {
+                draining.set(false);
+            }
+        });
+    }
+
+    private void drain() {
+        int batchSize = paymentRetryProperties.getBatchSize();
+        List<Long> claimed;
+        do {
+            claimed = claimDue(batchSize);
+            List<CompletableFuture<Void>> attempts = new ArrayList<>(claimed.size());
+            for (Long paymentId : claimed) {
+                attempts.add(CompletableFuture.runAsync(() -> attempt(paymentId), executor));
+            }
+            CompletableFuture.allOf(attempts.toArray(CompletableFuture[]::new)).join();
+        } while (claimed.size() == batchSize);
+        depth.set(paymentRepository.countByPaymentStatusAndNextAttemptAtNotNull(PaymentStatus.FAILED));
+    }
+
+    // 예정 시각이 지난 FAILED 결제와 임대가 만료된 REQUESTED 결제를 REQUESTED 로 선점하고 임대를 새로 건다.
+    List<Long> claimDue(int batchSize) {
+        List<Long> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> due = new ArrayList<>(
+                    paymentRepository.findDueIds(PaymentStatus.FAILED.name(), now, batchSize));
+            if (due.size() < batchSize) {
+                due.addAll(paymentRepository.findDueIds(PaymentStatus.REQUESTED.name(), now,
+                        batchSize - due.size()));
+            }
+            if (!due.isEmpty()) {
+                paymentRepository.claim(due, PaymentStatus.REQUESTED,
+                        now.plus(paymentRetryProperties.getLeaseTimeout()));
+            }
+            return due;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private void attempt(Long paymentId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            outcome = paymentService.attemptRetry(paymentId) ? "approved" : "skipped";
+        } catch (PaymentException e) {
+            outcome = outcomeOf(e);
+        } catch (RuntimeException e) {
+            // 임대가 만료되면 다음 폴링에서 다시 가져간다.
+            log.error("결제 재시도 오류: paymentId={}", paymentId, e);
+            outcome = "error";
+        }
+        sample.stop(Timer.builder("payment.retry.attempts")
+                .description("결제 재시도 1건의 PG 승인 소요 시간")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private static String outcomeOf(PaymentException e) {
+        if (e.getExceptionType() == PaymentExceptionType.PAYMENT_DECLINED) {
+            return "declined";
+        }
+        if (e.getExceptionType() == PaymentExceptionType.PAYMENT_GATEWAY_UNAVAILABLE) {
+            return "unavailable";
+        }
+        if (e.getExceptionType() == PaymentExceptionType.PAYMENT_PENDING) {
+            return "error";
+        }
+        return "skipped";
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        poller.shutdown();
+        executor.shutdown();
+        if (!poller.awaitTermination(10, TimeUnit.SECONDS)) {
+            poller.shutdownNow();
+        }
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.fortishop.orderpaymentservice.dto.response.PaymentResponse;
 public interface PaymentService {
     void manualPayment(Long orderId, String method);
 
+    boolean attemptRetry(Long paymentId);
+
     PaymentResponse getPayment(Long paymentId);
 
     String getStatusByOrderId(Long orderId);
@@ -1,26 +1,40 @@
 package org.fortishop.orderpaymentservice.service;
 
-import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.domain.Money;
 import org.fortishop.orderpaymentservice.domain.Order;
 import org.fortishop.orderpaymentservice.domain.OrderStatus;
 import org.fortishop.orderpaymentservice.domain.Payment;
 import org.fortishop.orderpaymentservice.domain.PaymentStatus;
+import org.fortishop.orderpaymentservice.domain.PaymentStatusChangedEvent;
 import org.fortishop.orderpaymentservice.dto.event.DeliveryStartedEvent;
 import org.fortishop.orderpaymentservice.dto.event.OrderItemInfo;
 import org.fortishop.orderpaymentservice.dto.event.PaymentCompletedEvent;
 import org.fortishop.orderpaymentservice.dto.event.PaymentFailedEvent;
 import org.fortishop.orderpaymentservice.dto.event.PointChangedEvent;
 import org.fortishop.orderpaymentservice.dto.response.PaymentResponse;
+import org.fortishop.orderpaymentservice.exception.PaymentException;
+import org.fortishop.orderpaymentservice.exception.PaymentExceptionType;
 import org.fortishop.orderpaymentservice.kafka.PaymentEventProducer;
+import org.fortishop.orderpaymentservice.respository.OrderItemRepository;
 import org.fortishop.orderpaymentservice.respository.OrderRepository;
 import org.fortishop.orderpaymentservice.respository.PaymentRepository;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayClient;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayRequest;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayResult;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -28,78 +42,244 @@ import org.springframework.transaction.annotation.Transactional;
 public class PaymentServiceImpl implements PaymentService {
 
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final PaymentRepository paymentRepository;
     private final PaymentEventProducer paymentEventProducer;
+    private final OrderStateMachine orderStateMachine;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final PaymentRetryProperties paymentRetryProperties;
+    private final PaymentStatusCache paymentStatusCache;
+    private final PaymentBloomFilter paymentBloomFilter;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
+    // PG 호출은 트랜잭션 밖에서 한다. 승인을 기다리는 동안 DB 커넥션과 행 잠금을 잡고 있지 않는다.
     @Override
-    @Transactional
     public void manualPayment(Long orderId, String method) {
+        paymentEventProducer.ensureAccepting();
+        if (!paymentGatewayClient.supports(method)) {
+            throw new PaymentException(PaymentExceptionType.UNSUPPORTED_PAYMENT_METHOD);
+        }
+        authorize(reserve(orderId, method));
+    }
+
+    // 재시도 스케줄러가 선점(REQUESTED)한 결제를 다시 승인 요청한다. 시도하지 않았으면 false.
+    @Override
+    public boolean attemptRetry(Long paymentId) {
+        PendingPayment pending = transactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findById(paymentId).orElse(null);
+            if (payment == null || payment.getPaymentStatus() != PaymentStatus.REQUESTED) {
+                return null;
+            }
+            Order order = orderRepository.findById(payment.getOrderId()).orElse(null);
+            if (order == null || order.getStatus() != OrderStatus.ORDERED) {
+                // 기다리는 사이 주문이 취소되었거나 다른 경로로 결제되었다.
+                payment.updateStatus(PaymentStatus.FAILED);
+                return null;
+            }
+            // 스케줄러의 벌크 선점(FAILED -> REQUESTED)을 캐시에 반영한다.
+            applicationEventPublisher.publishEvent(
+                    new PaymentStatusChangedEvent(order.getId(), PaymentStatus.REQUESTED));
+            return PendingPayment.of(payment, order);
+        });
+        if (pending == null) {
+            return false;
+        }
+        authorize(pending);
+        return true;
+    }
+
+    private void authorize(PendingPayment pending) {
+        Long orderId = pending.orderId();
+        PaymentGatewayResult result;
+        try {
+            result = paymentGatewayClient.approve(new PaymentGatewayRequest(pending.paymentId(), orderId,
+                    pending.method(), pending.amount(), pending.traceId())).join();
+        } catch (CompletionException | CancellationException e) {
+            // 승인 여부를 모르는 일시 장애. 주문은 그대로 두고 재시도 대기열에 넣는다.
+            log.warn("PG 승인 실패: orderId={}, method={}, attempt={}, error={}", orderId, pending.method(),
+                    pending.retryCount() + 1, PaymentGatewayClient.unwrap(e).toString());
+            transactionTemplate.execute(status -> {
+                scheduleRetry(pending);
+                return null;
+            });
+            throw new PaymentException(PaymentExceptionType.PAYMENT_GATEWAY_UNAVAILABLE);
+        }
+
+        if (!result.approved()) {
+            transactionTemplate.execute(status -> {
+                fail(pending, "결제 거절: " + result.declineReason());
+                return null;
+            });
+            throw new PaymentException(PaymentExceptionType.PAYMENT_DECLINED);
+        }
+
+        Boolean completed;
+        try {
+            completed = transactionTemplate.execute(status -> complete(pending, result.transactionId()));
+        } catch (RuntimeException e) {
+            // 승인 반영 트랜잭션이 롤백되어 결제는 REQUESTED 로 남는다.
+            // 임대가 만료되면 재시도 스케줄러가 같은 결제 ID 로 다시 승인(멱등)받아 마무리한다.
+            log.error("결제 승인 반영 실패: orderId={}, transactionId={}", orderId, result.transactionId(), e);
+            throw new PaymentException(PaymentExceptionType.PAYMENT_PENDING);
+        }
+        if (!Boolean.TRUE.equals(completed)) {
+            // 승인을 기다리는 사이 주문이 취소되었다.
+            paymentGatewayClient.cancel(result.transactionId(), orderId);
+            throw new PaymentException(PaymentExceptionType.PAYMENT_NOT_ALLOWED);
+        }
+    }
+
+    private void scheduleRetry(PendingPayment pending) {
+        Payment payment = paymentRepository.findById(pending.paymentId()).orElse(null);
+        if (payment == null || payment.getPaymentStatus() != PaymentStatus.REQUESTED) {
+            return;
+        }
+        int attempts = payment.getRetryCount() + 1;
+        if (attempts >= paymentRetryProperties.getMaxAttempts()) {
+            fail(pending, "결제 재시도 소진");
+            return;
+        }
+        payment.scheduleRetry(LocalDateTime.now().plus(paymentRetryProperties.backoff(attempts)));
+    }
+
+    // 결제 행을 REQUESTED 로 선점한다. 중복 결제는 uk_payments_order_id 위반으로 판정한다.
+    // Bloom filter 가 확실히 없다고 하면 조회 없이 INSERT 하고, 있을 수 있으면 INSERT 가 실패하기 전에 먼저 확인한다.
+    private PendingPayment reserve(Long orderId, String method) {
+        boolean checkFirst = paymentBloomFilter.mightContain(orderId);
+        try {
+            return transactionTemplate.execute(status -> {
+                Order order = findPayableOrder(orderId);
+                if (checkFirst) {
+                    Optional<Payment> existing = paymentRepository.findByOrderId(orderId);
+                    if (existing.isPresent()) {
+                        if (existing.get().getPaymentStatus() != PaymentStatus.FAILED) {
+                            throw new PaymentException(PaymentExceptionType.ALREADY_PAID);
+                        }
+                        return reclaim(order, method);
+                    }
+                    paymentBloomFilter.recordFalsePositive();
+                }
+                Payment payment = paymentRepository.saveAndFlush(
+                        Payment.builder()
+                                .orderId(order.getId())
+                                .paidAmount(order.getTotalPrice())
+                                .method(method)
+                                .paymentStatus(PaymentStatus.REQUESTED)
+                                .nextAttemptAt(leaseUntil())
+                                .build()
+                );
+                return PendingPayment.of(payment, order);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 이미 결제 행이 있다(필터가 놓쳤거나 동시에 INSERT 했다).
+            return transactionTemplate.execute(status -> reclaim(findPayableOrder(orderId), method));
+        }
+    }
+
+    // PG 일시 장애로 실패했던 결제라면 그 행으로 다시 시도한다.
+    private PendingPayment reclaim(Order order, String method) {
+        Long orderId = order.getId();
+        if (paymentRepository.reclaim(orderId, method, PaymentStatus.FAILED, PaymentStatus.REQUESTED,
+                leaseUntil()) == 0) {
+            throw new PaymentException(PaymentExceptionType.ALREADY_PAID);
+        }
+        Payment payment = paymentRepository.findByOrderId(orderId)
+                .orElseThrow(() -> new PaymentException(PaymentExceptionType.ALREADY_PAID));
+        // 벌크 UPDATE 는 엔티티 리스너를 거치지 않는다.
+        applicationEventPublisher.publishEvent(new PaymentStatusChangedEvent(orderId, PaymentStatus.REQUESTED));
+        return PendingPayment.of(payment, order);
+    }
+
+    // 이 시각까지 끝나지 않은 REQUESTED 결제는 인스턴스가 죽은 것으로 보고 재시도 스케줄러가 가져간다.
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plus(paymentRetryProperties.getLeaseTimeout());
+    }
+
+    private Order findPayableOrder(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("주문 없음"));
 
         if (order.getStatus() == OrderStatus.PAID) {
-            throw new IllegalStateException("이미 결제 완료된 주문입니다.");
+            throw new PaymentException(PaymentExceptionType.ALREADY_PAID);
         }
 
         if (order.getStatus() == OrderStatus.CANCELLED || order.getStatus() == OrderStatus.FAILED) {
-            throw new IllegalStateException("결제가 불가능한 주문 상태입니다: " + order.getStatus());
+            throw new PaymentException(PaymentExceptionType.PAYMENT_NOT_ALLOWED);
+        }
+        return order;
+    }
+
+    private boolean complete(PendingPayment pending, String transactionId) {
+        Long orderId = pending.orderId();
+        Payment payment = paymentRepository.findById(pending.paymentId())
+                .orElseThrow(() -> new IllegalArgumentException("결제 정보가 존재하지 않습니다."));
+        if (payment.getPaymentStatus() == PaymentStatus.SUCCESS) {
+            // 임대가 만료되어 다른 시도가 같은 승인(결제 ID 기준 멱등)을 먼저 반영했다.
+            return true;
         }
 
-        if (paymentRepository.findByOrderId(orderId).isPresent()) {
-            throw new IllegalStateException("이미 결제 요청이 처리된 주문입니다.");
+        // 조회 이후 다른 요청이 상태를 바꿨다면 여기서 걸러진다.
+        if (!orderStateMachine.transition(orderId, OrderStatus.PAID)) {
+            payment.updateStatus(PaymentStatus.FAILED);
+            return false;
         }
+        payment.approve(transactionId);
 
-        String traceId = order.getTraceId();
+        // 이벤트 기록이 실패하면 트랜잭션 전체가 롤백된다. 승인된 결제를 주문 실패로 덮지 않는다.
+        String traceId = pending.traceId();
+        paymentEventProducer.sendPaymentCompleted(PaymentCompletedEvent.of(payment, traceId));
 
-        try {
-            Payment payment = paymentRepository.save(
-                    Payment.builder()
-                            .orderId(order.getId())
-                            .paidAmount(order.getTotalPrice())
-                            .method(method)
-                            .paymentStatus(PaymentStatus.SUCCESS)
-                            .build()
-            );
-
-            order.updateStatus(OrderStatus.PAID);
-
-            paymentEventProducer.sendPaymentCompleted(PaymentCompletedEvent.of(payment, traceId));
-
-            paymentEventProducer.sendPointChanged(PointChangedEvent.builder()
-                    .memberId(order.getMemberId())
-                    .orderId(order.getId())
-                    .changeType("SAVE")
-                    .amount(order.getTotalPrice().multiply(new BigDecimal("0.1")))
-                    .reason("주문 적립금 지급")
-                    .timestamp(LocalDateTime.now().toString())
-                    .traceId(traceId)
-                    .build());
-
-            paymentEventProducer.sendDeliveryStarted(DeliveryStartedEvent.builder()
-                    .orderId(order.getId())
-                    .deliveryId(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE)
-                    .trackingNumber(UUID.randomUUID().toString().substring(0, 12))
-                    .company("임시")
-                    .startedAt(LocalDateTime.now().toString())
-                    .traceId(traceId)
-                    .build());
-
-        } catch (Exception e) {
-            log.error("결제 실패", e);
-            order.updateStatus(OrderStatus.FAILED);
-            List<OrderItemInfo> itemInfos = order.getOrderItems().stream()
-                    .map(OrderItemInfo::of)
-                    .toList();
-            paymentEventProducer.sendPaymentFailed(PaymentFailedEvent.builder()
-                    .orderId(order.getId())
-                    .reason("결제 시스템 오류")
-                    .items(itemInfos)
-                    .timestamp(LocalDateTime.now().toString())
-                    .traceId(traceId)
-                    .build());
+        paymentEventProducer.sendPointChanged(PointChangedEvent.builder()
+                .memberId(pending.memberId())
+                .orderId(orderId)
+                .changeType("SAVE")
+                .amount(pointAccrual(pending.amount()))
+                .reason("주문 적립금 지급")
+                .timestamp(LocalDateTime.now().toString())
+                .traceId(traceId)
+                .build());
+
+        paymentEventProducer.sendDeliveryStarted(DeliveryStartedEvent.builder()
+                .orderId(orderId)
+                .deliveryId(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE)
+                .trackingNumber(UUID.randomUUID().toString().substring(0, 12))
+                .company("임시")
+                .startedAt(LocalDateTime.now().toString())
+                .traceId(traceId)
+                .build());
+        return true;
+    }
+
+    // 적립금은 결제 금액의 10%. 최소 단위(0.01) 미만은 버린다.
+    static Money pointAccrual(Money paidAmount) {
+        return paidAmount.multiply(1, 10, RoundingMode.DOWN);
+    }
+
+    // PG 가 승인을 거절했거나 재시도를 모두 소진했다. 주문을 실패로 돌리고 재고를 풀도록 알린다.
+    private void fail(PendingPayment pending, String reason) {
+        log.warn("결제 실패 확정: orderId={}, reason={}", pending.orderId(), reason);
+        paymentRepository.findById(pending.paymentId())
+                .ifPresent(payment -> payment.updateStatus(PaymentStatus.FAILED));
+        if (orderStateMachine.transition(pending.orderId(), OrderStatus.FAILED)) {
+            sendPaymentFailed(pending.orderId(), reason, pending.traceId());
         }
     }
 
+    private void sendPaymentFailed(Long orderId, String reason, String traceId) {
+        // 주문은 다시 읽지 않고 품목만 조회한다.
+        List<OrderItemInfo> itemInfos = orderItemRepository.findByOrderId(orderId).stream()
+                .map(OrderItemInfo::of)
+                .toList();
+        paymentEventProducer.sendPaymentFailed(PaymentFailedEvent.builder()
+                .orderId(orderId)
+                .reason(reason)
+                .items(itemInfos)
+                .timestamp(LocalDateTime.now().toString())
+                .traceId(traceId)
+                .build());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PaymentResponse getPayment(Long paymentId) {
@@ -108,12 +288,12 @@ public class PaymentServiceImpl implements PaymentService {
         return PaymentResponse.of(payment);
     }
 
+    // 결제 화면이 계속 폴링하는 조회. 캐시 적중 시 트랜잭션도 열지 않는다.
     @Override
-    @Transactional(readOnly = true)
     public String getStatusByOrderId(Long orderId) {
-        return paymentRepository.findByOrderId(orderId)
+        return paymentStatusCache.get(orderId, id -> paymentRepository.findByOrderId(id)
                 .map(p -> p.getPaymentStatus().name())
-                .orElse("NOT_REQUESTED");
+                .orElse(PaymentStatusCache.NOT_REQUESTED));
     }
 
     @Override
@@ -128,6 +308,7 @@ public class PaymentServiceImpl implements PaymentService {
         payment.updateStatus(PaymentStatus.FAILED);
     }
 
+    // PG 승인 없이 성공으로 바꾸지 않는다. 재시도 대기열에 바로 넣어 스케줄러가 authorize 를 거쳐 마무리하게 한다.
     @Override
     @Transactional
     public void retryPayment(Long paymentId) {
@@ -137,6 +318,18 @@ public class PaymentServiceImpl implements PaymentService {
         if (payment.getPaymentStatus() == PaymentStatus.SUCCESS) {
             throw new IllegalStateException("이미 성공한 결제입니다.");
         }
-        payment.updateStatus(PaymentStatus.SUCCESS);
+        if (payment.getPaymentStatus() == PaymentStatus.REQUESTED) {
+            throw new IllegalStateException("이미 처리 중인 결제입니다.");
+        }
+        payment.requeue(LocalDateTime.now());
+    }
+
+    // 트랜잭션 사이에 넘기는 결제 시도 정보. 엔티티를 트랜잭션 밖으로 들고 나가지 않는다.
+    private record PendingPayment(Long paymentId, Long orderId, Long memberId, String method, int retryCount,
+                                  Money amount, String traceId) {
+        static PendingPayment of(Payment payment, Order order) {
+            return new PendingPayment(payment.getId(), order.getId(), order.getMemberId(), payment.getMethod(),
+                    payment.getRetryCount(), order.getTotalPrice(), order.getTraceId());
+        }
     }
 }
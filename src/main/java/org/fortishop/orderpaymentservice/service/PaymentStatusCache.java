@@ -0,0 +1,102 @@
+package org.fortishop.orderpaymentservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.fortishop.orderpaymentservice.domain.PaymentStatus;
+import org.fortishop.orderpaymentservice.domain.PaymentStatusChangedEvent;
+import org.fortishop.orderpaymentservice.global.concurrent.LongByteCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 주문별 결제 상태의 near-cache. 결제 상태가 바뀌면 커밋 직후 write-through 로 갱신되고, 미적중일 때만 DB 를 읽는다.
+ */
+@Component
+public class PaymentStatusCache {
+
+    public static final String NOT_REQUESTED = "NOT_REQUESTED";
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final byte NOT_REQUESTED_CODE = (byte) STATUSES.length;
+
+    private final boolean enabled;
+    private final LongByteCache statuses;
+    private final Counter hits;
+    private final Counter misses;
+    // write-through 횟수. 적재 도중 값이 바뀌었으면 읽어 온 값을 캐시에 넣지 않는다.
+    private final AtomicLong writes = new AtomicLong();
+
+    public PaymentStatusCache(PaymentStatusCacheProperties paymentStatusCacheProperties, MeterRegistry meterRegistry) {
+        this.enabled = paymentStatusCacheProperties.isEnabled();
+        this.statuses = new LongByteCache(paymentStatusCacheProperties.getMaximumSize(),
+                paymentStatusCacheProperties.getTtl());
+        this.hits = Counter.builder("payment.status.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("payment.status.cache.requests").tag("result", "miss").register(meterRegistry);
+
+        Gauge.builder("payment.status.cache.hit.ratio", this, PaymentStatusCache::hitRatio)
+                .description("결제 상태 조회 중 캐시 적중 비율")
+                .register(meterRegistry);
+        Gauge.builder("payment.status.cache.size", statuses, LongByteCache::size)
+                .description("캐시된 주문 수")
+                .register(meterRegistry);
+        Gauge.builder("payment.status.cache.memory", statuses, LongByteCache::memoryBytes)
+                .description("결제 상태 캐시 테이블이 차지하는 메모리")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("payment.status.cache.memory.per.million", statuses,
+                        cache -> (double) cache.memoryBytes() / cache.capacity() * 1_000_000)
+                .description("항목 100만 개당 메모리")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public String get(Long orderId, Function<Long, String> loader) {
+        if (!enabled) {
+            return loader.apply(orderId);
+        }
+        int code = statuses.get(orderId);
+        if (code != LongByteCache.MISSING) {
+            hits.increment();
+            return decode(code);
+        }
+        misses.increment();
+        long before = writes.get();
+        String status = loader.apply(orderId);
+        synchronized (statuses) {
+            if (writes.get() == before) {
+                statuses.put(orderId, encode(status));
+            }
+        }
+        return status;
+    }
+
+    public void put(Long orderId, PaymentStatus status) {
+        if (!enabled || orderId == null) {
+            return;
+        }
+        synchronized (statuses) {
+            writes.incrementAndGet();
+            statuses.put(orderId, (byte) status.ordinal());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(PaymentStatusChangedEvent event) {
+        put(event.orderId(), event.status());
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static byte encode(String status) {
+        return NOT_REQUESTED.equals(status) ? NOT_REQUESTED_CODE : (byte) PaymentStatus.valueOf(status).ordinal();
+    }
+
+    private static String decode(int code) {
+        return code == NOT_REQUESTED_CODE ? NOT_REQUESTED : STATUSES[code].name();
+    }
+}
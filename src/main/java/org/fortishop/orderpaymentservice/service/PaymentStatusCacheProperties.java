@@ -0,0 +1,18 @@
+package org.fortishop.orderpaymentservice.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "payment.status-cache")
+@Getter
+@Setter
+public class PaymentStatusCacheProperties {
+    private boolean enabled = true;
+    private int maximumSize = 200_000;
+    // 다른 인스턴스에서 바뀐 상태를 이 인스턴스가 늦게 보는 최대 시간
+    private Duration ttl = Duration.ofSeconds(5);
+}
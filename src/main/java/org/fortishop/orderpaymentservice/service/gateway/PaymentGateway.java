@@ -0,0 +1,15 @@
+package org.fortishop.orderpaymentservice.service.gateway;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 결제 대행사(PG) 연동 SPI. 구현체는 호출 스레드를 막지 않고 future 로 결과를 돌려준다.
+ * 승인 거절은 정상 완료(declined)로, 통신 오류나 장애는 예외 완료로 알린다.
+ * 결과를 모르는 채 재시도할 수 있으므로 approve 는 paymentId 기준으로 멱등해야 한다.
+ */
+public interface PaymentGateway {
+
+    CompletableFuture<PaymentGatewayResult> approve(PaymentGatewayRequest request);
+
+    CompletableFuture<Void> cancel(String transactionId);
+}
@@ -0,0 +1,153 @@
+package org.fortishop.orderpaymentservice.service.gateway;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.fortishop.orderpaymentservice.exception.PaymentException;
+import org.fortishop.orderpaymentservice.exception.PaymentExceptionType;
+import org.springframework.stereotype.Component;
+
+/**
+ * 결제 수단별로 PG 호출을 격리한다. 수단마다 동시 호출 수(bulkhead), 타임아웃, 서킷 브레이커를 따로 두어
+ * 한 수단의 PG 가 느려져도 다른 수단의 결제와 요청 스레드가 함께 묶이지 않게 한다.
+ */
+@Component
+@Slf4j
+public class PaymentGatewayClient {
+
+    private final PaymentGateway paymentGateway;
+    private final PaymentGatewayProperties paymentGatewayProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Guard> guards = new HashMap<>();
+
+    public PaymentGatewayClient(PaymentGateway paymentGateway,
+                                PaymentGatewayProperties paymentGatewayProperties,
+                                MeterRegistry meterRegistry) {
+        this.paymentGateway = paymentGateway;
+        this.paymentGatewayProperties = paymentGatewayProperties;
+        this.meterRegistry = meterRegistry;
+
+        BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+        paymentGatewayProperties.getMethods().forEach((method, config) -> {
+            Bulkhead bulkhead = bulkheads.bulkhead("pg-" + method, BulkheadConfig.custom()
+                    .maxConcurrentCalls(config.getMaxConcurrentCalls())
+                    .maxWaitDuration(Duration.ZERO)
+                    .build());
+            CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker("pg-" + method,
+                    CircuitBreakerConfig.custom()
+                            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                            .slidingWindowSize(config.getSlidingWindowSize())
+                            .minimumNumberOfCalls(config.getMinimumNumberOfCalls())
+                            .failureRateThreshold(config.getFailureRateThreshold())
+                            .waitDurationInOpenState(config.getOpenDuration())
+                            .permittedNumberOfCallsInHalfOpenState(config.getHalfOpenCalls())
+                            .build());
+            circuitBreaker.getEventPublisher().onStateTransition(event ->
+                    log.warn("PG 서킷 상태 변경: method={}, {}", method, event.getStateTransition()));
+            guards.put(method, new Guard(bulkhead, circuitBreaker, config.getTimeout()));
+        });
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+    }
+
+    public boolean supports(String method) {
+        return guards.containsKey(method);
+    }
+
+    // 서킷이 열려 있거나 동시 호출 수가 찼으면 PG 를 부르지 않고 PAYMENT_GATEWAY_UNAVAILABLE 로 바로 실패한다.
+    public CompletableFuture<PaymentGatewayResult> approve(PaymentGatewayRequest request) {
+        Guard guard = guards.get(request.method());
+        if (guard == null) {
+            return CompletableFuture.failedFuture(
+                    new PaymentException(PaymentExceptionType.UNSUPPORTED_PAYMENT_METHOD));
+        }
+        if (!guard.circuitBreaker().tryAcquirePermission()) {
+            record(request.method(), "circuit_open", 0L);
+            return unavailable();
+        }
+        if (!guard.bulkhead().tryAcquirePermission()) {
+            guard.circuitBreaker().releasePermission();
+            record(request.method(), "bulkhead_full", 0L);
+            return unavailable();
+        }
+
+        long started = System.nanoTime();
+        CompletableFuture<PaymentGatewayResult> call;
+        try {
+            call = paymentGateway.approve(request);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.orTimeout(guard.timeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    long elapsed = System.nanoTime() - started;
+                    guard.bulkhead().onComplete();
+                    if (error == null) {
+                        // 승인 거절은 PG 가 정상 응답한 것이므로 서킷 실패로 세지 않는다.
+                        guard.circuitBreaker().onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                        record(request.method(), result.approved() ? "approved" : "declined", elapsed);
+                        return;
+                    }
+                    Throwable cause = unwrap(error);
+                    guard.circuitBreaker().onError(elapsed, TimeUnit.NANOSECONDS, cause);
+                    record(request.method(), cause instanceof TimeoutException ? "timeout" : "error", elapsed);
+                });
+    }
+
+    // 승인 후 주문을 확정하지 못했을 때의 보상 취소. 실패하면 로그로 남겨 수동 처리한다.
+    public void cancel(String transactionId, Long orderId) {
+        CompletableFuture<Void> call;
+        try {
+            call = paymentGateway.cancel(transactionId);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.orTimeout(paymentGatewayProperties.getCancelTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.error("PG 승인 취소 실패, 수동 확인 필요: orderId={}, transactionId={}, error={}", orderId,
+                                transactionId, unwrap(error).toString());
+                    } else {
+                        log.info("PG 승인 취소 완료: orderId={}, transactionId={}", orderId, transactionId);
+                    }
+                });
+    }
+
+    private CompletableFuture<PaymentGatewayResult> unavailable() {
+        return CompletableFuture.failedFuture(
+                new PaymentException(PaymentExceptionType.PAYMENT_GATEWAY_UNAVAILABLE));
+    }
+
+    private void record(String method, String outcome, long elapsedNanos) {
+        Timer.builder("payment.gateway.calls")
+                .description("결제 수단별 PG 승인 호출 결과와 소요 시간")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private record Guard(Bulkhead bulkhead, CircuitBreaker circuitBreaker, Duration timeout) {
+    }
+}
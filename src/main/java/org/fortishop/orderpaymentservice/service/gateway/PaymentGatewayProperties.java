@@ -0,0 +1,52 @@
+package org.fortishop.orderpaymentservice.service.gateway;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "payment.gateway")
+@Getter
+@Setter
+public class PaymentGatewayProperties {
+    // 결제 수단별 격리 설정. 여기 없는 결제 수단은 거절한다.
+    private Map<String, Method> methods = new LinkedHashMap<>(Map.of("CARD", new Method(), "CASH", new Method()));
+    private Duration cancelTimeout = Duration.ofSeconds(5);
+    private Simulator simulator = new Simulator();
+
+    @Getter
+    @Setter
+    public static class Method {
+        // 동시에 PG 응답을 기다리는 호출 수 상한. 넘치면 기다리지 않고 바로 거절한다.
+        private int maxConcurrentCalls = 50;
+        private Duration timeout = Duration.ofSeconds(3);
+        private float failureRateThreshold = 50f;
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 5;
+    }
+
+    // 내장 PG 시뮬레이터. 실제 PG 없이 지연과 실패율을 바꿔 가며 부하 테스트할 때 쓴다.
+    @Getter
+    @Setter
+    public static class Simulator {
+        private Distribution distribution = Distribution.LOG_NORMAL;
+        // FIXED 는 이 값 그대로, UNIFORM 은 0 ~ 2배, LOG_NORMAL 은 이 값을 중앙값으로 쓴다.
+        private Duration latency = Duration.ofMillis(150);
+        private double sigma = 0.5;
+        private Duration maxLatency = Duration.ofSeconds(10);
+        private double declineRate = 0.02;
+        private double errorRate = 0.01;
+        // 응답하지 않는 호출 비율. 타임아웃 동작을 확인할 때 쓴다.
+        private double hangRate = 0.0;
+    }
+
+    public enum Distribution {
+        FIXED, UNIFORM, LOG_NORMAL
+    }
+}
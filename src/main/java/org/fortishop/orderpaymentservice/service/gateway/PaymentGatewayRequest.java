@@ -0,0 +1,12 @@
+package org.fortishop.orderpaymentservice.service.gateway;
+
+import org.fortishop.orderpaymentservice.domain.Money;
+
+public record PaymentGatewayRequest(
+        Long paymentId,
+        Long orderId,
+        String method,
+        Money amount,
+        String traceId
+) {
+}
@@ -0,0 +1,15 @@
+package org.fortishop.orderpaymentservice.service.gateway;
+
+public record PaymentGatewayResult(
+        boolean approved,
+        String transactionId,
+        String declineReason
+) {
+    public static PaymentGatewayResult approved(String transactionId) {
+        return new PaymentGatewayResult(true, transactionId, null);
+    }
+
+    public static PaymentGatewayResult declined(String reason) {
+        return new PaymentGatewayResult(false, null, reason);
+    }
+}
@@ -0,0 +1,81 @@
+package org.fortishop.orderpaymentservice.service.gateway;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 프로세스 안에서 PG 응답을 흉내 낸다. 응답은 스케줄러가 지연 후 완료시키므로 대기 중인 호출이 스레드를 점유하지 않는다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.gateway", name = "provider", havingValue = "simulator", matchIfMissing = true)
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway, DisposableBean {
+
+    private final PaymentGatewayProperties.Simulator simulator;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pg-simulator").daemon().factory());
+
+    public SimulatedPaymentGateway(PaymentGatewayProperties paymentGatewayProperties) {
+        this.simulator = paymentGatewayProperties.getSimulator();
+        log.info("PG 시뮬레이터 사용: distribution={}, latency={}", simulator.getDistribution(), simulator.getLatency());
+    }
+
+    @Override
+    public CompletableFuture<PaymentGatewayResult> approve(PaymentGatewayRequest request) {
+        CompletableFuture<PaymentGatewayResult> future = new CompletableFuture<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < simulator.getHangRate()) {
+            return future;
+        }
+        roll -= simulator.getHangRate();
+        Outcome outcome = roll < simulator.getErrorRate() ? Outcome.ERROR
+                : roll < simulator.getErrorRate() + simulator.getDeclineRate() ? Outcome.DECLINED
+                : Outcome.APPROVED;
+
+        scheduler.schedule(() -> {
+            switch (outcome) {
+                case ERROR -> future.completeExceptionally(new IllegalStateException("PG 시뮬레이터 오류 응답"));
+                case DECLINED -> future.complete(PaymentGatewayResult.declined("한도 초과"));
+                case APPROVED -> future.complete(PaymentGatewayResult.approved("SIM-" + UUID.randomUUID()));
+            }
+        }, sampleLatencyMicros(random), TimeUnit.MICROSECONDS);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> cancel(String transactionId) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        scheduler.schedule(() -> future.complete(null), sampleLatencyMicros(ThreadLocalRandom.current()),
+                TimeUnit.MICROSECONDS);
+        return future;
+    }
+
+    long sampleLatencyMicros(ThreadLocalRandom random) {
+        double base = simulator.getLatency().toNanos() / 1000.0;
+        double sampled = switch (simulator.getDistribution()) {
+            case FIXED -> base;
+            case UNIFORM -> random.nextDouble(0, 2 * base);
+            // 중앙값 base, 꼬리 두께 sigma 의 로그정규분포
+            case LOG_NORMAL -> base * Math.exp(simulator.getSigma() * random.nextGaussian());
+        };
+        return (long) Math.min(sampled, simulator.getMaxLatency().toNanos() / 1000.0);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private enum Outcome {
+        APPROVED, DECLINED, ERROR
+    }
+}
@@ -6,7 +6,6 @@ import static org.awaitility.Awaitility.await;
 import com.github.dockerjava.api.model.ExposedPort;
 import com.github.dockerjava.api.model.PortBinding;
 import com.github.dockerjava.api.model.Ports;
-import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +24,7 @@ import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.fortishop.orderpaymentservice.domain.Money;
 import org.fortishop.orderpaymentservice.domain.Order;
 import org.fortishop.orderpaymentservice.domain.OrderStatus;
 import org.fortishop.orderpaymentservice.domain.Payment;
@@ -198,8 +198,8 @@ public class OrderPaymentServiceIntegrationTest {
         // given
         OrderRequest request = new OrderRequest(
                 1L,
-                List.of(new OrderItemRequest(10L, 2, BigDecimal.valueOf(10000))),
-                BigDecimal.valueOf(20000), "서울특별시"
+                List.of(new OrderItemRequest(10L, 2, Money.of(10000))),
+                Money.of(20000), "서울특별시"
         );
 
         HttpHeaders headers = new HttpHeaders();
@@ -222,7 +222,7 @@ public class OrderPaymentServiceIntegrationTest {
         Optional<Order> saved = orderRepository.findById(orderId);
         assertThat(saved).isPresent();
         assertThat(saved.get().getMemberId()).isEqualTo(1L);
-        assertThat(saved.get().getTotalPrice()).isEqualByComparingTo(BigDecimal.valueOf(20000));
+        assertThat(saved.get().getTotalPrice()).isEqualTo(Money.of(20000));
     }
 
     @Test
@@ -231,7 +231,7 @@ public class OrderPaymentServiceIntegrationTest {
         // given
         Order order = orderRepository.save(Order.builder()
                 .memberId(2L)
-                .totalPrice(BigDecimal.valueOf(15000))
+                .totalPrice(Money.of(15000))
                 .status(OrderStatus.ORDERED)
                 .createdAt(LocalDateTime.now())
                 .build());
@@ -255,8 +255,8 @@ public class OrderPaymentServiceIntegrationTest {
         // given
         OrderRequest request = new OrderRequest(
                 3L,
-                List.of(new OrderItemRequest(10L, 1, BigDecimal.valueOf(5000))),
-                BigDecimal.valueOf(5000), "서울특별시"
+                List.of(new OrderItemRequest(10L, 1, Money.of(5000))),
+                Money.of(5000), "서울특별시"
         );
 
         HttpEntity<OrderRequest> entity = new HttpEntity<>(request);
@@ -284,12 +284,12 @@ public class OrderPaymentServiceIntegrationTest {
     void createOrder_and_verifyKafka_and_fetchOrder() {
         // given
         long memberId = 1L;
-        BigDecimal price = BigDecimal.valueOf(15000);
+        Money price = Money.of(15000);
         List<OrderItemRequest> items = List.of(
                 new OrderItemRequest(10L, 2, price)
         );
         String address = "서울특별시";
-        OrderRequest request = new OrderRequest(memberId, items, price.multiply(BigDecimal.valueOf(2)), address);
+        OrderRequest request = new OrderRequest(memberId, items, price.times(2), address);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -337,8 +337,8 @@ public class OrderPaymentServiceIntegrationTest {
         // given: 주문 생성
         OrderRequest request = new OrderRequest(
                 1L,
-                List.of(new OrderItemRequest(10L, 1, BigDecimal.valueOf(5000))),
-                BigDecimal.valueOf(5000), "서울특별시"
+                List.of(new OrderItemRequest(10L, 1, Money.of(5000))),
+                Money.of(5000), "서울특별시"
         );
 
         HttpHeaders headers = new HttpHeaders();
@@ -387,8 +387,8 @@ public class OrderPaymentServiceIntegrationTest {
         // given: 주문 생성
         OrderRequest request = new OrderRequest(
                 1L,
-                List.of(new OrderItemRequest(10L, 1, BigDecimal.valueOf(5000))),
-                BigDecimal.valueOf(5000), "서울특별시"
+                List.of(new OrderItemRequest(10L, 1, Money.of(5000))),
+                Money.of(5000), "서울특별시"
         );
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -440,8 +440,8 @@ public class OrderPaymentServiceIntegrationTest {
         // given: 주문 생성
         OrderRequest orderRequest = new OrderRequest(
                 1L,
-                List.of(new OrderItemRequest(100L, 1, BigDecimal.valueOf(5000))),
-                BigDecimal.valueOf(5000), "서울특별시"
+                List.of(new OrderItemRequest(100L, 1, Money.of(5000))),
+                Money.of(5000), "서울특별시"
         );
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -542,8 +542,8 @@ public class OrderPaymentServiceIntegrationTest {
     }
 
     @Test
-    @DisplayName("실패한 결제를 재시도하면 상태가 SUCCESS로 변경된다")
-    void retryPayment_success() {
+    @DisplayName("실패한 결제를 재시도하면 재시도 대기열에 바로 들어간다")
+    void retryPayment_requeues() {
         Long orderId = createOrderAndPay();
         Long paymentId = paymentRepository.findByOrderId(orderId).orElseThrow().getId();
 
@@ -558,8 +558,10 @@ public class OrderPaymentServiceIntegrationTest {
 
         assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
 
+        // 테스트 프로파일은 재시도 스케줄러가 꺼져 있어 대기열에 머문다.
         Payment payment = paymentRepository.findById(paymentId).orElseThrow();
-        assertThat(payment.getPaymentStatus().name()).isEqualTo("SUCCESS");
+        assertThat(payment.getPaymentStatus().name()).isEqualTo("FAILED");
+        assertThat(payment.getNextAttemptAt()).isNotNull();
     }
 
     @Test
@@ -580,8 +582,8 @@ public class OrderPaymentServiceIntegrationTest {
     private Long createOrderAndPay() {
         OrderRequest orderRequest = new OrderRequest(
                 1L,
-                List.of(new OrderItemRequest(100L, 1, BigDecimal.valueOf(5000))),
-                BigDecimal.valueOf(5000), "서울특별시"
+                List.of(new OrderItemRequest(100L, 1, Money.of(5000))),
+                Money.of(5000), "서울특별시"
         );
         HttpEntity<OrderRequest> orderEntity = new HttpEntity<>(orderRequest);
         ResponseEntity<Long> res = restTemplate.exchange(
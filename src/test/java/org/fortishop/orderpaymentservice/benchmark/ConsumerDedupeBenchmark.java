@@ -0,0 +1,62 @@
+package org.fortishop.orderpaymentservice.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fortishop.orderpaymentservice.kafka.IdempotentConsumer;
+import org.fortishop.orderpaymentservice.kafka.config.ConsumerDedupeProperties;
+import org.fortishop.orderpaymentservice.respository.ProcessedEventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 레코드 한 건당 중복 제거 계층이 더하는 CPU 비용을 메모리 창 적중/미적중으로 나눠 측정한다. DB 왕복은 제외한다.
+ * {@code ./gradlew benchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+class ConsumerDedupeBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int MEASURED = 1_000_000;
+
+    @Test
+    @DisplayName("레코드당 중복 제거 오버헤드를 측정한다")
+    void overheadPerRecord() {
+        ProcessedEventRepository repository = mock(ProcessedEventRepository.class);
+        when(repository.markProcessed(anyLong(), any())).thenReturn(1);
+        ConsumerDedupeProperties properties = new ConsumerDedupeProperties();
+        IdempotentConsumer idempotentConsumer = new IdempotentConsumer(repository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties, new SimpleMeterRegistry());
+        Runnable work = () -> {
+        };
+
+        run(idempotentConsumer, 0, WARMUP, work);
+        double miss = run(idempotentConsumer, WARMUP, MEASURED, work);
+        // 방금 넣은 창 크기만큼의 키를 다시 보내 모두 창에서 걸러지게 한다.
+        int recent = WARMUP + MEASURED - properties.getWindowSize();
+        double hit = 0;
+        for (int round = 0; round < MEASURED / properties.getWindowSize(); round++) {
+            hit += run(idempotentConsumer, recent, properties.getWindowSize(), work);
+        }
+        hit /= MEASURED / properties.getWindowSize();
+
+        System.out.printf("[consumer dedupe] window=%d, miss=%.0f ns/record, window hit=%.0f ns/record%n",
+                properties.getWindowSize(), miss, hit);
+        assertThat(hit).isLessThan(miss);
+    }
+
+    private double run(IdempotentConsumer idempotentConsumer, int from, int count, Runnable work) {
+        long started = System.nanoTime();
+        for (int offset = from; offset < from + count; offset++) {
+            idempotentConsumer.runOnce("inventory.failed:0:" + offset, work);
+        }
+        return (double) (System.nanoTime() - started) / count;
+    }
+}
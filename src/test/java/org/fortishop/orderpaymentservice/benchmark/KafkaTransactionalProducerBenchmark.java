@@ -0,0 +1,114 @@
+package org.fortishop.orderpaymentservice.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.fortishop.orderpaymentservice.kafka.config.KafkaProducerProperties.Profile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.KafkaContainer;
+
+/**
+ * 결제 완료 후 발행되는 3건(payment.completed, point.changed, delivery.started)을 한 묶음으로 보낼 때,
+ * 프로듀서 프로파일별로 트랜잭션을 끈 경우와 켠 경우의 처리량을 비교한다. {@code ./gradlew benchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+@Testcontainers
+class KafkaTransactionalProducerBenchmark {
+
+    private static final int WARMUP_GROUPS = 200;
+    private static final int MEASURED_GROUPS = 2_000;
+    // outbox 릴레이 한 배치에 담기는 결제 건수
+    private static final int GROUPS_PER_BATCH = 33;
+    private static final String PAYLOAD = "{\"orderId\":%d,\"memberId\":1,\"paidAmount\":10000,\"paymentMethod\":\"CARD\"}";
+
+    @Container
+    static KafkaContainer kafka = new KafkaContainer("apache/kafka:3.7.0");
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(Profile.class)
+    @DisplayName("결제 후속 이벤트 3건 묶음의 처리량을 트랜잭션 유무별로 측정한다")
+    void compare(Profile profile) {
+        double plain = run(profile, false);
+        double transactional = run(profile, true);
+
+        System.out.printf("[kafka producer] profile=%s, tx=off %.0f msgs/s, tx=on %.0f msgs/s (%.0f%%)%n",
+                profile, plain, transactional, transactional / plain * 100);
+        assertThat(transactional).isPositive();
+    }
+
+    private double run(Profile profile, boolean transactional) {
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(props(profile));
+        if (transactional) {
+            factory.setTransactionIdPrefix("benchmark-" + UUID.randomUUID() + "-");
+        }
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(factory);
+        try {
+            sendGroups(template, WARMUP_GROUPS, transactional);
+            long started = System.nanoTime();
+            sendGroups(template, MEASURED_GROUPS, transactional);
+            long elapsedNanos = System.nanoTime() - started;
+            return MEASURED_GROUPS * 3 / (elapsedNanos / 1_000_000_000.0);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private void sendGroups(KafkaTemplate<String, String> template, int groups, boolean transactional) {
+        for (int from = 0; from < groups; from += GROUPS_PER_BATCH) {
+            int to = Math.min(groups, from + GROUPS_PER_BATCH);
+            int first = from;
+            if (transactional) {
+                template.executeInTransaction(operations -> {
+                    sendBatch(operations::send, first, to);
+                    return null;
+                });
+            } else {
+                sendBatch(template::send, first, to);
+            }
+        }
+    }
+
+    private void sendBatch(Sender sender, int from, int to) {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int orderId = from; orderId < to; orderId++) {
+            String key = String.valueOf(orderId);
+            String payload = PAYLOAD.formatted(orderId);
+            futures.add(sender.send("payment.completed", key, payload));
+            futures.add(sender.send("point.changed", "1", payload));
+            futures.add(sender.send("delivery.started", key, payload));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private Map<String, Object> props(Profile profile) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, profile.getLingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, profile.getBatchSize());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.getCompressionType());
+        return props;
+    }
+
+    @FunctionalInterface
+    private interface Sender {
+        CompletableFuture<?> send(String topic, String key, String payload);
+    }
+}
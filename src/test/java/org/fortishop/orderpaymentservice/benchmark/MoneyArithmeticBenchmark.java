@@ -0,0 +1,116 @@
+package org.fortishop.orderpaymentservice.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.LongSupplier;
+import org.fortishop.orderpaymentservice.domain.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 주문 합계 계산과 적립금 이벤트 직렬화를 BigDecimal 과 Money 로 각각 돌려 연산당 시간과 할당 바이트를 비교한다.
+ * JMH 대신 스레드 할당 카운터로 잰다. {@code ./gradlew benchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+class MoneyArithmeticBenchmark {
+
+    private static final int ITEMS = 10;
+    private static final int WARMUP = 200_000;
+    private static final int MEASURED = 1_000_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BigDecimal[] decimalPrices = new BigDecimal[ITEMS];
+    private final Money[] moneyPrices = new Money[ITEMS];
+    private final int[] quantities = new int[ITEMS];
+
+    MoneyArithmeticBenchmark() {
+        for (int i = 0; i < ITEMS; i++) {
+            decimalPrices[i] = new BigDecimal("1990.00").add(BigDecimal.valueOf(i * 100L));
+            moneyPrices[i] = Money.of(decimalPrices[i]);
+            quantities[i] = i % 3 + 1;
+        }
+    }
+
+    @Test
+    @DisplayName("주문 합계 계산의 연산당 시간과 할당량을 비교한다")
+    void orderTotal() {
+        Result decimal = measure(() -> {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < ITEMS; i++) {
+                total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+            }
+            return total.unscaledValue().longValue();
+        });
+        Result money = measure(() -> {
+            Money total = Money.ZERO;
+            for (int i = 0; i < ITEMS; i++) {
+                total = total.plus(moneyPrices[i].times(quantities[i]));
+            }
+            return total.minorUnits();
+        });
+
+        print("order total", decimal, money);
+        assertThat(money.bytesPerOp()).isLessThan(decimal.bytesPerOp());
+    }
+
+    @Test
+    @DisplayName("적립금 계산과 이벤트 직렬화의 연산당 시간과 할당량을 비교한다")
+    void pointEvent() {
+        BigDecimal rate = new BigDecimal("0.1");
+        Result decimal = measure(() -> serialize(new DecimalPointEvent(1L, 2L,
+                decimalPrices[ITEMS - 1].multiply(rate))));
+        Result money = measure(() -> serialize(new MoneyPointEvent(1L, 2L,
+                moneyPrices[ITEMS - 1].multiply(1, 10, RoundingMode.DOWN))));
+
+        print("point event", decimal, money);
+        assertThat(money.bytesPerOp()).isLessThanOrEqualTo(decimal.bytesPerOp());
+    }
+
+    private long serialize(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event).length();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Result measure(LongSupplier operation) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += operation.getAsLong();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED; i++) {
+            sink += operation.getAsLong();
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertThat(sink).isNotZero();
+        return new Result((double) elapsed / MEASURED, (double) allocated / MEASURED);
+    }
+
+    private static void print(String name, Result decimal, Result money) {
+        System.out.printf("[money] %s: BigDecimal=%.1f ns/op %.0f B/op, Money=%.1f ns/op %.0f B/op%n", name,
+                decimal.nanosPerOp(), decimal.bytesPerOp(), money.nanosPerOp(), money.bytesPerOp());
+    }
+
+    private record Result(double nanosPerOp, double bytesPerOp) {
+    }
+
+    private record DecimalPointEvent(Long memberId, Long orderId, BigDecimal amount) {
+    }
+
+    private record MoneyPointEvent(Long memberId, Long orderId, Money amount) {
+    }
+}
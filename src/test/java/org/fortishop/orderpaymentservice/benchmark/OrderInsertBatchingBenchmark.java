@@ -0,0 +1,117 @@
+package org.fortishop.orderpaymentservice.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.fortishop.orderpaymentservice.domain.Money;
+import org.fortishop.orderpaymentservice.dto.request.OrderItemRequest;
+import org.fortishop.orderpaymentservice.dto.request.OrderRequest;
+import org.fortishop.orderpaymentservice.kafka.OrderEventProducer;
+import org.fortishop.orderpaymentservice.service.OrderBatchProperties;
+import org.fortishop.orderpaymentservice.service.OrderCache;
+import org.fortishop.orderpaymentservice.service.OrderPageProperties;
+import org.fortishop.orderpaymentservice.service.OrderService;
+import org.fortishop.orderpaymentservice.service.OrderStateMachine;
+import org.fortishop.orderpaymentservice.service.OrderServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 주문 1건당 JDBC statement 수(= MySQL 왕복 수)와 소요 시간을 품목 수별로 측정한다. {@code ./gradlew benchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.config.location=classpath:/application-test.yml",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderServiceImpl.class, OrderBatchProperties.class, OrderPageProperties.class,
+        OrderStateMachine.class})
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderInsertBatchingBenchmark {
+
+    private static final int WARMUP_ORDERS = 20;
+    private static final int MEASURED_ORDERS = 200;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("fortishop")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    OrderEventProducer orderEventProducer;
+
+    @MockitoBean
+    OrderCache orderCache;
+
+    @ParameterizedTest(name = "품목 {0}개")
+    @ValueSource(ints = {1, 10, 100})
+    @DisplayName("createOrder 의 주문당 JDBC 왕복 수와 소요 시간을 측정한다")
+    void createOrder(int itemsPerOrder) {
+        OrderRequest request = orderRequest(itemsPerOrder);
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            orderService.createOrder(request);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            orderService.createOrder(request);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        double statementsPerOrder = (double) statistics.getPrepareStatementCount() / MEASURED_ORDERS;
+        System.out.printf("[insert batching] items=%d, statements/order=%.2f (IDENTITY 기준 %d), avg=%.3f ms/order%n",
+                itemsPerOrder, statementsPerOrder, itemsPerOrder + 1,
+                elapsedNanos / 1_000_000.0 / MEASURED_ORDERS);
+
+        if (itemsPerOrder > 1) {
+            assertThat(statementsPerOrder).isLessThan((itemsPerOrder + 1) / 2.0);
+        }
+    }
+
+    private OrderRequest orderRequest(int itemsPerOrder) {
+        List<OrderItemRequest> items = new ArrayList<>(itemsPerOrder);
+        IntStream.range(0, itemsPerOrder)
+                .forEach(i -> items.add(new OrderItemRequest((long) i + 1, 1, Money.of(1000))));
+        return new OrderRequest(1L, items, Money.of(1000L * itemsPerOrder), "서울특별시");
+    }
+}
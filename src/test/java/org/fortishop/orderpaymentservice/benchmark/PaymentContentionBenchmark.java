@@ -0,0 +1,177 @@
+package org.fortishop.orderpaymentservice.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fortishop.orderpaymentservice.domain.Money;
+import org.fortishop.orderpaymentservice.domain.Order;
+import org.fortishop.orderpaymentservice.domain.OrderItem;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.fortishop.orderpaymentservice.exception.PaymentException;
+import org.fortishop.orderpaymentservice.kafka.PaymentEventProducer;
+import org.fortishop.orderpaymentservice.respository.OrderRepository;
+import org.fortishop.orderpaymentservice.service.OrderStateMachine;
+import org.fortishop.orderpaymentservice.service.PaymentBloomFilter;
+import org.fortishop.orderpaymentservice.service.PaymentRetryProperties;
+import org.fortishop.orderpaymentservice.service.PaymentService;
+import org.fortishop.orderpaymentservice.service.PaymentServiceImpl;
+import org.fortishop.orderpaymentservice.service.PaymentStatusCache;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayClient;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 주문 하나에 여러 스레드가 동시에 결제를 요청할 때 결제가 정확히 한 건만 생기는지 확인하고 처리량을 측정한다.
+ * {@code ./gradlew benchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.config.location=classpath:/application-test.yml",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PaymentServiceImpl.class, PaymentRetryProperties.class, OrderStateMachine.class})
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentContentionBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int ORDERS = 50;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("fortishop")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    PaymentEventProducer paymentEventProducer;
+
+    // PG 지연은 빼고 DB 경합만 잰다.
+    @MockitoBean
+    PaymentGatewayClient paymentGatewayClient;
+
+    @MockitoBean
+    PaymentStatusCache paymentStatusCache;
+
+    @MockitoBean
+    PaymentBloomFilter paymentBloomFilter;
+
+    @BeforeEach
+    void setUp() {
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-1")));
+    }
+
+    @Test
+    @DisplayName("동시 결제 요청 중 정확히 한 건만 성공하고 나머지는 거절된다")
+    void concurrentPaymentsOnSameOrder() throws Exception {
+        List<Long> orderIds = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(saveOrder());
+        }
+
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        long elapsedNanos = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (Long orderId : orderIds) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> attempts = new ArrayList<>(THREADS);
+                for (int t = 0; t < THREADS; t++) {
+                    attempts.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            paymentService.manualPayment(orderId, "CARD");
+                            return true;
+                        } catch (PaymentException e) {
+                            rejected.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            unexpected.incrementAndGet();
+                        }
+                        return false;
+                    }));
+                }
+                long started = System.nanoTime();
+                start.countDown();
+                int succeeded = 0;
+                for (Future<Boolean> attempt : attempts) {
+                    if (attempt.get(30, TimeUnit.SECONDS)) {
+                        succeeded++;
+                    }
+                }
+                elapsedNanos += System.nanoTime() - started;
+
+                assertThat(succeeded).as("orderId=%d", orderId).isEqualTo(1);
+                assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE order_id = ?",
+                        Integer.class, orderId)).isEqualTo(1);
+            }
+        }
+
+        int requests = ORDERS * THREADS;
+        System.out.printf("[payment contention] threads=%d, orders=%d, throughput=%.0f req/s, "
+                        + "avg=%.2f ms/order, rejected=%d, unexpected=%d%n",
+                THREADS, ORDERS, requests * 1_000_000_000.0 / elapsedNanos,
+                elapsedNanos / 1_000_000.0 / ORDERS, rejected.get(), unexpected.get());
+        assertThat(unexpected).hasValue(0);
+        assertThat(rejected).hasValue(requests - ORDERS);
+    }
+
+    private Long saveOrder() {
+        Order order = Order.builder()
+                .memberId(1L)
+                .address("서울특별시")
+                .status(OrderStatus.ORDERED)
+                .totalPrice(Money.of(1000))
+                .traceId("trace")
+                .build();
+        order.addItem(OrderItem.builder().productId(1L).quantity(1).price(Money.of(1000)).build());
+        return orderRepository.save(order).getId();
+    }
+}
@@ -0,0 +1,135 @@
+package org.fortishop.orderpaymentservice.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.fortishop.orderpaymentservice.global.thread.ConnectionPermitDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * 요청 하나가 DB 커넥션을 짧게 쓰고(2ms) 외부 I/O 로 오래 블로킹(50ms)되는 상황에서 Tomcat 기본 스레드 풀(200)과
+ * 가상 스레드(요청당 1개, 커넥션 허가증으로 풀 크기 제한)의 처리량과 지연 시간을 비교한다. {@code ./gradlew benchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final int REQUESTS = 20_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 20;
+    private static final long DB_MILLIS = 2;
+    private static final long IO_MILLIS = 50;
+
+    @Test
+    @DisplayName("동시 요청 2만 건에서 플랫폼 스레드와 가상 스레드의 처리량을 비교한다")
+    void compare() throws Exception {
+        Result platform;
+        try (ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            platform = run("platform(200)", executor, new FakePool(POOL_SIZE));
+        }
+
+        Result virtual;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            DataSource limited = new ConnectionPermitDataSource(new FakePool(POOL_SIZE), POOL_SIZE,
+                    Duration.ofSeconds(30));
+            virtual = run("virtual", executor, limited);
+        }
+
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+        assertThat(virtual.throughput()).isGreaterThan(platform.throughput());
+    }
+
+    private Result run(String name, ExecutorService executor, DataSource dataSource) throws InterruptedException {
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger failures = new AtomicInteger();
+        long started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    handle(dataSource);
+                } catch (SQLException e) {
+                    failures.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - submitted;
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        long elapsedNanos = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        Result result = new Result(REQUESTS * 1_000_000_000.0 / elapsedNanos, failures.get());
+        System.out.printf("[virtual threads] %-14s throughput=%.0f req/s, p50=%.1f ms, p99=%.1f ms, failures=%d%n",
+                name, result.throughput(), latencies[REQUESTS / 2] / 1_000_000.0,
+                latencies[(int) (REQUESTS * 0.99)] / 1_000_000.0, result.failures());
+        return result;
+    }
+
+    private void handle(DataSource dataSource) throws SQLException {
+        try (Connection ignored = dataSource.getConnection()) {
+            sleep(DB_MILLIS);
+        }
+        sleep(IO_MILLIS);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Result(double throughput, int failures) {
+    }
+
+    // Hikari 처럼 고정 크기 풀에서 커넥션을 빌려주고 close 시 반납받는다.
+    private static class FakePool extends AbstractDataSource {
+
+        private final Semaphore connections;
+
+        FakePool(int size) {
+            this.connections = new Semaphore(size, true);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            try {
+                if (!connections.tryAcquire(30, TimeUnit.SECONDS)) {
+                    throw new SQLTransientConnectionException("connection is not available");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException(e);
+            }
+            Connection connection = mock(Connection.class, invocation -> {
+                if ("close".equals(invocation.getMethod().getName())) {
+                    connections.release();
+                }
+                return null;
+            });
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
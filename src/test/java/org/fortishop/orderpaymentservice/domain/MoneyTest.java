@@ -0,0 +1,71 @@
+package org.fortishop.orderpaymentservice.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest(name = "{0} × {1}/{2} ({3}) = {4}")
+    @CsvSource({
+            "10.05, 1, 10, DOWN, 1.00",
+            "10.05, 1, 10, HALF_UP, 1.01",
+            "10.05, 1, 10, HALF_EVEN, 1.00",
+            "10.15, 1, 10, HALF_EVEN, 1.02",
+            "10.05, 1, 10, HALF_DOWN, 1.00",
+            "-10.05, 1, 10, DOWN, -1.00",
+            "-10.05, 1, 10, FLOOR, -1.01",
+            "-10.05, 1, 10, CEILING, -1.00",
+            "3000, 1, 10, UNNECESSARY, 300"
+    })
+    @DisplayName("비율 곱셈은 BigDecimal 과 같은 규칙으로 최소 단위에서 반올림한다")
+    void multiply_matchesBigDecimalRounding(String amount, long numerator, long denominator, RoundingMode mode,
+                                            String expected) {
+        Money result = Money.of(new BigDecimal(amount)).multiply(numerator, denominator, mode);
+
+        assertThat(result).isEqualTo(Money.of(new BigDecimal(expected)));
+        assertThat(result.toBigDecimal()).isEqualByComparingTo(new BigDecimal(amount)
+                .multiply(BigDecimal.valueOf(numerator))
+                .divide(BigDecimal.valueOf(denominator), Money.SCALE, mode));
+    }
+
+    @Test
+    @DisplayName("반올림이 필요한데 UNNECESSARY 를 주면 예외가 발생한다")
+    void multiply_unnecessary() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("10.05")).multiply(1, 10, RoundingMode.UNNECESSARY))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.001")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("JSON 에는 소수부가 0 이면 정수로, 아니면 소수로 쓰고 그대로 읽어 온다")
+    void json_roundTrip() throws Exception {
+        assertThat(objectMapper.writeValueAsString(Money.of(3000))).isEqualTo("3000");
+        assertThat(objectMapper.writeValueAsString(Money.ofMinor(-5))).isEqualTo("-0.05");
+        assertThat(objectMapper.writeValueAsString(Money.ofMinor(300050))).isEqualTo("3000.50");
+
+        assertThat(objectMapper.readValue("3000", Money.class)).isEqualTo(Money.of(3000));
+        assertThat(objectMapper.readValue("3000.5", Money.class)).isEqualTo(Money.ofMinor(300050));
+        assertThat(objectMapper.readValue("\"12.34\"", Money.class)).isEqualTo(Money.ofMinor(1234));
+    }
+
+    @Test
+    @DisplayName("DB 컬럼 값과 서로 손실 없이 변환된다")
+    void converter_roundTrip() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertThat(converter.convertToDatabaseColumn(Money.ofMinor(123456))).isEqualTo(new BigDecimal("1234.56"));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("1234.50"))).isEqualTo(Money.ofMinor(123450));
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+    }
+}
@@ -0,0 +1,59 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FingerprintWindowTest {
+
+    @Test
+    @DisplayName("가득 차면 가장 오래된 지문부터 밀어낸다")
+    void add_evictsOldest() {
+        FingerprintWindow window = new FingerprintWindow(3);
+
+        assertThat(window.add(1L)).isTrue();
+        window.add(2L);
+        window.add(3L);
+        assertThat(window.add(2L)).isFalse();
+        window.add(4L);
+
+        assertThat(window.contains(1L)).isFalse();
+        assertThat(window.contains(2L)).isTrue();
+        assertThat(window.contains(4L)).isTrue();
+        assertThat(window.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("삭제와 삽입이 반복되어도 최근 capacity 개의 지문과 정확히 일치한다")
+    void add_matchesReferenceAfterManyEvictions() {
+        int capacity = 1000;
+        FingerprintWindow window = new FingerprintWindow(capacity);
+        Deque<Long> reference = new ArrayDeque<>();
+        Set<Long> referenceSet = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // 좁은 범위에서 뽑아 충돌과 탐사 체인이 자주 생기게 한다.
+            long fingerprint = random.nextInt(5000) + 1;
+            boolean added = window.add(fingerprint);
+            assertThat(added).isEqualTo(!referenceSet.contains(fingerprint));
+            if (added) {
+                if (reference.size() == capacity) {
+                    referenceSet.remove(reference.removeFirst());
+                }
+                reference.addLast(fingerprint);
+                referenceSet.add(fingerprint);
+            }
+        }
+
+        for (long fingerprint = 1; fingerprint <= 5000; fingerprint++) {
+            assertThat(window.contains(fingerprint)).isEqualTo(referenceSet.contains(fingerprint));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeyOrderedExecutorTest {
+
+    private final KeyOrderedExecutor executor = new KeyOrderedExecutor("test", 4, 100);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("같은 키의 작업은 제출한 순서대로 실행된다")
+    void submit_preservesOrderPerKey() throws Exception {
+        Map<Long, List<Integer>> executed = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(300);
+
+        for (int sequence = 0; sequence < 100; sequence++) {
+            for (long key = 1; key <= 3; key++) {
+                long orderId = key;
+                int value = sequence;
+                executor.submit(orderId, () -> {
+                    executed.computeIfAbsent(orderId, k -> Collections.synchronizedList(new ArrayList<>())).add(value);
+                    done.countDown();
+                });
+            }
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long key = 1; key <= 3; key++) {
+            assertThat(executed.get(key)).isSorted().hasSize(100);
+        }
+    }
+
+    @Test
+    @DisplayName("한 키가 막혀 있어도 다른 레인의 키는 계속 처리된다")
+    void submit_otherKeysRunInParallel() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+
+        executor.submit(0L, () -> await(release));
+        executor.submit(1L, other::countDown);
+
+        assertThat(other.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LongBloomFilterTest {
+
+    @Test
+    @DisplayName("넣은 키는 항상 있다고 답하고, 넣지 않은 키의 거짓 양성 비율은 목표치 근처에 머문다")
+    void mightContain_noFalseNegativesAndBoundedFpp() {
+        int insertions = 100_000;
+        LongBloomFilter filter = new LongBloomFilter(insertions, 0.01);
+        for (long key = 1; key <= insertions; key++) {
+            filter.add(key);
+        }
+
+        for (long key = 1; key <= insertions; key++) {
+            assertThat(filter.mightContain(key)).isTrue();
+        }
+        int falsePositives = 0;
+        for (long key = insertions + 1; key <= insertions * 2L; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / insertions;
+        assertThat(observed).isLessThan(0.02);
+        assertThat(filter.expectedFpp()).isBetween(0.005, 0.02);
+        assertThat(filter.approximateCount()).isBetween(insertions * 95L / 100, insertions * 105L / 100);
+    }
+
+    @Test
+    @DisplayName("비어 있는 필터는 모든 키가 확실히 없다고 답한다")
+    void mightContain_empty() {
+        LongBloomFilter filter = new LongBloomFilter(1000, 0.01);
+
+        assertThat(filter.mightContain(42L)).isFalse();
+        assertThat(filter.expectedFpp()).isZero();
+    }
+}
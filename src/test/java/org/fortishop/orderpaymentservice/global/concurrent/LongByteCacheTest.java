@@ -0,0 +1,80 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LongByteCacheTest {
+
+    @Test
+    @DisplayName("가득 차면 최근에 읽히지 않은 항목부터 밀어낸다")
+    void put_evictsUnreferencedFirst() {
+        LongByteCache cache = new LongByteCache(3, Duration.ofMinutes(1));
+        cache.put(1L, (byte) 1);
+        cache.put(2L, (byte) 2);
+        cache.put(3L, (byte) 3);
+        cache.get(1L);
+        cache.get(2L);
+
+        cache.put(4L, (byte) 4);
+
+        assertThat(cache.get(3L)).isEqualTo(LongByteCache.MISSING);
+        assertThat(cache.get(1L)).isEqualTo(1);
+        assertThat(cache.get(2L)).isEqualTo(2);
+        assertThat(cache.get(4L)).isEqualTo(4);
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("ttl 이 지난 항목은 조회되지 않는다")
+    void get_expiresAfterTtl() {
+        AtomicLong clock = new AtomicLong();
+        LongByteCache cache = new LongByteCache(10, Duration.ofSeconds(5), clock::get);
+        cache.put(1L, (byte) 1);
+
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThat(cache.get(1L)).isEqualTo(1);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get(1L)).isEqualTo(LongByteCache.MISSING);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("삽입, 갱신, 삭제, 축출이 반복되어도 남아 있는 항목은 마지막으로 넣은 값과 같다")
+    void operations_matchReference() {
+        int capacity = 1000;
+        LongByteCache cache = new LongByteCache(capacity, Duration.ofMinutes(1));
+        Map<Long, Byte> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5000);
+            if (random.nextInt(10) == 0) {
+                cache.remove(key);
+                reference.remove(key);
+            } else {
+                byte value = (byte) random.nextInt(128);
+                cache.put(key, value);
+                reference.put(key, value);
+            }
+        }
+
+        int present = 0;
+        for (Map.Entry<Long, Byte> entry : reference.entrySet()) {
+            int value = cache.get(entry.getKey());
+            if (value != LongByteCache.MISSING) {
+                assertThat(value).isEqualTo(entry.getValue().intValue());
+                present++;
+            }
+        }
+        assertThat(present).isEqualTo(cache.size());
+        assertThat(cache.size()).isLessThanOrEqualTo(capacity);
+        assertThat(cache.memoryBytes()).isEqualTo(2048L * 13);
+    }
+}
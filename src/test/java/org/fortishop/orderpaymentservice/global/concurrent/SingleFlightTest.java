@@ -0,0 +1,107 @@
+package org.fortishop.orderpaymentservice.global.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 호출은 한 번만 실행되고 결과를 공유한다")
+    void execute_coalescesSameKey() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "paid";
+        }), executor);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<CompletableFuture<String>> duplicates = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            duplicates.add(CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+                executions.incrementAndGet();
+                return "duplicate";
+            }), executor));
+        }
+        while (singleFlight.sharedCount() < 5) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("paid");
+        for (CompletableFuture<String> duplicate : duplicates) {
+            assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo("paid");
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("첫 실행이 실패하면 대기 중인 호출도 같은 예외를 받는다")
+    void execute_sharesFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("결제 실패");
+        }), executor);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> duplicate = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(1L, () -> "duplicate"), executor);
+        while (singleFlight.sharedCount() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> duplicate.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("실행이 끝난 뒤의 호출과 다른 키의 호출은 각각 실행된다")
+    void execute_independentAfterCompletionAndAcrossKeys() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "first-" + executions.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "second-" + executions.incrementAndGet());
+        String other = singleFlight.execute(2L, () -> "other-" + executions.incrementAndGet());
+
+        assertThat(second).isEqualTo("second-2");
+        assertThat(other).isEqualTo("other-3");
+        assertThat(singleFlight.sharedCount()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.fortishop.orderpaymentservice.global.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fortishop.orderpaymentservice.domain.IdempotencyRecord;
+import org.fortishop.orderpaymentservice.exception.IdempotencyException;
+import org.fortishop.orderpaymentservice.exception.IdempotencyExceptionType;
+import org.fortishop.orderpaymentservice.global.Responder;
+import org.fortishop.orderpaymentservice.respository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyExecutorTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyExecutor idempotencyExecutor;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyExecutor = new IdempotencyExecutor(idempotencyRecordRepository, new IdempotencyProperties(),
+                new ObjectMapper(), new SimpleMeterRegistry());
+        lenient().when(idempotencyRecordRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        lenient().when(idempotencyRecordRepository.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key 가 없으면 저장소를 거치지 않고 그대로 실행한다")
+    void execute_withoutKey() {
+        ResponseEntity<?> response = idempotencyExecutor.execute("order", null, Map.of("memberId", 1),
+                () -> Responder.success(1L));
+
+        assertThat(response.getBody()).isEqualTo(1L);
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    @DisplayName("같은 키로 재요청하면 원래 응답을 재생하고 요청을 다시 실행하지 않는다")
+    void execute_replaysCompletedResponse() {
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotencyExecutor.execute("order", "key-1", Map.of("memberId", 1),
+                () -> Responder.success(100L + executions.incrementAndGet()));
+        ResponseEntity<?> replayed = idempotencyExecutor.execute("order", "key-1", Map.of("memberId", 1),
+                () -> Responder.success(100L + executions.incrementAndGet()));
+
+        assertThat(executions).hasValue(1);
+        assertThat(((Number) replayed.getBody()).longValue()).isEqualTo(101L);
+        assertThat(replayed.getHeaders().getFirst(IdempotencyExecutor.REPLAYED_HEADER)).isEqualTo("true");
+        verify(idempotencyRecordRepository).complete(eq("order:key-1"), any(), eq(200), eq("101"));
+    }
+
+    @Test
+    @DisplayName("같은 키를 다른 요청 본문에 재사용하면 예외가 발생한다")
+    void execute_keyReusedWithDifferentRequest() {
+        idempotencyExecutor.execute("order", "key-1", Map.of("memberId", 1), () -> Responder.success(1L));
+
+        assertThatThrownBy(() -> idempotencyExecutor.execute("order", "key-1", Map.of("memberId", 2),
+                () -> Responder.success(2L)))
+                .isInstanceOf(IdempotencyException.class);
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 중복 요청은 하나의 실행 결과를 공유한다")
+    void execute_collapsesConcurrentDuplicates() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<?>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyExecutor.execute("payment:1", "key-1", Map.of("method", "CARD"), () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return Responder.success("결제 요청이 완료되었습니다.");
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ResponseEntity<?>> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyExecutor.execute("payment:1", "key-1", Map.of("method", "CARD"), () -> {
+                    executions.incrementAndGet();
+                    return Responder.success("결제 요청이 완료되었습니다.");
+                }));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("결제 요청이 완료되었습니다.");
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("결제 요청이 완료되었습니다.");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("요청 처리에 실패하면 선점한 키를 지워 재시도를 허용한다")
+    void execute_failureReleasesKey() {
+        assertThatThrownBy(() -> idempotencyExecutor.execute("order", "key-1", Map.of("memberId", 1), () -> {
+            throw new IllegalStateException("처리 실패");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(idempotencyRecordRepository).deleteInProgress(eq("order:key-1"), any());
+        verify(idempotencyRecordRepository, never()).complete(anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("처리 중인 키의 임대가 만료되었으면 같은 요청이 이어받아 다시 실행한다")
+    void execute_reclaimsExpiredLease() {
+        IdempotencyRecord stale = inProgressRecord("order:key-1", LocalDateTime.now().minusMinutes(2));
+        when(idempotencyRecordRepository.findByIdempotencyKey("order:key-1")).thenReturn(Optional.of(stale));
+        when(idempotencyRecordRepository.reclaim(eq("order:key-1"), any(), any())).thenReturn(1);
+        when(idempotencyRecordRepository.complete(eq("order:key-1"), any(), anyInt(), any())).thenReturn(1);
+
+        ResponseEntity<?> response = idempotencyExecutor.execute("order", "key-1", Map.of("memberId", 1),
+                () -> Responder.success(1L));
+
+        assertThat(response.getBody()).isEqualTo(1L);
+        verify(idempotencyRecordRepository).complete(eq("order:key-1"), any(), eq(200), eq("1"));
+    }
+
+    @Test
+    @DisplayName("처리 중인 키의 임대가 남아 있으면 다시 실행하지 않고 처리 중으로 응답한다")
+    void execute_rejectsWhileLeaseHeld() {
+        IdempotencyRecord running = inProgressRecord("order:key-1", LocalDateTime.now());
+        when(idempotencyRecordRepository.findByIdempotencyKey("order:key-1")).thenReturn(Optional.of(running));
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyExecutor.execute("order", "key-1", Map.of("memberId", 1),
+                () -> Responder.success(executions.incrementAndGet())))
+                .isInstanceOf(IdempotencyException.class)
+                .extracting(e -> ((IdempotencyException) e).getExceptionType())
+                .isEqualTo(IdempotencyExceptionType.REQUEST_IN_PROGRESS);
+        assertThat(executions).hasValue(0);
+        verify(idempotencyRecordRepository, never()).reclaim(anyString(), any(), any());
+    }
+
+    // 같은 scope 와 요청 본문이면 키와 무관하게 해시가 같으므로, 다른 키로 한 번 실행해 해시를 얻는다.
+    private IdempotencyRecord inProgressRecord(String key, LocalDateTime claimedAt) {
+        idempotencyExecutor.execute("order", "hash-probe", Map.of("memberId", 1), () -> Responder.success(0L));
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(saved.capture());
+        return IdempotencyRecord.builder()
+                .idempotencyKey(key)
+                .requestHash(saved.getValue().getRequestHash())
+                .claimedAt(claimedAt)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
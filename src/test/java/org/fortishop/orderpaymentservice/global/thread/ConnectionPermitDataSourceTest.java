@@ -0,0 +1,69 @@
+package org.fortishop.orderpaymentservice.global.thread;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPermitDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private ConnectionPermitDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionPermitDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("허가증이 모두 사용 중이면 대기 시간 후 예외가 발생한다")
+    void getConnection_timeoutWhenExhausted() throws SQLException {
+        when(target.getConnection()).thenAnswer(i -> mock(Connection.class));
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThat(dataSource.availablePermits()).isZero();
+        assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    @DisplayName("커넥션을 닫으면 허가증을 한 번만 반납한다")
+    void close_releasesPermitOnce() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection acquired = dataSource.getConnection();
+        acquired.close();
+        acquired.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("커넥션 획득에 실패하면 허가증을 반납한다")
+    void getConnection_failureReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("풀 고갈"));
+
+        assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(SQLException.class);
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,131 @@
+package org.fortishop.orderpaymentservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.fortishop.orderpaymentservice.kafka.config.ConsumerDedupeProperties;
+import org.fortishop.orderpaymentservice.respository.ProcessedEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentConsumerTest {
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotentConsumer idempotentConsumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotentConsumer = new IdempotentConsumer(processedEventRepository,
+                new TransactionTemplate(transactionManager), new ConsumerDedupeProperties(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("최근에 처리한 레코드는 저장소를 조회하지 않고 메모리 창에서 걸러낸다")
+    void runOnce_windowHitSkipsRepository() {
+        when(processedEventRepository.markProcessed(anyLong(), any())).thenReturn(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThat(idempotentConsumer.runOnce("inventory.failed:0:1", executions::incrementAndGet)).isTrue();
+        assertThat(idempotentConsumer.runOnce("inventory.failed:0:1", executions::incrementAndGet)).isFalse();
+
+        assertThat(executions).hasValue(1);
+        verify(processedEventRepository, times(1)).markProcessed(anyLong(), any());
+        assertThat(meterRegistry.get("kafka.dedupe").tag("result", "window_hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("메모리 창에 없더라도 processed_events 에 기록이 있으면 처리하지 않는다")
+    void runOnce_storeHit() {
+        when(processedEventRepository.markProcessed(anyLong(), any())).thenReturn(0);
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThat(idempotentConsumer.runOnce("inventory.failed:0:1", executions::incrementAndGet)).isFalse();
+
+        assertThat(executions).hasValue(0);
+        assertThat(meterRegistry.get("kafka.dedupe").tag("result", "store_hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("처리에 실패하면 창에 남기지 않아 재전달 시 다시 처리한다")
+    void runOnce_failureAllowsRetry() {
+        when(processedEventRepository.markProcessed(anyLong(), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> idempotentConsumer.runOnce("inventory.failed:0:1", () -> {
+            throw new IllegalStateException("DB 오류");
+        })).isInstanceOf(IllegalStateException.class);
+        idempotentConsumer.runOnce("inventory.failed:0:1", () -> {
+        });
+
+        verify(processedEventRepository, times(2)).markProcessed(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("배치에서 이미 처리된 레코드는 빼고 남은 레코드로 한 번만 실행한다")
+    void runOnceAll_skipsProcessedRecords() {
+        ConsumerRecord<String, String> seen = new ConsumerRecord<>("inventory.failed", 0, 1L, "1", "{}");
+        ConsumerRecord<String, String> stored = new ConsumerRecord<>("inventory.failed", 0, 2L, "2", "{}");
+        ConsumerRecord<String, String> fresh = new ConsumerRecord<>("inventory.failed", 0, 3L, "3", "{}");
+        when(processedEventRepository.markProcessed(anyLong(), any())).thenReturn(1);
+        idempotentConsumer.runOnce(seen, () -> {
+        });
+        when(processedEventRepository.markProcessed(eq(IdempotentConsumer.fingerprint("inventory.failed:0:2")),
+                any())).thenReturn(0);
+        List<ConsumerRecord<String, String>> executed = new ArrayList<>();
+
+        int count = idempotentConsumer.runOnceAll(List.of(seen, stored, fresh), executed::addAll);
+
+        assertThat(count).isEqualTo(1);
+        assertThat(executed).containsExactly(fresh);
+        assertThat(idempotentConsumer.runOnceAll(List.of(seen, stored, fresh), executed::addAll)).isZero();
+        assertThat(meterRegistry.get("kafka.dedupe").tag("result", "window_hit").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("재시도 토픽에서 온 레코드는 원래 토픽의 좌표를 키로 쓴다")
+    void keyOf_usesOriginalCoordinates() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("inventory.failed.retry-1000", 0, 5L, "1", "{}");
+        record.headers().add(KafkaHeaders.ORIGINAL_TOPIC, "inventory.failed".getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.ORIGINAL_PARTITION, ByteBuffer.allocate(4).putInt(2).array());
+        record.headers().add(KafkaHeaders.ORIGINAL_OFFSET, ByteBuffer.allocate(8).putLong(42L).array());
+
+        assertThat(IdempotentConsumer.keyOf(record)).isEqualTo("inventory.failed:2:42");
+    }
+
+    @Test
+    @DisplayName("DLQ 에서 재처리하는 레코드는 DLQ 헤더의 원래 좌표를 키로 쓴다")
+    void keyOf_usesDeadLetterCoordinates() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("inventory.failed.dlq", 0, 7L, "1", "{}");
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, "inventory.failed".getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(4).putInt(1).array());
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(8).putLong(99L).array());
+
+        assertThat(IdempotentConsumer.keyOf(record)).isEqualTo("inventory.failed:1:99");
+    }
+}
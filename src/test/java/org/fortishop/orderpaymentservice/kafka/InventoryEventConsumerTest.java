@@ -0,0 +1,171 @@
+package org.fortishop.orderpaymentservice.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.fortishop.orderpaymentservice.dto.event.InventoryFailedEvent;
+import org.fortishop.orderpaymentservice.service.OrderStateMachine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryEventConsumerTest {
+
+    @Mock
+    private OrderStateMachine orderStateMachine;
+    @Mock
+    private DeadLetterPublishingRecoverer inventoryReservedDeadLetterRecoverer;
+    @Mock
+    private DeadLetterPublishingRecoverer inventoryFailedDeadLetterRecoverer;
+    @Mock
+    private KeyOrderedDispatcher keyOrderedDispatcher;
+    @Mock
+    private IdempotentConsumer idempotentConsumer;
+    @Mock
+    private Acknowledgment ack;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InventoryEventConsumer inventoryEventConsumer;
+
+    @BeforeEach
+    void setUp() {
+        inventoryEventConsumer = new InventoryEventConsumer(orderStateMachine, inventoryReservedDeadLetterRecoverer,
+                inventoryFailedDeadLetterRecoverer, keyOrderedDispatcher, idempotentConsumer, meterRegistry);
+    }
+
+    private ConsumerRecord<String, InventoryFailedEvent> record(long offset, Long orderId) {
+        return record("inventory.failed", offset, orderId);
+    }
+
+    private ConsumerRecord<String, InventoryFailedEvent> record(String topic, long offset, Long orderId) {
+        InventoryFailedEvent event = orderId == null ? null : InventoryFailedEvent.builder()
+                .orderId(orderId)
+                .productId(10L)
+                .reason("재고 부족")
+                .build();
+        return new ConsumerRecord<>(topic, 0, offset, String.valueOf(orderId), event);
+    }
+
+    // 중복 제거 계층이 받은 레코드를 모두 처음 보는 것으로 보고 그대로 실행하게 한다.
+    private void runBatchAsFresh() {
+        when(idempotentConsumer.runOnceAll(anyList(), any())).thenAnswer(invocation -> {
+            List<ConsumerRecord<String, InventoryFailedEvent>> records = invocation.getArgument(0);
+            invocation.<Consumer<List<ConsumerRecord<String, InventoryFailedEvent>>>>getArgument(1).accept(records);
+            return records.size();
+        });
+    }
+
+    @Test
+    @DisplayName("poll 한 배치의 주문 id 를 중복 제거해 한 번에 FAILED 로 전이하고 한 번만 ack 한다")
+    void handleFailedBatch_dedupesAndAcksOnce() {
+        runBatchAsFresh();
+        when(orderStateMachine.transitionAll(Set.of(1L, 2L), OrderStatus.FAILED)).thenReturn(2);
+
+        inventoryEventConsumer.handleFailedBatch(List.of(record(0, 1L), record(1, 2L), record(2, 1L)), ack);
+
+        verify(orderStateMachine).transitionAll(Set.of(1L, 2L), OrderStatus.FAILED);
+        verify(inventoryFailedDeadLetterRecoverer, never()).accept(any(), any());
+        verify(ack, times(1)).acknowledge();
+    }
+
+    @Test
+    @DisplayName("처리할 수 없는 레코드만 DLQ 로 보내고 나머지는 그대로 처리한다")
+    void handleFailedBatch_routesBadRecordsToDlq() {
+        runBatchAsFresh();
+        ConsumerRecord<String, InventoryFailedEvent> broken = record(1, null);
+        when(orderStateMachine.transitionAll(Set.of(1L), OrderStatus.FAILED)).thenReturn(1);
+
+        inventoryEventConsumer.handleFailedBatch(List.of(record(0, 1L), broken), ack);
+
+        verify(inventoryFailedDeadLetterRecoverer).accept(eq(broken), any(IllegalArgumentException.class));
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("다시 전달된 배치는 중복 제거 계층이 걸러 일괄 UPDATE 를 다시 보내지 않는다")
+    void handleFailedBatch_skipsRedeliveredBatch() {
+        when(idempotentConsumer.runOnceAll(anyList(), any())).thenReturn(0);
+
+        inventoryEventConsumer.handleFailedBatch(List.of(record(0, 1L), record(1, 2L)), ack);
+
+        verify(orderStateMachine, never()).transitionAll(any(), any());
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("일괄 UPDATE 가 실패하면 레코드별로 다시 처리하고 실패한 레코드만 DLQ 로 보낸다")
+    void handleFailedBatch_fallsBackPerRecord() {
+        ConsumerRecord<String, InventoryFailedEvent> first = record(0, 1L);
+        ConsumerRecord<String, InventoryFailedEvent> poison = record(1, 2L);
+        when(idempotentConsumer.runOnceAll(anyList(), any())).thenThrow(new IllegalStateException("DB 오류"));
+        when(idempotentConsumer.runOnce(any(ConsumerRecord.class), any(Runnable.class))).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == poison) {
+                throw new IllegalStateException("DB 오류");
+            }
+            return true;
+        });
+
+        inventoryEventConsumer.handleFailedBatch(List.of(first, poison), ack);
+
+        verify(idempotentConsumer).runOnce(eq(first), any(Runnable.class));
+        verify(inventoryFailedDeadLetterRecoverer).accept(eq(poison), any(IllegalStateException.class));
+        verify(inventoryFailedDeadLetterRecoverer, never()).accept(eq(first), any());
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("재시도 토픽에서 받은 레코드는 단계별 재시도 횟수로 기록한다")
+    void handleFailed_countsRetryTier() {
+        inventoryEventConsumer.handleFailed(record(0, 1L), ack);
+        inventoryEventConsumer.handleFailed(record("inventory.failed.retry-10000", 0, 1L), ack);
+
+        assertThat(meterRegistry.get("kafka.retry.attempts").tag("tier", "inventory.failed.retry-10000")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("kafka.retry.attempts").tag("tier", "inventory.failed").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("병렬 모드 토픽은 orderId 를 키로 레인에 넘기고 컨슈머 스레드에서는 처리하지 않는다")
+    void handleFailed_dispatchesByOrderId() {
+        ConsumerRecord<String, InventoryFailedEvent> record = record(0, 7L);
+        when(keyOrderedDispatcher.isParallel("inventory.failed")).thenReturn(true);
+
+        inventoryEventConsumer.handleFailed(record, ack);
+
+        verify(keyOrderedDispatcher).dispatch(eq(record), eq(7L), eq(ack), eq(inventoryFailedDeadLetterRecoverer),
+                any(Runnable.class));
+        verify(orderStateMachine, never()).transition(any(), any());
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("레코드 처리는 중복 제거 계층을 거쳐 실행하고 결과와 관계없이 ack 한다")
+    void handleFailed_runsThroughIdempotentConsumer() {
+        ConsumerRecord<String, InventoryFailedEvent> record = record(3, 1L);
+
+        inventoryEventConsumer.handleFailed(record, ack);
+
+        verify(idempotentConsumer).runOnce(eq(record), any(Runnable.class));
+        verify(orderStateMachine, never()).transition(any(), any());
+        verify(ack).acknowledge();
+    }
+}
@@ -0,0 +1,61 @@
+package org.fortishop.orderpaymentservice.kafka.dlq;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.KafkaHeaders;
+
+class DlqRecordFilterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @Test
+    @DisplayName("조건이 없으면 모든 레코드를 통과시킨다")
+    void matches_withoutConditions() {
+        DlqRecordFilter filter = DlqRecordFilter.of(" ", null, null);
+
+        assertThat(filter.matches(record(NOW, null, null))).isTrue();
+    }
+
+    @Test
+    @DisplayName("예외 클래스 이름 일부로 거르며, 감싼 예외 대신 원인 예외로도 찾는다")
+    void matches_byExceptionHeader() {
+        DlqRecordFilter filter = DlqRecordFilter.of("OptimisticLocking", null, null);
+
+        assertThat(filter.matches(record(NOW,
+                "org.springframework.kafka.listener.ListenerExecutionFailedException",
+                "org.springframework.orm.ObjectOptimisticLockingFailureException"))).isTrue();
+        assertThat(filter.matches(record(NOW, "java.lang.IllegalStateException", null))).isFalse();
+        assertThat(filter.matches(record(NOW, null, null))).isFalse();
+    }
+
+    @Test
+    @DisplayName("시간 범위는 시작 포함, 끝 제외로 거른다")
+    void matches_byTimeRange() {
+        DlqRecordFilter filter = DlqRecordFilter.of(null, NOW, NOW.plusHours(1));
+
+        assertThat(filter.matches(record(NOW.minusSeconds(1), null, null))).isFalse();
+        assertThat(filter.matches(record(NOW, null, null))).isTrue();
+        assertThat(filter.matches(record(NOW.plusMinutes(59), null, null))).isTrue();
+        assertThat(filter.matches(record(NOW.plusHours(1), null, null))).isFalse();
+    }
+
+    private ConsumerRecord<String, String> record(LocalDateTime timestamp, String exception, String cause) {
+        RecordHeaders headers = new RecordHeaders();
+        if (exception != null) {
+            headers.add(KafkaHeaders.DLT_EXCEPTION_FQCN, exception.getBytes(StandardCharsets.UTF_8));
+        }
+        if (cause != null) {
+            headers.add(KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN, cause.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ConsumerRecord<>("inventory.failed.dlq", 0, 0L, DlqRecordFilter.toMillis(timestamp),
+                TimestampType.CREATE_TIME, 0, 0, "1", "{}", headers, Optional.empty());
+    }
+}
@@ -0,0 +1,248 @@
+package org.fortishop.orderpaymentservice.kafka.dlq;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.fortishop.orderpaymentservice.domain.DlqReplayCheckpoint;
+import org.fortishop.orderpaymentservice.domain.DlqReplayJob;
+import org.fortishop.orderpaymentservice.domain.DlqReplayStatus;
+import org.fortishop.orderpaymentservice.dto.request.DlqReplayRequest;
+import org.fortishop.orderpaymentservice.dto.response.DlqReplayJobResponse;
+import org.fortishop.orderpaymentservice.exception.DlqReplayException;
+import org.fortishop.orderpaymentservice.exception.DlqReplayExceptionType;
+import org.fortishop.orderpaymentservice.kafka.InventoryEventConsumer;
+import org.fortishop.orderpaymentservice.respository.DlqReplayCheckpointRepository;
+import org.fortishop.orderpaymentservice.respository.DlqReplayJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DlqReplayServiceTest {
+
+    private static final String TOPIC = DlqReplayService.FAILED_DLQ;
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+    // 파티션 0 에 쌓인 DLQ 레코드 수
+    private static final int DLQ_SIZE = 3;
+
+    @Mock
+    private ConsumerFactory<String, String> dlqReplayConsumerFactory;
+    @Mock
+    private DlqReplayJobRepository dlqReplayJobRepository;
+    @Mock
+    private DlqReplayCheckpointRepository dlqReplayCheckpointRepository;
+    @Mock
+    private InventoryEventConsumer inventoryEventConsumer;
+
+    private DlqReplayService dlqReplayService;
+
+    @BeforeEach
+    void setUp() {
+        dlqReplayService = new DlqReplayService(dlqReplayConsumerFactory, dlqReplayJobRepository,
+                dlqReplayCheckpointRepository, inventoryEventConsumer, new ObjectMapper(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new DlqReplayProperties(),
+                new SimpleMeterRegistry());
+        lenient().when(dlqReplayConsumerFactory.createConsumer()).thenAnswer(invocation -> dlqConsumer());
+        lenient().when(dlqReplayJobRepository.addProgress(any(), anyString(), anyLong(), anyLong(), anyLong(), any()))
+                .thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dlqReplayService.destroy();
+    }
+
+    // 작업마다 새 컨슈머를 만든다. 레코드는 assign 이후 첫 poll 에서 채운다.
+    private MockConsumer<String, String> dlqConsumer() {
+        MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(TOPIC, List.of(new PartitionInfo(TOPIC, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION, (long) DLQ_SIZE));
+        consumer.schedulePollTask(() -> {
+            for (int offset = 0; offset < DLQ_SIZE; offset++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, offset, String.valueOf(offset),
+                        "{\"orderId\":" + offset + ",\"reason\":\"재고 부족\"}"));
+            }
+        });
+        return consumer;
+    }
+
+    private DlqReplayJob job(long id, DlqReplayStatus status) {
+        return DlqReplayJob.builder()
+                .id(id)
+                .topic(TOPIC)
+                .ratePerSecond(500)
+                .status(status)
+                .runningTopic(status == DlqReplayStatus.RUNNING ? TOPIC : null)
+                .build();
+    }
+
+    private DlqReplayCheckpoint checkpoint(long jobId, long nextOffset) {
+        return DlqReplayCheckpoint.builder().jobId(jobId).partitionNo(0).nextOffset(nextOffset)
+                .endOffset(DLQ_SIZE).build();
+    }
+
+    @Test
+    @DisplayName("시작 시점의 끝 offset 까지 재처리하고 결과별 건수와 진행 위치를 저장한 뒤 완료한다")
+    void start_replaysToEndAndCompletes() {
+        AtomicReference<DlqReplayJob> saved = new AtomicReference<>();
+        List<DlqReplayCheckpoint> checkpoints = new ArrayList<>();
+        when(dlqReplayJobRepository.save(any())).thenAnswer(invocation -> {
+            DlqReplayJob job = invocation.getArgument(0);
+            ReflectionTestUtils.setField(job, "id", 1L);
+            saved.set(job);
+            return job;
+        });
+        when(dlqReplayJobRepository.findById(1L)).thenAnswer(invocation -> Optional.of(saved.get()));
+        when(dlqReplayCheckpointRepository.saveAll(any())).thenAnswer(invocation -> {
+            if (checkpoints.isEmpty()) {
+                invocation.<Iterable<DlqReplayCheckpoint>>getArgument(0).forEach(checkpoints::add);
+            }
+            return List.of();
+        });
+        when(dlqReplayCheckpointRepository.findByJobIdOrderByPartitionNo(1L)).thenReturn(checkpoints);
+        when(inventoryEventConsumer.replayFailed(any()))
+                .thenReturn(true)
+                .thenReturn(false)
+                .thenThrow(new IllegalStateException("주문 서비스 오류"));
+
+        DlqReplayJobResponse response = dlqReplayService.start(TOPIC, new DlqReplayRequest(null, null, null, null));
+
+        assertThat(response.topic()).isEqualTo(TOPIC);
+        assertThat(saved.get().getRunningTopic()).isEqualTo(TOPIC);
+        verify(dlqReplayJobRepository, timeout(2000)).transition(eq(1L), anyString(), eq(DlqReplayStatus.RUNNING),
+                eq(DlqReplayStatus.COMPLETED), any());
+        // 이미 처리된 레코드(false)는 skipped, 예외는 failed 로 센다.
+        verify(dlqReplayJobRepository).addProgress(eq(1L), anyString(), eq(1L), eq(1L), eq(1L), any());
+        assertThat(checkpoints).singleElement().satisfies(checkpoint -> {
+            assertThat(checkpoint.getNextOffset()).isEqualTo(3L);
+            assertThat(checkpoint.isDone()).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("같은 토픽의 작업이 동시에 시작되어 유니크 제약에 걸리면 이미 실행 중으로 거절한다")
+    void start_rejectsConcurrentStart() {
+        when(dlqReplayJobRepository.save(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_dlq_replay_jobs_running_topic"));
+
+        assertThatThrownBy(() -> dlqReplayService.start(TOPIC, new DlqReplayRequest(null, null, null, null)))
+                .isInstanceOf(DlqReplayException.class)
+                .extracting(e -> ((DlqReplayException) e).getExceptionType())
+                .isEqualTo(DlqReplayExceptionType.REPLAY_ALREADY_RUNNING);
+        verify(inventoryEventConsumer, never()).replayFailed(any());
+    }
+
+    @Test
+    @DisplayName("일시 중지하면 상태를 PAUSED 로 바꾸고 토픽의 실행 슬롯을 비운다")
+    void pause_releasesRunningTopic() {
+        DlqReplayJob job = job(1L, DlqReplayStatus.RUNNING);
+        when(dlqReplayJobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        DlqReplayJobResponse response = dlqReplayService.pause(1L);
+
+        assertThat(response.status()).isEqualTo(DlqReplayStatus.PAUSED.name());
+        assertThat(job.getRunningTopic()).isNull();
+    }
+
+    @Test
+    @DisplayName("재개하면 저장된 진행 위치부터 이어서 재처리한다")
+    void resume_continuesFromCheckpoint() {
+        DlqReplayJob job = job(1L, DlqReplayStatus.PAUSED);
+        when(dlqReplayJobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(dlqReplayCheckpointRepository.findByJobIdOrderByPartitionNo(1L)).thenReturn(List.of(checkpoint(1L, 2L)));
+        when(inventoryEventConsumer.replayFailed(any())).thenReturn(true);
+
+        dlqReplayService.resume(1L);
+
+        assertThat(job.getRunningTopic()).isEqualTo(TOPIC);
+        verify(dlqReplayJobRepository, timeout(2000)).transition(eq(1L), anyString(), eq(DlqReplayStatus.RUNNING),
+                eq(DlqReplayStatus.COMPLETED), any());
+        verify(inventoryEventConsumer).replayFailed(
+                argThat(record -> record.offset() == 2L));
+        verify(dlqReplayJobRepository).addProgress(eq(1L), anyString(), eq(1L), eq(0L), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("실행 중이 아닌 작업은 일시 중지할 수 없다")
+    void pause_rejectsWhenNotRunning() {
+        when(dlqReplayJobRepository.findById(1L)).thenReturn(Optional.of(job(1L, DlqReplayStatus.COMPLETED)));
+
+        assertThatThrownBy(() -> dlqReplayService.pause(1L))
+                .isInstanceOf(DlqReplayException.class)
+                .extracting(e -> ((DlqReplayException) e).getExceptionType())
+                .isEqualTo(DlqReplayExceptionType.INVALID_REPLAY_STATE);
+    }
+
+    @Test
+    @DisplayName("갱신이 끊긴 작업은 선점에 성공한 경우에만 이어받아 실행한다")
+    void resumeStale_runsOnlyClaimedJobs() {
+        when(dlqReplayJobRepository.findStaleIds(eq(DlqReplayStatus.RUNNING), any())).thenReturn(List.of(7L, 8L));
+        when(dlqReplayJobRepository.claim(eq(7L), eq(DlqReplayStatus.RUNNING), anyString(), any(), any()))
+                .thenReturn(1);
+        when(dlqReplayJobRepository.claim(eq(8L), eq(DlqReplayStatus.RUNNING), anyString(), any(), any()))
+                .thenReturn(0);
+        when(dlqReplayJobRepository.findById(7L)).thenReturn(Optional.of(job(7L, DlqReplayStatus.RUNNING)));
+        when(dlqReplayCheckpointRepository.findByJobIdOrderByPartitionNo(7L))
+                .thenReturn(List.of(checkpoint(7L, DLQ_SIZE)));
+
+        dlqReplayService.resumeStale();
+
+        verify(dlqReplayJobRepository, timeout(2000)).transition(eq(7L), anyString(), eq(DlqReplayStatus.RUNNING),
+                eq(DlqReplayStatus.COMPLETED), any());
+        verify(dlqReplayJobRepository, after(200).never()).findById(8L);
+    }
+
+    @Test
+    @DisplayName("체크포인트에서 소유권을 잃으면 완료 처리하지 않고 멈춘다")
+    void replay_stopsWhenOwnershipLost() {
+        when(dlqReplayJobRepository.findStaleIds(eq(DlqReplayStatus.RUNNING), any())).thenReturn(List.of(7L));
+        when(dlqReplayJobRepository.claim(eq(7L), eq(DlqReplayStatus.RUNNING), anyString(), any(), any()))
+                .thenReturn(1);
+        when(dlqReplayJobRepository.findById(7L)).thenReturn(Optional.of(job(7L, DlqReplayStatus.RUNNING)));
+        when(dlqReplayCheckpointRepository.findByJobIdOrderByPartitionNo(7L)).thenReturn(List.of(checkpoint(7L, 0L)));
+        when(inventoryEventConsumer.replayFailed(any())).thenReturn(true);
+        when(dlqReplayJobRepository.addProgress(eq(7L), anyString(), anyLong(), anyLong(), anyLong(), any()))
+                .thenReturn(0);
+
+        dlqReplayService.resumeStale();
+
+        verify(dlqReplayJobRepository, timeout(2000)).addProgress(eq(7L), anyString(), anyLong(), anyLong(),
+                anyLong(), any());
+        verify(dlqReplayJobRepository, after(200).never()).transition(any(), any(), any(), any(), any());
+        verify(dlqReplayCheckpointRepository, never()).saveAll(any());
+    }
+}
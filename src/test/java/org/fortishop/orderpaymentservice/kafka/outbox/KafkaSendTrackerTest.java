@@ -0,0 +1,137 @@
+package org.fortishop.orderpaymentservice.kafka.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.fortishop.orderpaymentservice.exception.EventPublishException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaSendTrackerTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private OutboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaSendTracker kafkaSendTracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.setMaxPending(100L);
+        properties.getCircuit().setMinimumNumberOfCalls(2);
+        properties.getCircuit().setSlidingWindowSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        kafkaSendTracker = new KafkaSendTracker(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("브로커 응답을 기다리는 레코드를 토픽별 in-flight 수로 센다")
+    void send_tracksInFlight() {
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(pending);
+
+        kafkaSendTracker.send(kafkaTemplate, "payment.completed", "1", "payload");
+        kafkaSendTracker.send(kafkaTemplate, "payment.completed", "2", "payload");
+
+        assertThat(kafkaSendTracker.inFlight("payment.completed")).isEqualTo(2);
+        assertThat(meterRegistry.get("kafka.producer.in-flight").tag("topic", "payment.completed").gauge().value())
+                .isEqualTo(2);
+        pending.complete(new SendResult<>(null, null));
+        assertThat(kafkaSendTracker.inFlight("payment.completed")).isZero();
+    }
+
+    @Test
+    @DisplayName("브로커 응답이 오면 허가를 반납하고 토픽별 지연 시간과 실패 수를 기록한다")
+    void send_recordsCompletion() {
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(pending);
+
+        kafkaSendTracker.send(kafkaTemplate, "point.changed", "1", "payload");
+        pending.completeExceptionally(new IllegalStateException("broker down"));
+
+        assertThat(kafkaSendTracker.inFlight("point.changed")).isZero();
+        assertThat(meterRegistry.get("kafka.producer.send").tag("topic", "point.changed")
+                .tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("kafka.producer.send.failures").tag("topic", "point.changed")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("미발행 이벤트가 상한을 넘으면 새 요청을 503 으로 즉시 거절한다")
+    void checkAccepting_rejectsWhenBacklogFull() {
+        kafkaSendTracker.checkAccepting("order.created");
+
+        kafkaSendTracker.updateBacklog(100L);
+
+        assertThatThrownBy(() -> kafkaSendTracker.checkAccepting("order.created"))
+                .isInstanceOf(EventPublishException.class);
+        assertThat(meterRegistry.get("outbox.rejected").tag("topic", "order.created").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("발행 실패가 이어지면 서킷을 열고 이후 발행은 브로커를 거치지 않고 바로 실패시킨다")
+    void send_opensCircuitOnConsecutiveFailures() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        kafkaSendTracker.send(kafkaTemplate, "order.created", "1", "payload");
+        kafkaSendTracker.send(kafkaTemplate, "order.created", "2", "payload");
+        CompletableFuture<?> rejected = kafkaSendTracker.send(kafkaTemplate, "order.created", "3", "payload");
+
+        assertThat(kafkaSendTracker.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(kafkaSendTracker.isAvailable()).isFalse();
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(rejected.exceptionNow()).isInstanceOf(CallNotPermittedException.class);
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("연결할 수 없는 브로커를 가리키면 max.block.ms 만큼만 기다린 뒤 서킷이 열려 즉시 실패한다")
+    void send_deadBootstrapAddress() {
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:1",
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 200,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class));
+        KafkaTemplate<String, Object> deadTemplate = new KafkaTemplate<>(producerFactory);
+        try {
+            for (int i = 0; i < 2; i++) {
+                assertThat(kafkaSendTracker.send(deadTemplate, "order.created", "1", "payload"))
+                        .failsWithin(5, TimeUnit.SECONDS);
+            }
+
+            long started = System.nanoTime();
+            CompletableFuture<?> rejected = kafkaSendTracker.send(deadTemplate, "order.created", "1", "payload");
+
+            assertThat(rejected).isCompletedExceptionally();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(100);
+            assertThat(kafkaSendTracker.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package org.fortishop.orderpaymentservice.kafka.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.fortishop.orderpaymentservice.domain.OutboxEvent;
+import org.fortishop.orderpaymentservice.dto.event.PaymentFailedEvent;
+import org.fortishop.orderpaymentservice.exception.EventPublishException;
+import org.fortishop.orderpaymentservice.exception.EventPublishExceptionType;
+import org.fortishop.orderpaymentservice.kafka.OrderEventProducer;
+import org.fortishop.orderpaymentservice.respository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaOperations.OperationsCallback;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxProperties properties;
+    private KafkaSendTracker kafkaSendTracker;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.setSendTimeout(1000L);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        kafkaSendTracker = new KafkaSendTracker(properties, meterRegistry);
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, new ObjectMapper(), properties,
+                transactionManager, kafkaSendTracker, meterRegistry);
+    }
+
+    private OutboxEvent outboxEvent(long id, long orderId) {
+        return outboxEvent(id, orderId, null);
+    }
+
+    private OutboxEvent outboxEvent(long id, long orderId, String transactionGroup) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("payment.failed")
+                .messageKey(String.valueOf(orderId))
+                .eventType(PaymentFailedEvent.class.getName())
+                .payload("{\"orderId\":" + orderId + ",\"reason\":\"결제 시스템 오류\"}")
+                .transactionGroup(transactionGroup)
+                .build();
+    }
+
+    @Test
+    @DisplayName("발행에 성공한 outbox 이벤트만 일괄 삭제한다")
+    void dispatchBatch_deletesOnlySentEvents() {
+        when(outboxEventRepository.findDispatchBatch(10)).thenReturn(List.of(outboxEvent(1L, 100L),
+                outboxEvent(2L, 200L)));
+        when(kafkaTemplate.send(eq("payment.failed"), eq("100"), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        when(kafkaTemplate.send(eq("payment.failed"), eq("200"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int sent = outboxRelay.dispatchBatch(10).sent();
+
+        assertThat(sent).isEqualTo(1);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("저장된 타입으로 역직렬화한 이벤트를 원래 토픽과 키로 발행한다")
+    void dispatchBatch_restoresEventType() {
+        when(outboxEventRepository.findDispatchBatch(10)).thenReturn(List.of(outboxEvent(1L, 100L)));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+
+        outboxRelay.dispatchBatch(10);
+
+        verify(kafkaTemplate).send(eq("payment.failed"), eq("100"), any(PaymentFailedEvent.class));
+    }
+
+    @Test
+    @DisplayName("대기 중인 이벤트가 없으면 아무것도 발행하지 않는다")
+    void dispatchBatch_empty() {
+        when(outboxEventRepository.findDispatchBatch(10)).thenReturn(List.of());
+
+        assertThat(outboxRelay.dispatchBatch(10).sent()).isZero();
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("계속 실패하는 이벤트는 시도 횟수를 올리고 한도에 닿으면 보류해 배치 앞을 막지 않는다")
+    void dispatchBatch_parksPoisonEvent() {
+        OutboxEvent failing = outboxEvent(1L, 100L);
+        OutboxEvent poison = OutboxEvent.builder()
+                .id(2L)
+                .topic("payment.failed")
+                .messageKey("200")
+                .eventType("org.fortishop.removed.UnknownEvent")
+                .payload("{}")
+                .attempts(9)
+                .build();
+        when(outboxEventRepository.findDispatchBatch(10)).thenReturn(List.of(failing, poison));
+        when(kafkaTemplate.send(eq("payment.failed"), eq("100"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+
+        OutboxRelay.DispatchResult result = outboxRelay.dispatchBatch(10);
+
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getParkedAt()).isNull();
+        assertThat(poison.getAttempts()).isEqualTo(10);
+        assertThat(poison.getParkedAt()).isNotNull();
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("실패한 이벤트가 남은 배치 뒤에는 바로 다시 조회하지 않고 다음 주기를 기다린다")
+    void relay_stopsAfterFailedBatch() {
+        properties.setBatchSize(2);
+        when(outboxEventRepository.findDispatchBatch(2)).thenReturn(List.of(outboxEvent(1L, 100L),
+                outboxEvent(2L, 200L)));
+        when(kafkaTemplate.send(eq("payment.failed"), eq("100"), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        when(kafkaTemplate.send(eq("payment.failed"), eq("200"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(1)).findDispatchBatch(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("트랜잭션 모드에서 그룹 나머지까지 보내 배치 크기를 넘겨도 가득 찬 배치였다면 이어서 조회한다")
+    void relay_continuesAfterFullTransactionalBatch() {
+        properties.setBatchSize(2);
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(outboxEventRepository.findDispatchBatch(2)).thenReturn(List.of(outboxEvent(1L, 100L, "tx-a"),
+                outboxEvent(2L, 100L, "tx-b")), List.of());
+        when(outboxEventRepository.findGroupRemainder(Set.of("tx-a", "tx-b"), 2L))
+                .thenReturn(List.of(outboxEvent(3L, 100L, "tx-b")));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<OperationsCallback<String, Object, Object>>getArgument(0)
+                        .doInOperations((KafkaOperations<String, Object>) kafkaTemplate));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(2)).findDispatchBatch(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("트랜잭션 모드에서는 배치 경계에서 잘린 그룹까지 한 트랜잭션으로 발행하고 모두 삭제한다")
+    void dispatchBatch_transactionalCompletesGroups() {
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(outboxEventRepository.findDispatchBatch(2)).thenReturn(List.of(outboxEvent(1L, 100L, "tx-a"),
+                outboxEvent(2L, 100L, "tx-b")));
+        when(outboxEventRepository.findGroupRemainder(Set.of("tx-a", "tx-b"), 2L))
+                .thenReturn(List.of(outboxEvent(3L, 100L, "tx-b")));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<OperationsCallback<String, Object, Object>>getArgument(0)
+                        .doInOperations((KafkaOperations<String, Object>) kafkaTemplate));
+
+        int sent = outboxRelay.dispatchBatch(2).sent();
+
+        assertThat(sent).isEqualTo(3);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("트랜잭션 모드에서 배치 발행이 실패하면 그룹별로 다시 보내 실패한 그룹만 남긴다")
+    void dispatchBatch_transactionalIsolatesFailingGroup() {
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        OutboxEvent poison = outboxEvent(2L, 200L, "tx-b");
+        when(outboxEventRepository.findDispatchBatch(10)).thenReturn(List.of(outboxEvent(1L, 100L, "tx-a"),
+                poison, outboxEvent(3L, 300L, "tx-c")));
+        when(kafkaTemplate.send(eq("payment.failed"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        when(kafkaTemplate.send(eq("payment.failed"), eq("200"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<OperationsCallback<String, Object, Object>>getArgument(0)
+                        .doInOperations((KafkaOperations<String, Object>) kafkaTemplate));
+
+        assertThat(outboxRelay.dispatchBatch(10).sent()).isEqualTo(2);
+        verify(outboxEventRepository, never()).findGroupRemainder(anyCollection(), anyLong());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 3L));
+        assertThat(poison.getAttempts()).isEqualTo(1);
+        assertThat(poison.getParkedAt()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("트랜잭션 모드에서 계속 실패하는 그룹은 재시도 한도에 닿으면 보류한다")
+    void dispatchBatch_transactionalParksPoisonGroup() {
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        OutboxEvent poison = OutboxEvent.builder()
+                .id(1L)
+                .topic("payment.failed")
+                .messageKey("100")
+                .eventType("org.fortishop.removed.UnknownEvent")
+                .payload("{}")
+                .transactionGroup("tx-a")
+                .attempts(9)
+                .build();
+        when(outboxEventRepository.findDispatchBatch(10)).thenReturn(List.of(poison));
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<OperationsCallback<String, Object, Object>>getArgument(0)
+                        .doInOperations((KafkaOperations<String, Object>) kafkaTemplate));
+
+        assertThat(outboxRelay.dispatchBatch(10).sent()).isZero();
+        assertThat(poison.getAttempts()).isEqualTo(10);
+        assertThat(poison.getParkedAt()).isNotNull();
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Kafka 서킷이 열려 있으면 발행하지 않고 outbox 에 그대로 둔다")
+    void relay_skipsWhileCircuitOpen() {
+        KafkaSendTracker kafkaSendTracker = mock(KafkaSendTracker.class);
+        when(kafkaSendTracker.isAvailable()).thenReturn(false);
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, new ObjectMapper(),
+                new OutboxProperties(), transactionManager, kafkaSendTracker, new SimpleMeterRegistry());
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).findDispatchBatch(anyInt());
+        verify(outboxEventRepository).countByParkedAtIsNull();
+    }
+
+    @Test
+    @DisplayName("릴레이가 센 미발행 이벤트가 상한을 넘으면 주문 생성 경로가 DB 작업 전에 바로 거절된다")
+    void relay_backlogRejectsNewOrders() {
+        properties.setMaxPending(100L);
+        OrderEventProducer orderEventProducer = new OrderEventProducer(mock(OutboxEventWriter.class),
+                kafkaSendTracker);
+        when(outboxEventRepository.findDispatchBatch(anyInt())).thenReturn(List.of());
+        when(outboxEventRepository.countByParkedAtIsNull()).thenReturn(99L, 100L);
+
+        outboxRelay.relay();
+        orderEventProducer.ensureAccepting();
+        outboxRelay.relay();
+
+        assertThatThrownBy(orderEventProducer::ensureAccepting)
+                .isInstanceOf(EventPublishException.class)
+                .extracting(e -> ((EventPublishException) e).getExceptionType())
+                .isEqualTo(EventPublishExceptionType.PUBLISH_BACKLOG_FULL);
+    }
+}
@@ -0,0 +1,77 @@
+package org.fortishop.orderpaymentservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import org.fortishop.orderpaymentservice.domain.Money;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.fortishop.orderpaymentservice.dto.response.OrderSummaryResponse;
+import org.fortishop.orderpaymentservice.respository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        OrderExportProperties properties = new OrderExportProperties();
+        properties.setFlushInterval(1);
+        orderExportService = new OrderExportService(orderRepository, properties, objectMapper);
+
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        when(orderRepository.streamForExport(any(), any())).thenReturn(Stream.of(
+                new OrderSummaryResponse(1L, 10L, OrderStatus.PAID, Money.of(1000), createdAt),
+                new OrderSummaryResponse(2L, 20L, OrderStatus.ORDERED, Money.ofMinor(250050), createdAt)));
+    }
+
+    @Test
+    @DisplayName("NDJSON 으로 내보내면 주문 한 건이 한 줄의 JSON 이 된다")
+    void export_ndjson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = orderExportService.export(OrderExportFormat.NDJSON, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).startsWith("{\"orderId\":2");
+        assertThat(lines[0]).contains("\"orderId\":1", "\"status\":\"PAID\"", "\"createdAt\":\"2025-01-01T12:00:00\"");
+    }
+
+    @Test
+    @DisplayName("CSV 로 내보내면 헤더 다음에 주문이 한 줄씩 기록된다")
+    void export_csv() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        orderExportService.export(OrderExportFormat.CSV, null, null, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                orderId,memberId,status,totalPrice,createdAt
+                1,10,PAID,1000,2025-01-01T12:00
+                2,20,ORDERED,2500.50,2025-01-01T12:00
+                """);
+    }
+}
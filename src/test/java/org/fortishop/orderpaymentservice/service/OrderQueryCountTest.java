@@ -0,0 +1,174 @@
+package org.fortishop.orderpaymentservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.fortishop.orderpaymentservice.domain.Money;
+import org.fortishop.orderpaymentservice.domain.Order;
+import org.fortishop.orderpaymentservice.domain.OrderItem;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.fortishop.orderpaymentservice.kafka.OrderEventProducer;
+import org.fortishop.orderpaymentservice.kafka.PaymentEventProducer;
+import org.fortishop.orderpaymentservice.respository.OrderRepository;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayClient;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayResult;
+import org.fortishop.orderpaymentservice.support.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 주문 조회/보상 경로의 쿼리 수를 고정해 N+1 회귀를 잡는다.
+ */
+@DataJpaTest(properties = {
+        "spring.config.location=classpath:/application-test.yml",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.fortishop.orderpaymentservice.support.QueryCounter"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderServiceImpl.class, PaymentServiceImpl.class, PaymentRetryProperties.class, PaymentStatusCache.class,
+        PaymentStatusCacheProperties.class, PaymentBloomFilter.class, PaymentBloomFilterProperties.class,
+        OrderBatchProperties.class, OrderPageProperties.class, OrderCache.class, OrderCacheProperties.class,
+        OrderStateMachine.class, OrderQueryCountTest.MetricsConfig.class})
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderQueryCountTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("fortishop")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    OrderEventProducer orderEventProducer;
+
+    @MockitoBean
+    PaymentEventProducer paymentEventProducer;
+
+    @MockitoBean
+    PaymentGatewayClient paymentGatewayClient;
+
+    @BeforeEach
+    void setUp() {
+        QueryCounter.reset();
+    }
+
+    @Test
+    @DisplayName("주문 상세 조회는 품목 수와 무관하게 쿼리 1번으로 끝난다")
+    void getOrder_singleQuery() {
+        Long orderId = saveOrder(5);
+        QueryCounter.reset();
+
+        orderService.getOrder(orderId);
+
+        assertThat(QueryCounter.count()).as(QueryCounter.statements().toString()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("주문 생성 이벤트 재전송은 주문과 품목을 한 번에 읽는다")
+    void resendOrderCreatedEvent_singleQuery() {
+        Long orderId = saveOrder(5);
+        QueryCounter.reset();
+
+        orderService.resendOrderCreatedEvent(orderId);
+
+        assertThat(QueryCounter.count("order_items")).isZero();
+        assertThat(QueryCounter.count("orders")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("여러 주문의 품목을 읽어도 order_items 조회는 배치 1번이다")
+    void orderItems_batchFetched() {
+        List<Long> orderIds = IntStream.range(0, 10).mapToObj(i -> saveOrder(3)).toList();
+        QueryCounter.reset();
+
+        transactionTemplate.executeWithoutResult(status -> orderRepository.findAllById(orderIds)
+                .forEach(order -> order.getOrderItems().size()));
+
+        assertThat(QueryCounter.count("order_items")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("결제 실패 보상 경로에서 품목 조회는 1번이다")
+    void manualPayment_failureLoadsItemsOnce() {
+        Long orderId = saveOrder(5);
+        doThrow(new IllegalStateException("발행 실패")).when(paymentEventProducer).sendPaymentCompleted(any());
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-1")));
+        QueryCounter.reset();
+
+        paymentService.manualPayment(orderId, "CARD");
+
+        assertThat(QueryCounter.count("order_items")).isLessThanOrEqualTo(1);
+        assertThat(QueryCounter.count("orders")).isEqualTo(1);
+    }
+
+    private Long saveOrder(int items) {
+        return transactionTemplate.execute(status -> {
+            Order order = Order.builder()
+                    .memberId(1L)
+                    .address("서울특별시")
+                    .status(OrderStatus.ORDERED)
+                    .totalPrice(Money.of(1000L * items))
+                    .traceId("trace")
+                    .build();
+            IntStream.range(0, items).forEach(i -> order.addItem(OrderItem.builder()
+                    .productId((long) i + 1)
+                    .quantity(1)
+                    .price(Money.of(1000))
+                    .build()));
+            return orderRepository.save(order).getId();
+        });
+    }
+}
@@ -3,21 +3,35 @@ package org.fortishop.orderpaymentservice.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.math.BigDecimal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.fortishop.orderpaymentservice.domain.Money;
 import org.fortishop.orderpaymentservice.domain.Order;
 import org.fortishop.orderpaymentservice.domain.OrderItem;
 import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.fortishop.orderpaymentservice.domain.OrderStatusChangedEvent;
 import org.fortishop.orderpaymentservice.dto.event.OrderCreatedEvent;
+import org.fortishop.orderpaymentservice.dto.request.OrderCursor;
 import org.fortishop.orderpaymentservice.dto.request.OrderItemRequest;
 import org.fortishop.orderpaymentservice.dto.request.OrderRequest;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition;
+import org.fortishop.orderpaymentservice.dto.request.OrderSearchCondition.OrderSort;
+import org.fortishop.orderpaymentservice.dto.response.OrderBatchResponse;
+import org.fortishop.orderpaymentservice.dto.response.OrderPageResponse;
 import org.fortishop.orderpaymentservice.dto.response.OrderResponse;
+import org.fortishop.orderpaymentservice.dto.response.OrderSummaryResponse;
 import org.fortishop.orderpaymentservice.exception.OrderException;
+import org.fortishop.orderpaymentservice.exception.OrderExceptionType;
 import org.fortishop.orderpaymentservice.kafka.OrderEventProducer;
 import org.fortishop.orderpaymentservice.respository.OrderRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -25,7 +39,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplTest {
@@ -36,13 +57,35 @@ class OrderServiceImplTest {
     private OrderRepository orderRepository;
     @Mock
     private OrderEventProducer orderEventProducer;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private OrderStateMachine orderStateMachine;
+    @Spy
+    private OrderBatchProperties orderBatchProperties = new OrderBatchProperties();
+    @Spy
+    private OrderPageProperties orderPageProperties = new OrderPageProperties();
+    @Spy
+    private OrderCache orderCache = new OrderCache(new OrderCacheProperties(), new SimpleMeterRegistry());
+
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private List<Order> assignIds(List<Order> orders) {
+        for (Order order : orders) {
+            ReflectionTestUtils.setField(order, "id", 1000L + order.getMemberId());
+        }
+        return orders;
+    }
 
     @Test
     @DisplayName("주문 생성에 성공하고 Kafka 이벤트를 발행한다")
     void createOrder_success() {
         OrderRequest request = new OrderRequest(1L,
-                List.of(new OrderItemRequest(10L, 2, BigDecimal.valueOf(1000))),
-                BigDecimal.valueOf(2000), "서울특별시");
+                List.of(new OrderItemRequest(10L, 2, Money.of(1000))),
+                Money.of(2000), "서울특별시");
         Order saved = Order.builder()
                 .id(100L)
                 .memberId(1L)
@@ -60,9 +103,63 @@ class OrderServiceImplTest {
         verify(orderEventProducer).send(any(OrderCreatedEvent.class));
     }
 
+    @Test
+    @DisplayName("일괄 주문 생성 시 유효한 주문은 저장하고 잘못된 주문은 건별 오류로 응답한다")
+    void createOrders_partialInvalid() {
+        runTransactionCallbacks();
+        when(orderRepository.saveAll(anyList())).thenAnswer(i -> assignIds(i.getArgument(0)));
+        OrderItemRequest item = new OrderItemRequest(10L, 1, Money.of(1000));
+
+        OrderBatchResponse response = orderService.createOrders(List.of(
+                new OrderRequest(1L, List.of(item), Money.of(1000), "서울특별시"),
+                new OrderRequest(2L, List.of(), Money.of(1000), "서울특별시"),
+                new OrderRequest(3L, List.of(item), Money.of(1000), "서울특별시")));
+
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(OrderBatchResponse.Result::getOrderId)
+                .containsExactly(1001L, null, 1003L);
+        assertThat(response.getResults().get(1).getErrorCode()).isEqualTo("O003");
+        verify(orderRepository, times(1)).saveAll(anyList());
+        verify(orderEventProducer, times(2)).send(any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("청크 저장이 실패하면 건별로 다시 저장해 실패한 주문만 오류로 응답한다")
+    void createOrders_chunkFailureFallsBackToSingleOrders() {
+        runTransactionCallbacks();
+        when(orderRepository.saveAll(anyList())).thenAnswer(i -> {
+            List<Order> orders = i.getArgument(0);
+            if (orders.size() > 1 || orders.get(0).getMemberId() == 2L) {
+                throw new IllegalStateException("저장 실패");
+            }
+            return assignIds(orders);
+        });
+        OrderItemRequest item = new OrderItemRequest(10L, 1, Money.of(1000));
+
+        OrderBatchResponse response = orderService.createOrders(List.of(
+                new OrderRequest(1L, List.of(item), Money.of(1000), "서울특별시"),
+                new OrderRequest(2L, List.of(item), Money.of(1000), "서울특별시")));
+
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults().get(1).getErrorCode()).isEqualTo("S001");
+    }
+
+    @Test
+    @DisplayName("허용 건수를 초과한 일괄 주문 요청은 거절한다")
+    void createOrders_tooLarge() {
+        orderBatchProperties.setMaxSize(1);
+        OrderRequest request = new OrderRequest(1L,
+                List.of(new OrderItemRequest(10L, 1, Money.of(1000))), Money.of(1000), "서울특별시");
+
+        assertThatThrownBy(() -> orderService.createOrders(List.of(request, request)))
+                .isInstanceOf(OrderException.class);
+    }
+
     @Test
     @DisplayName("주문 상세 조회에 성공한다")
     void getOrder_success() {
+        runTransactionCallbacks();
         Order order = Order.builder()
                 .id(1L)
                 .memberId(1L)
@@ -71,7 +168,7 @@ class OrderServiceImplTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
 
         OrderResponse res = orderService.getOrder(1L);
 
@@ -82,85 +179,139 @@ class OrderServiceImplTest {
     @Test
     @DisplayName("존재하지 않는 주문을 조회하면 예외가 발생한다")
     void getOrder_notFound() {
-        when(orderRepository.findById(99L)).thenReturn(Optional.empty());
+        runTransactionCallbacks();
+        when(orderRepository.findWithItemsById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.getOrder(99L))
                 .isInstanceOf(OrderException.class);
     }
 
     @Test
-    @DisplayName("전체 주문 목록을 조회한다")
-    void getAllOrders_success() {
-        when(orderRepository.findAll()).thenReturn(List.of(Order.builder()
+    @DisplayName("주문 상세 조회 결과를 캐시해 두 번째 조회는 저장소를 거치지 않는다")
+    void getOrder_cached() {
+        runTransactionCallbacks();
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(Order.builder()
                 .id(1L)
+                .memberId(1L)
                 .status(OrderStatus.ORDERED)
-                .createdAt(LocalDateTime.now())
                 .build()));
-        assertThat(orderService.getAllOrders()).hasSize(1);
+
+        orderService.getOrder(1L);
+        OrderResponse cached = orderService.getOrder(1L);
+
+        assertThat(cached.getStatus()).isEqualTo("ORDERED");
+        verify(orderRepository, times(1)).findWithItemsById(1L);
     }
 
     @Test
-    @DisplayName("회원별 주문 목록을 조회한다")
-    void getOrdersByMember_success() {
-        when(orderRepository.findByMemberId(1L)).thenReturn(List.of(Order.builder()
+    @DisplayName("주문 상태가 바뀌면 캐시가 무효화되어 바뀐 상태를 조회한다")
+    void getOrder_evictedOnStatusChange() {
+        runTransactionCallbacks();
+        Order order = Order.builder()
                 .id(1L)
+                .memberId(1L)
                 .status(OrderStatus.ORDERED)
-                .createdAt(LocalDateTime.now())
-                .build()));
-        assertThat(orderService.getOrdersByMember(1L)).hasSize(1);
+                .build();
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        OrderCacheInvalidator invalidator = new OrderCacheInvalidator(orderCache, new OrderCacheProperties(),
+                event -> {
+                }, new StaticListableBeanFactory().getBeanProvider(BusProperties.class),
+                new StaticListableBeanFactory().getBeanProvider(Destination.Factory.class));
+
+        orderService.getOrder(1L);
+        order.updateStatus(OrderStatus.CANCELLED);
+        invalidator.onStatusChanged(new OrderStatusChangedEvent(1L, OrderStatus.CANCELLED));
+
+        assertThat(orderService.getOrder(1L).getStatus()).isEqualTo("CANCELLED");
+    }
+
+    @Test
+    @DisplayName("주문 목록을 한 건 더 조회해 다음 페이지 커서를 만든다")
+    void getOrders_nextCursor() {
+        when(orderRepository.search(any(), isNull(), eq(3))).thenReturn(List.of(
+                summary(30L), summary(20L), summary(10L)));
+
+        OrderPageResponse page = orderService.getOrders(condition(null, 2));
+
+        assertThat(page.getOrders()).extracting(OrderSummaryResponse::getOrderId).containsExactly(30L, 20L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(OrderCursor.decode(page.getNextCursor(), OrderSort.ID).id()).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("커서 이후의 회원별 주문 목록을 조회하고 마지막 페이지에서는 커서를 내려주지 않는다")
+    void getOrdersByMember_lastPage() {
+        String cursor = new OrderCursor(OrderSort.ID, 20L, null).encode();
+        when(orderRepository.search(any(), eq(new OrderCursor(OrderSort.ID, 20L, null)), eq(3)))
+                .thenReturn(List.of(summary(10L)));
+
+        OrderPageResponse page = orderService.getOrders(condition(cursor, 2));
+
+        assertThat(page.getOrders()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("잘못된 커서로 조회하면 예외가 발생한다")
+    void getOrders_invalidCursor() {
+        assertThatThrownBy(() -> orderService.getOrders(condition("not-a-cursor", 2)))
+                .isInstanceOf(OrderException.class);
+    }
+
+    private OrderSearchCondition condition(String cursor, Integer size) {
+        return new OrderSearchCondition(1L, null, null, null, null, null, null, cursor, size);
+    }
+
+    private OrderSummaryResponse summary(Long orderId) {
+        return new OrderSummaryResponse(orderId, 1L, OrderStatus.ORDERED, Money.of(1000),
+                LocalDateTime.now());
     }
 
     @Test
     @DisplayName("주문 취소에 성공한다")
     void cancelOrder_success() {
-        Order order = Order.builder()
-                .id(1L)
-                .status(OrderStatus.ORDERED)
-                .createdAt(LocalDateTime.now())
-                .build();
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderStateMachine.transition(1L, OrderStatus.CANCELLED)).thenReturn(true);
 
         orderService.cancelOrder(1L);
 
-        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(orderStateMachine).transition(1L, OrderStatus.CANCELLED);
     }
 
     @Test
     @DisplayName("이미 완료된 주문은 취소할 수 없다")
     void cancelOrder_alreadyFinalStatus() {
-        for (OrderStatus status : List.of(OrderStatus.PAID, OrderStatus.FAILED, OrderStatus.CANCELLED)) {
-            Order order = Order.builder()
-                    .id(1L)
-                    .status(status)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-
-            assertThatThrownBy(() -> orderService.cancelOrder(1L))
-                    .isInstanceOf(IllegalStateException.class)
-                    .hasMessageContaining("취소할 수 없습니다");
-        }
+        when(orderStateMachine.transition(1L, OrderStatus.CANCELLED)).thenReturn(false);
+        when(orderRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> orderService.cancelOrder(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("취소할 수 없습니다");
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 주문을 취소하면 예외가 발생한다")
+    void cancelOrder_notFound() {
+        when(orderStateMachine.transition(1L, OrderStatus.CANCELLED)).thenReturn(false);
+        when(orderRepository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> orderService.cancelOrder(1L))
+                .isInstanceOf(OrderException.class);
     }
 
     @Test
     @DisplayName("주문 상태를 변경한다")
     void changeStatus_success() {
-        Order order = Order.builder()
-                .id(1L)
-                .status(OrderStatus.ORDERED)
-                .createdAt(LocalDateTime.now())
-                .build();
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-
         orderService.changeStatus(1L, OrderStatus.PAID);
 
-        assertThat(order.getStatus()).isEqualTo(OrderStatus.PAID);
+        verify(orderStateMachine).transitionOrThrow(1L, OrderStatus.PAID);
     }
 
     @Test
     @DisplayName("존재하지 않는 주문의 상태 변경 시 예외가 발생한다")
     void changeStatus_notFound() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        doThrow(new OrderException(OrderExceptionType.ORDER_NOT_FOUND))
+                .when(orderStateMachine).transitionOrThrow(1L, OrderStatus.CANCELLED);
 
         assertThatThrownBy(() -> orderService.changeStatus(1L, OrderStatus.CANCELLED))
                 .isInstanceOf(OrderException.class);
@@ -173,16 +324,16 @@ class OrderServiceImplTest {
                 .id(1L)
                 .memberId(1L)
                 .status(OrderStatus.ORDERED)
-                .totalPrice(BigDecimal.valueOf(1000))
+                .totalPrice(Money.of(1000))
                 .orderItems(List.of(OrderItem.builder()
                         .productId(10L)
                         .quantity(1)
-                        .price(BigDecimal.valueOf(1000))
+                        .price(Money.of(1000))
                         .build()))
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
 
         orderService.resendOrderCreatedEvent(1L);
 
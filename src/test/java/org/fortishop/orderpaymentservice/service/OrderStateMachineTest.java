@@ -0,0 +1,109 @@
+package org.fortishop.orderpaymentservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import org.fortishop.orderpaymentservice.domain.OrderStatus;
+import org.fortishop.orderpaymentservice.domain.OrderStatusChangedEvent;
+import org.fortishop.orderpaymentservice.exception.OrderException;
+import org.fortishop.orderpaymentservice.exception.OrderExceptionType;
+import org.fortishop.orderpaymentservice.respository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStateMachineTest {
+
+    @InjectMocks
+    private OrderStateMachine orderStateMachine;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Test
+    @DisplayName("허용된 현재 상태 목록을 조건으로 UPDATE 하고 성공하면 상태 변경 이벤트를 발행한다")
+    void transition_success() {
+        when(orderRepository.transition(eq(1L), eq(Set.of(OrderStatus.ORDERED)), eq(OrderStatus.CANCELLED), any()))
+                .thenReturn(1);
+
+        assertThat(orderStateMachine.transition(1L, OrderStatus.CANCELLED)).isTrue();
+        verify(applicationEventPublisher).publishEvent(new OrderStatusChangedEvent(1L, OrderStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("영향받은 행이 없으면 전이하지 않은 것으로 보고 이벤트를 발행하지 않는다")
+    void transition_notApplied() {
+        when(orderRepository.transition(eq(1L), any(), eq(OrderStatus.PAID), any())).thenReturn(0);
+
+        assertThat(orderStateMachine.transition(1L, OrderStatus.PAID)).isFalse();
+        verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("어느 상태에서도 진입할 수 없는 상태로는 UPDATE 를 보내지 않는다")
+    void transition_noSources() {
+        assertThat(orderStateMachine.transition(1L, OrderStatus.ORDERED)).isFalse();
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("주문은 있지만 전이가 허용되지 않으면 INVALID_STATUS_TRANSITION 예외가 발생한다")
+    void transitionOrThrow_invalid() {
+        when(orderRepository.transition(anyLong(), any(), any(), any())).thenReturn(0);
+        when(orderRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> orderStateMachine.transitionOrThrow(1L, OrderStatus.PAID))
+                .isInstanceOf(OrderException.class)
+                .extracting(e -> ((OrderException) e).getExceptionType())
+                .isEqualTo(OrderExceptionType.INVALID_STATUS_TRANSITION);
+    }
+
+    @Test
+    @DisplayName("전이 표에 따라 종료 상태에서는 다른 상태로 바꿀 수 없다")
+    void transitionTable() {
+        assertThat(OrderStatus.ORDERED.canTransitionTo(OrderStatus.PAID)).isTrue();
+        assertThat(OrderStatus.PAID.canTransitionTo(OrderStatus.CANCELLED)).isFalse();
+        assertThat(OrderStatus.PAID.canTransitionTo(OrderStatus.FAILED)).isFalse();
+        assertThat(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.PAID)).isFalse();
+        assertThat(OrderStatus.FAILED.canTransitionTo(OrderStatus.ORDERED)).isFalse();
+    }
+
+    @Test
+    @DisplayName("여러 주문을 UPDATE 한 번으로 전이하고 대상 주문마다 상태 변경 이벤트를 발행한다")
+    void transitionAll() {
+        when(orderRepository.transitionAll(eq(List.of(1L, 2L)), eq(Set.of(OrderStatus.ORDERED)),
+                eq(OrderStatus.FAILED), any())).thenReturn(2);
+
+        assertThat(orderStateMachine.transitionAll(List.of(1L, 2L), OrderStatus.FAILED)).isEqualTo(2);
+        verify(applicationEventPublisher).publishEvent(new OrderStatusChangedEvent(1L, OrderStatus.FAILED));
+        verify(applicationEventPublisher).publishEvent(new OrderStatusChangedEvent(2L, OrderStatus.FAILED));
+    }
+
+    @Test
+    @DisplayName("일괄 FAILED 전이는 ORDERED 주문만 조건으로 걸어 결제 완료 주문은 바꾸지 않는다")
+    void transitionAll_skipsPaidOrders() {
+        // 주문 3 은 PAID 라 조건에 걸리지 않아 주문 1 만 바뀐다.
+        when(orderRepository.transitionAll(eq(List.of(1L, 3L)), eq(Set.of(OrderStatus.ORDERED)),
+                eq(OrderStatus.FAILED), any())).thenReturn(1);
+
+        assertThat(orderStateMachine.transitionAll(List.of(1L, 3L), OrderStatus.FAILED)).isEqualTo(1);
+        verify(orderRepository, never()).transitionAll(any(), argThat(sources -> sources.contains(OrderStatus.PAID)),
+                any(), any());
+    }
+}
@@ -0,0 +1,66 @@
+package org.fortishop.orderpaymentservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+import org.fortishop.orderpaymentservice.respository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentBloomFilterTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentBloomFilter paymentBloomFilter;
+
+    @BeforeEach
+    void setUp() {
+        PaymentBloomFilterProperties properties = new PaymentBloomFilterProperties();
+        properties.setMinimumInsertions(1000);
+        paymentBloomFilter = new PaymentBloomFilter(paymentRepository, properties, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        paymentBloomFilter.destroy();
+    }
+
+    @Test
+    @DisplayName("재구성은 전용 스레드에서 돌고, 끝나기 전에는 모든 주문을 있을 수 있음으로 본다")
+    void rebuildIfNeeded_runsOffSchedulerThread() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(paymentRepository.streamOrderIds()).thenAnswer(invocation -> {
+            release.await();
+            return Stream.of(1L, 2L);
+        });
+
+        paymentBloomFilter.rebuildIfNeeded();
+        verify(paymentRepository, timeout(1000)).streamOrderIds();
+        paymentBloomFilter.rebuildIfNeeded();
+        assertThat(paymentBloomFilter.mightContain(3L)).isTrue();
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(1)).until(() -> !paymentBloomFilter.mightContain(3L));
+        assertThat(paymentBloomFilter.mightContain(1L)).isTrue();
+        verify(paymentRepository, times(1)).streamOrderIds();
+    }
+}
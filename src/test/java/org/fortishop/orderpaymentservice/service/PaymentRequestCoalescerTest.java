@@ -0,0 +1,58 @@
+package org.fortishop.orderpaymentservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentRequestCoalescerTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    private PaymentRequestCoalescer paymentRequestCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        paymentRequestCoalescer = new PaymentRequestCoalescer(paymentService, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("같은 주문이라도 결제 수단이 다르면 진행 중인 결제에 합치지 않고 자기 수단으로 실행한다")
+    void manualPayment_doesNotCoalesceDifferentMethod() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(paymentService).manualPayment(1L, "CARD");
+
+        CompletableFuture<Void> card = CompletableFuture.runAsync(
+                () -> paymentRequestCoalescer.manualPayment(1L, "CARD"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // CARD 결제가 끝나기 전에 들어온 CASH 요청도 바로 자기 수단으로 실행된다.
+        paymentRequestCoalescer.manualPayment(1L, "CASH");
+        verify(paymentService).manualPayment(1L, "CASH");
+
+        release.countDown();
+        card.get(5, TimeUnit.SECONDS);
+        verify(paymentService, times(1)).manualPayment(eq(1L), eq("CARD"));
+        verify(paymentService, times(2)).manualPayment(eq(1L), anyString());
+    }
+}
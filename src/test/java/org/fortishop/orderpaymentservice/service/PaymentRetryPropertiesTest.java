@@ -0,0 +1,34 @@
+package org.fortishop.orderpaymentservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PaymentRetryPropertiesTest {
+
+    @Test
+    @DisplayName("재시도 대기 시간은 지수적으로 늘어나고 지터는 절반 이상을 보장한다")
+    void backoff_exponentialWithJitter() {
+        PaymentRetryProperties properties = new PaymentRetryProperties();
+        properties.setInitialDelay(Duration.ofSeconds(10));
+        properties.setMultiplier(2.0);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(properties.backoff(1)).isBetween(Duration.ofSeconds(5), Duration.ofSeconds(10));
+            assertThat(properties.backoff(3)).isBetween(Duration.ofSeconds(20), Duration.ofSeconds(40));
+        }
+    }
+
+    @Test
+    @DisplayName("재시도 대기 시간은 최대값을 넘지 않는다")
+    void backoff_cappedAtMaxDelay() {
+        PaymentRetryProperties properties = new PaymentRetryProperties();
+        properties.setMaxDelay(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(properties.backoff(30)).isBetween(Duration.ofSeconds(30), Duration.ofMinutes(1));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.fortishop.orderpaymentservice.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.fortishop.orderpaymentservice.domain.PaymentStatus;
+import org.fortishop.orderpaymentservice.respository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentRetrySchedulerTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private PaymentService paymentService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentRetryScheduler paymentRetryScheduler;
+
+    @BeforeEach
+    void setUp() {
+        paymentRetryScheduler = new PaymentRetryScheduler(paymentRepository, paymentService,
+                new PaymentRetryProperties(), transactionTemplate, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        paymentRetryScheduler.destroy();
+    }
+
+    @Test
+    @DisplayName("재시도 배출은 전용 스레드에서 돌고, 이전 배출이 끝나기 전의 주기는 건너뛴다")
+    void retryDuePayments_drainsOffSchedulerThread() throws InterruptedException {
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(paymentRepository.findDueIds(eq(PaymentStatus.FAILED.name()), any(), anyInt()))
+                .thenReturn(List.of(1L));
+        CountDownLatch release = new CountDownLatch(1);
+        when(paymentService.attemptRetry(1L)).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+
+        // PG 응답을 기다리는 동안에도 스케줄러 스레드는 바로 돌아온다.
+        paymentRetryScheduler.retryDuePayments();
+        verify(paymentService, timeout(1000)).attemptRetry(1L);
+        paymentRetryScheduler.retryDuePayments();
+
+        release.countDown();
+        verify(paymentRepository, timeout(1000))
+                .countByPaymentStatusAndNextAttemptAtNotNull(PaymentStatus.FAILED);
+        verify(paymentRepository, times(1)).findDueIds(eq(PaymentStatus.FAILED.name()), any(), anyInt());
+    }
+}
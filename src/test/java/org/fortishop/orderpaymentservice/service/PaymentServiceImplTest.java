@@ -3,27 +3,45 @@ package org.fortishop.orderpaymentservice.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.math.BigDecimal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import org.fortishop.orderpaymentservice.domain.Money;
 import org.fortishop.orderpaymentservice.domain.Order;
 import org.fortishop.orderpaymentservice.domain.OrderStatus;
 import org.fortishop.orderpaymentservice.domain.Payment;
 import org.fortishop.orderpaymentservice.domain.PaymentStatus;
+import org.fortishop.orderpaymentservice.domain.PaymentStatusChangedEvent;
 import org.fortishop.orderpaymentservice.dto.response.PaymentResponse;
+import org.fortishop.orderpaymentservice.exception.PaymentException;
+import org.fortishop.orderpaymentservice.exception.PaymentExceptionType;
 import org.fortishop.orderpaymentservice.kafka.PaymentEventProducer;
+import org.fortishop.orderpaymentservice.respository.OrderItemRepository;
 import org.fortishop.orderpaymentservice.respository.OrderRepository;
 import org.fortishop.orderpaymentservice.respository.PaymentRepository;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayClient;
+import org.fortishop.orderpaymentservice.service.gateway.PaymentGatewayResult;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceImplTest {
@@ -33,34 +51,284 @@ class PaymentServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
     @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
     private PaymentRepository paymentRepository;
     @Mock
     private PaymentEventProducer paymentEventProducer;
+    @Mock
+    private OrderStateMachine orderStateMachine;
+    @Mock
+    private PaymentGatewayClient paymentGatewayClient;
+    @Spy
+    private PaymentRetryProperties paymentRetryProperties = new PaymentRetryProperties();
+    @Spy
+    private PaymentStatusCache paymentStatusCache = new PaymentStatusCache(new PaymentStatusCacheProperties(),
+            new SimpleMeterRegistry());
+    @Mock
+    private PaymentBloomFilter paymentBloomFilter;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
-    @Test
-    @DisplayName("결제 요청에 성공하고 Kafka 이벤트를 발행한다")
-    void manualPayment_success() {
-        Order order = Order.builder().id(1L).memberId(100L).totalPrice(BigDecimal.valueOf(3000))
-                .status(OrderStatus.ORDERED).build();
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(paymentRepository.findByOrderId(1L)).thenReturn(Optional.empty());
-        when(paymentRepository.save(any())).thenAnswer(i -> {
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private Payment stubReservedPayment(Order order) {
+        Payment payment = Payment.builder().id(999L).orderId(order.getId()).paidAmount(order.getTotalPrice())
+                .method("CARD").paymentStatus(PaymentStatus.REQUESTED).build();
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(paymentRepository.saveAndFlush(any())).thenAnswer(i -> {
             Payment p = i.getArgument(0);
             ReflectionTestUtils.setField(p, "id", 999L);
             return p;
         });
+        when(paymentRepository.findById(999L)).thenReturn(Optional.of(payment));
+        return payment;
+    }
+
+    private Order orderedOrder() {
+        return Order.builder().id(1L).memberId(100L).totalPrice(Money.of(3000))
+                .status(OrderStatus.ORDERED).build();
+    }
+
+    @Test
+    @DisplayName("PG 승인 후 주문을 결제 완료로 바꾸고 Kafka 이벤트를 발행한다")
+    void manualPayment_success() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        Payment payment = stubReservedPayment(orderedOrder());
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-1")));
+        when(orderStateMachine.transition(1L, OrderStatus.PAID)).thenReturn(true);
 
         paymentService.manualPayment(1L, "CARD");
 
-        assertThat(order.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(payment.getPgTransactionId()).isEqualTo("TX-1");
         verify(paymentEventProducer).sendPaymentCompleted(any());
         verify(paymentEventProducer).sendPointChanged(any());
         verify(paymentEventProducer).sendDeliveryStarted(any());
     }
 
+    @Test
+    @DisplayName("PG 승인을 기다리는 사이 주문 상태가 바뀌면 결제를 실패 처리하고 승인을 취소한다")
+    void manualPayment_fail_concurrentTransition() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        Payment payment = stubReservedPayment(orderedOrder());
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-1")));
+        when(orderStateMachine.transition(1L, OrderStatus.PAID)).thenReturn(false);
+
+        assertThatThrownBy(() -> paymentService.manualPayment(1L, "CARD"))
+                .isInstanceOf(PaymentException.class)
+                .extracting(e -> ((PaymentException) e).getExceptionType())
+                .isEqualTo(PaymentExceptionType.PAYMENT_NOT_ALLOWED);
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(paymentGatewayClient).cancel("TX-1", 1L);
+        verify(paymentEventProducer, never()).sendPaymentCompleted(any());
+    }
+
+    @Test
+    @DisplayName("승인 반영 중 오류가 나면 주문을 실패로 바꾸지 않고 재시도 스케줄러에 맡긴다")
+    void manualPayment_completionFails_leavesForRetry() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        stubReservedPayment(orderedOrder());
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-1")));
+        when(orderStateMachine.transition(1L, OrderStatus.PAID)).thenReturn(true);
+        doThrow(new IllegalStateException("outbox 기록 실패")).when(paymentEventProducer).sendPaymentCompleted(any());
+
+        assertThatThrownBy(() -> paymentService.manualPayment(1L, "CARD"))
+                .isInstanceOf(PaymentException.class)
+                .extracting(e -> ((PaymentException) e).getExceptionType())
+                .isEqualTo(PaymentExceptionType.PAYMENT_PENDING);
+        verify(orderStateMachine, never()).transition(1L, OrderStatus.FAILED);
+        verify(paymentEventProducer, never()).sendPaymentFailed(any());
+        verify(paymentGatewayClient, never()).cancel(any(), any());
+    }
+
+    @Test
+    @DisplayName("PG 가 승인을 거절하면 주문을 실패로 바꾸고 결제 실패 이벤트를 발행한다")
+    void manualPayment_declined() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        Payment payment = stubReservedPayment(orderedOrder());
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.declined("한도 초과")));
+        when(orderStateMachine.transition(1L, OrderStatus.FAILED)).thenReturn(true);
+
+        assertThatThrownBy(() -> paymentService.manualPayment(1L, "CARD"))
+                .isInstanceOf(PaymentException.class)
+                .extracting(e -> ((PaymentException) e).getExceptionType())
+                .isEqualTo(PaymentExceptionType.PAYMENT_DECLINED);
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(paymentEventProducer).sendPaymentFailed(any());
+    }
+
+    @Test
+    @DisplayName("PG 가 응답하지 않으면 결제를 재시도 대기열에 넣고 주문은 그대로 둔다")
+    void manualPayment_gatewayUnavailable() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        Payment payment = stubReservedPayment(orderedOrder());
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.failedFuture(new TimeoutException()));
+
+        assertThatThrownBy(() -> paymentService.manualPayment(1L, "CARD"))
+                .isInstanceOf(PaymentException.class)
+                .extracting(e -> ((PaymentException) e).getExceptionType())
+                .isEqualTo(PaymentExceptionType.PAYMENT_GATEWAY_UNAVAILABLE);
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(payment.getRetryCount()).isEqualTo(1);
+        assertThat(payment.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        verify(orderStateMachine, never()).transition(any(), any());
+    }
+
+    @Test
+    @DisplayName("재시도 횟수를 모두 쓰면 주문을 실패로 바꾸고 결제 실패 이벤트를 발행한다")
+    void attemptRetry_exhausted() {
+        runTransactionCallbacks();
+        Payment payment = Payment.builder().id(999L).orderId(1L).paidAmount(Money.of(3000))
+                .method("CARD").paymentStatus(PaymentStatus.REQUESTED).retryCount(4).build();
+        when(paymentRepository.findById(999L)).thenReturn(Optional.of(payment));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderedOrder()));
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.failedFuture(new TimeoutException()));
+        when(orderStateMachine.transition(1L, OrderStatus.FAILED)).thenReturn(true);
+
+        assertThatThrownBy(() -> paymentService.attemptRetry(999L))
+                .isInstanceOf(PaymentException.class)
+                .extracting(e -> ((PaymentException) e).getExceptionType())
+                .isEqualTo(PaymentExceptionType.PAYMENT_GATEWAY_UNAVAILABLE);
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(payment.getNextAttemptAt()).isNull();
+        verify(paymentEventProducer).sendPaymentFailed(any());
+    }
+
+    @Test
+    @DisplayName("재시도 대상 결제가 승인되면 주문을 결제 완료로 바꾼다")
+    void attemptRetry_approved() {
+        runTransactionCallbacks();
+        Payment payment = Payment.builder().id(999L).orderId(1L).paidAmount(Money.of(3000))
+                .method("CARD").paymentStatus(PaymentStatus.REQUESTED).retryCount(1).build();
+        when(paymentRepository.findById(999L)).thenReturn(Optional.of(payment));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderedOrder()));
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-3")));
+        when(orderStateMachine.transition(1L, OrderStatus.PAID)).thenReturn(true);
+
+        assertThat(paymentService.attemptRetry(999L)).isTrue();
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(payment.getNextAttemptAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("기다리는 사이 주문이 취소되었으면 PG 를 호출하지 않고 재시도를 끝낸다")
+    void attemptRetry_orderCancelled() {
+        runTransactionCallbacks();
+        Payment payment = Payment.builder().id(999L).orderId(1L).method("CARD")
+                .paymentStatus(PaymentStatus.REQUESTED).nextAttemptAt(LocalDateTime.now()).build();
+        when(paymentRepository.findById(999L)).thenReturn(Optional.of(payment));
+        when(orderRepository.findById(1L)).thenReturn(
+                Optional.of(Order.builder().id(1L).status(OrderStatus.CANCELLED).build()));
+
+        assertThat(paymentService.attemptRetry(999L)).isFalse();
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(payment.getNextAttemptAt()).isNull();
+        verify(paymentGatewayClient, never()).approve(any());
+    }
+
+    @Test
+    @DisplayName("PG 장애로 실패했던 결제는 같은 결제 행으로 다시 시도한다")
+    void manualPayment_reclaimsFailedPayment() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderedOrder()));
+        when(paymentRepository.saveAndFlush(any())).thenThrow(
+                new DataIntegrityViolationException("Duplicate entry for key 'uk_payments_order_id'"));
+        when(paymentRepository.reclaim(eq(1L), eq("CARD"), eq(PaymentStatus.FAILED), eq(PaymentStatus.REQUESTED),
+                any())).thenReturn(1);
+        Payment payment = Payment.builder().id(999L).orderId(1L).paidAmount(Money.of(3000))
+                .method("CARD").paymentStatus(PaymentStatus.REQUESTED).build();
+        when(paymentRepository.findByOrderId(1L)).thenReturn(Optional.of(payment));
+        when(paymentRepository.findById(999L)).thenReturn(Optional.of(payment));
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-2")));
+        when(orderStateMachine.transition(1L, OrderStatus.PAID)).thenReturn(true);
+
+        paymentService.manualPayment(1L, "CARD");
+
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("Bloom filter 가 결제 행이 있을 수 있다고 하면 INSERT 전에 조회해 실패했던 결제를 다시 쓴다")
+    void manualPayment_possibleHit_reclaimsWithoutInsert() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        when(paymentBloomFilter.mightContain(1L)).thenReturn(true);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderedOrder()));
+        Payment payment = Payment.builder().id(999L).orderId(1L).paidAmount(Money.of(3000))
+                .method("CARD").paymentStatus(PaymentStatus.FAILED).build();
+        when(paymentRepository.findByOrderId(1L)).thenReturn(Optional.of(payment));
+        when(paymentRepository.reclaim(eq(1L), eq("CARD"), eq(PaymentStatus.FAILED), eq(PaymentStatus.REQUESTED),
+                any())).thenAnswer(i -> {
+                    payment.updateStatus(PaymentStatus.REQUESTED);
+                    return 1;
+                });
+        when(paymentRepository.findById(999L)).thenReturn(Optional.of(payment));
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-2")));
+        when(orderStateMachine.transition(1L, OrderStatus.PAID)).thenReturn(true);
+
+        paymentService.manualPayment(1L, "CARD");
+
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        verify(paymentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Bloom filter 의 거짓 양성이면 조회 후 그대로 INSERT 하고 거짓 양성으로 기록한다")
+    void manualPayment_falsePositive_inserts() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        when(paymentBloomFilter.mightContain(1L)).thenReturn(true);
+        Payment payment = stubReservedPayment(orderedOrder());
+        when(paymentRepository.findByOrderId(1L)).thenReturn(Optional.empty());
+        when(paymentGatewayClient.approve(any())).thenReturn(
+                CompletableFuture.completedFuture(PaymentGatewayResult.approved("TX-1")));
+        when(orderStateMachine.transition(1L, OrderStatus.PAID)).thenReturn(true);
+
+        paymentService.manualPayment(1L, "CARD");
+
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        verify(paymentBloomFilter).recordFalsePositive();
+        verify(paymentRepository).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 결제 수단이면 주문을 조회하지 않고 거절한다")
+    void manualPayment_fail_unsupportedMethod() {
+        when(paymentGatewayClient.supports("BITCOIN")).thenReturn(false);
+
+        assertThatThrownBy(() -> paymentService.manualPayment(1L, "BITCOIN"))
+                .isInstanceOf(PaymentException.class)
+                .extracting(e -> ((PaymentException) e).getExceptionType())
+                .isEqualTo(PaymentExceptionType.UNSUPPORTED_PAYMENT_METHOD);
+        verify(orderRepository, never()).findById(any());
+    }
+
     @Test
     @DisplayName("존재하지 않는 주문에 대해 결제를 시도하면 예외가 발생한다")
     void manualPayment_fail_orderNotFound() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
         when(orderRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> paymentService.manualPayment(1L, "CARD"))
@@ -69,30 +337,48 @@ class PaymentServiceImplTest {
     }
 
     @Test
-    @DisplayName("이미 결제된 주문에 대해 결제를 시도하면 예외가 발생한다")
+    @DisplayName("이미 결제된 주문에 대해 결제를 시도하면 유니크 제약 위반을 ALREADY_PAID 로 응답한다")
     void manualPayment_fail_duplicate() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
         when(orderRepository.findById(1L)).thenReturn(
                 Optional.of(Order.builder().id(1L).status(OrderStatus.ORDERED).build()));
-        when(paymentRepository.findByOrderId(1L)).thenReturn(
-                Optional.of(Payment.builder()
-                        .id(1L)
-                        .orderId(123L)
-                        .paidAmount(BigDecimal.valueOf(1000))
-                        .method("CARD")
-                        .paymentStatus(PaymentStatus.SUCCESS)
-                        .requestedAt(LocalDateTime.now())
-                        .build())
-        );
+        when(paymentRepository.saveAndFlush(any())).thenThrow(
+                new DataIntegrityViolationException("Duplicate entry for key 'uk_payments_order_id'"));
 
         assertThatThrownBy(() -> paymentService.manualPayment(1L, "CARD"))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("이미 결제 요청이 처리된 주문입니다.");
+                .isInstanceOf(PaymentException.class)
+                .extracting(e -> ((PaymentException) e).getExceptionType())
+                .isEqualTo(PaymentExceptionType.ALREADY_PAID);
+        verify(paymentRepository, never()).findByOrderId(any());
+        verify(paymentGatewayClient, never()).approve(any());
+        verify(paymentEventProducer, never()).sendPaymentFailed(any());
+    }
+
+    @Test
+    @DisplayName("이미 결제 완료 상태인 주문은 바로 ALREADY_PAID 로 응답한다")
+    void manualPayment_fail_alreadyPaidStatus() {
+        runTransactionCallbacks();
+        when(paymentGatewayClient.supports("CARD")).thenReturn(true);
+        when(orderRepository.findById(1L)).thenReturn(
+                Optional.of(Order.builder().id(1L).status(OrderStatus.PAID).build()));
+
+        assertThatThrownBy(() -> paymentService.manualPayment(1L, "CARD"))
+                .isInstanceOf(PaymentException.class);
+        verify(orderStateMachine, never()).transition(any(), any());
+    }
+
+    @Test
+    @DisplayName("적립금은 결제 금액의 10% 이고 최소 단위 미만은 버린다")
+    void pointAccrual_truncatesBelowMinorUnit() {
+        assertThat(PaymentServiceImpl.pointAccrual(Money.of(3000))).isEqualTo(Money.of(300));
+        assertThat(PaymentServiceImpl.pointAccrual(Money.ofMinor(1999))).isEqualTo(Money.ofMinor(199));
     }
 
     @Test
     @DisplayName("결제 상세 조회에 성공한다")
     void getPayment_success() {
-        Payment payment = Payment.builder().id(1L).orderId(99L).paidAmount(BigDecimal.valueOf(2000)).method("CARD")
+        Payment payment = Payment.builder().id(1L).orderId(99L).paidAmount(Money.of(2000)).method("CARD")
                 .paymentStatus(PaymentStatus.SUCCESS).requestedAt(LocalDateTime.now()).build();
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
 
@@ -119,6 +405,30 @@ class PaymentServiceImplTest {
         assertThat(paymentService.getStatusByOrderId(1L)).isEqualTo("SUCCESS");
     }
 
+    @Test
+    @DisplayName("한 번 조회한 결제 상태는 캐시에서 응답하고 DB 를 다시 읽지 않는다")
+    void getStatusByOrderId_cached() {
+        when(paymentRepository.findByOrderId(1L)).thenReturn(Optional.empty());
+
+        paymentService.getStatusByOrderId(1L);
+        String status = paymentService.getStatusByOrderId(1L);
+
+        assertThat(status).isEqualTo("NOT_REQUESTED");
+        verify(paymentRepository, times(1)).findByOrderId(1L);
+    }
+
+    @Test
+    @DisplayName("결제 상태가 바뀌면 캐시가 write-through 로 갱신된다")
+    void getStatusByOrderId_writeThrough() {
+        when(paymentRepository.findByOrderId(1L)).thenReturn(Optional.empty());
+        paymentService.getStatusByOrderId(1L);
+
+        paymentStatusCache.onStatusChanged(new PaymentStatusChangedEvent(1L, PaymentStatus.SUCCESS));
+
+        assertThat(paymentService.getStatusByOrderId(1L)).isEqualTo("SUCCESS");
+        verify(paymentRepository, times(1)).findByOrderId(1L);
+    }
+
     @Test
     @DisplayName("결제 정보가 없으면 상태는 NOT_REQUESTED를 반환한다")
     void getStatusByOrderId_notFound() {
@@ -149,14 +459,27 @@ class PaymentServiceImplTest {
     }
 
     @Test
-    @DisplayName("실패한 결제를 재시도하면 SUCCESS로 상태가 변경된다")
-    void retryPayment_success() {
-        Payment payment = Payment.builder().id(1L).paymentStatus(PaymentStatus.FAILED).build();
+    @DisplayName("실패한 결제를 재시도하면 재시도 횟수를 새로 주고 재시도 대기열에 바로 넣는다")
+    void retryPayment_requeues() {
+        Payment payment = Payment.builder().id(1L).paymentStatus(PaymentStatus.FAILED).retryCount(4).build();
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
 
         paymentService.retryPayment(1L);
 
-        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(payment.getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(payment.getRetryCount()).isZero();
+        assertThat(payment.getNextAttemptAt()).isBeforeOrEqualTo(LocalDateTime.now());
+        verify(paymentGatewayClient, never()).approve(any());
+    }
+
+    @Test
+    @DisplayName("처리 중인 결제를 재시도하면 예외가 발생한다")
+    void retryPayment_inProgress() {
+        Payment payment = Payment.builder().id(1L).paymentStatus(PaymentStatus.REQUESTED).build();
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+
+        assertThatThrownBy(() -> paymentService.retryPayment(1L))
+                .isInstanceOf(IllegalStateException.class);
     }
 
     @Test
@@ -0,0 +1,125 @@
+package org.fortishop.orderpaymentservice.service.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.fortishop.orderpaymentservice.domain.Money;
+import org.fortishop.orderpaymentservice.exception.PaymentException;
+import org.fortishop.orderpaymentservice.exception.PaymentExceptionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PaymentGatewayClientTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private PaymentGatewayClient client(Supplier<CompletableFuture<PaymentGatewayResult>> response) {
+        PaymentGatewayProperties.Method card = new PaymentGatewayProperties.Method();
+        card.setMaxConcurrentCalls(1);
+        card.setTimeout(Duration.ofMillis(100));
+        card.setSlidingWindowSize(4);
+        card.setMinimumNumberOfCalls(4);
+        PaymentGatewayProperties properties = new PaymentGatewayProperties();
+        properties.setMethods(Map.of("CARD", card));
+
+        PaymentGateway gateway = new PaymentGateway() {
+            @Override
+            public CompletableFuture<PaymentGatewayResult> approve(PaymentGatewayRequest request) {
+                calls.incrementAndGet();
+                return response.get();
+            }
+
+            @Override
+            public CompletableFuture<Void> cancel(String transactionId) {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        return new PaymentGatewayClient(gateway, properties, new SimpleMeterRegistry());
+    }
+
+    private PaymentGatewayRequest request(String method) {
+        return new PaymentGatewayRequest(1L, 1L, method, Money.of(3000), "trace");
+    }
+
+    @Test
+    @DisplayName("동시 호출 수가 상한에 닿으면 PG 를 부르지 않고 바로 실패한다")
+    void approve_rejectsWhenBulkheadFull() {
+        CompletableFuture<PaymentGatewayResult> pending = new CompletableFuture<>();
+        PaymentGatewayClient client = client(() -> pending);
+
+        client.approve(request("CARD"));
+        CompletableFuture<PaymentGatewayResult> rejected = client.approve(request("CARD"));
+
+        assertThat(calls).hasValue(1);
+        assertThatThrownBy(rejected::join)
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOf(PaymentException.class)
+                .extracting(e -> ((PaymentException) e).getExceptionType())
+                .isEqualTo(PaymentExceptionType.PAYMENT_GATEWAY_UNAVAILABLE);
+
+        pending.complete(PaymentGatewayResult.approved("TX-1"));
+        assertThat(client.approve(request("CARD")).join().transactionId()).isEqualTo("TX-1");
+    }
+
+    @Test
+    @DisplayName("PG 가 타임아웃 안에 응답하지 않으면 실패시키고 동시 호출 자리를 돌려준다")
+    void approve_timesOut() {
+        PaymentGatewayClient client = client(CompletableFuture::new);
+
+        assertThatThrownBy(() -> client.approve(request("CARD")).join())
+                .cause()
+                .isInstanceOf(TimeoutException.class);
+        assertThatThrownBy(() -> client.approve(request("CARD")).join())
+                .cause()
+                .isInstanceOf(TimeoutException.class);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("PG 오류가 이어지면 서킷을 열어 PG 를 부르지 않는다")
+    void approve_opensCircuit() {
+        PaymentGatewayClient client = client(() -> CompletableFuture.failedFuture(new IllegalStateException("PG 오류")));
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.approve(request("CARD")).join()).isInstanceOf(CompletionException.class);
+        }
+        assertThatThrownBy(() -> client.approve(request("CARD")).join())
+                .cause()
+                .isInstanceOf(PaymentException.class);
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("승인 거절은 서킷 실패로 세지 않는다")
+    void approve_declineKeepsCircuitClosed() {
+        PaymentGatewayClient client = client(() -> CompletableFuture.completedFuture(
+                PaymentGatewayResult.declined("한도 초과")));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(client.approve(request("CARD")).join().approved()).isFalse();
+        }
+        assertThat(calls).hasValue(10);
+    }
+
+    @Test
+    @DisplayName("설정에 없는 결제 수단은 거절한다")
+    void approve_unsupportedMethod() {
+        PaymentGatewayClient client = client(() -> CompletableFuture.completedFuture(
+                PaymentGatewayResult.approved("TX-1")));
+
+        assertThat(client.supports("CASH")).isFalse();
+        assertThatThrownBy(() -> client.approve(request("CASH")).join())
+                .cause()
+                .isInstanceOf(PaymentException.class);
+        assertThat(calls).hasValue(0);
+    }
+}
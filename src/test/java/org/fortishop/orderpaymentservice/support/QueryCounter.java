@@ -0,0 +1,40 @@
+package org.fortishop.orderpaymentservice.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 현재 스레드에서 Hibernate 가 준비한 SQL 을 기록한다. 테스트 설정에서
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} 로 등록해 사용한다.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql.toLowerCase(Locale.ROOT));
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static int count() {
+        return STATEMENTS.get().size();
+    }
+
+    public static int count(String table) {
+        String from = "from " + table + " ";
+        return (int) STATEMENTS.get().stream()
+                .filter(sql -> sql.startsWith("select") && (sql + " ").contains(from))
+                .count();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}